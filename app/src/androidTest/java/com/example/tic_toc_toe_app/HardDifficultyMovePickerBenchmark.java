@@ -0,0 +1,91 @@
+package com.example.tic_toc_toe_app;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.tic_toc_toe_app.Models.HardDifficultyMovePicker;
+import com.example.tic_toc_toe_app.Models.Move;
+import com.example.tic_toc_toe_app.Models.Player;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Measures how long {@link HardDifficultyMovePicker#chooseMove} takes on the empty board, which
+ * is the largest search it ever has to do. Results are written to logcat under the tag
+ * "HardPickerBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class HardDifficultyMovePickerBenchmark {
+    private static final String TAG = "HardPickerBenchmark";
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1000;
+
+
+    /**
+     * Times the first call on a fresh picker, where the transposition table is empty and the
+     * whole game tree has to be searched.
+     */
+    @Test
+    public void emptyBoardWithColdTable() {
+        for(int i = 0; i < WARMUP_ITERATIONS; i++){
+            new HardDifficultyMovePicker().chooseMove(new Player[3][3], Player.X);
+        }
+
+
+        long worst = 0;
+        long total = 0;
+
+        for(int i = 0; i < MEASURED_ITERATIONS; i++){
+            HardDifficultyMovePicker picker = new HardDifficultyMovePicker();
+            Player[][] board = new Player[3][3];
+
+            long start = System.nanoTime();
+            assertNotEquals(Move.NONE, picker.chooseMove(board, Player.X));
+            long elapsed = System.nanoTime() - start;
+
+            worst = Math.max(worst, elapsed);
+            total += elapsed;
+        }
+
+
+        Log.i(TAG, String.format("cold table: worst %d us, mean %d us",
+                worst / 1000, total / MEASURED_ITERATIONS / 1000));
+    }
+
+
+    /**
+     * Times repeated calls on the same picker, where the answer comes from the transposition
+     * table.
+     */
+    @Test
+    public void emptyBoardWithWarmTable() {
+        HardDifficultyMovePicker picker = new HardDifficultyMovePicker();
+
+        for(int i = 0; i < WARMUP_ITERATIONS; i++){
+            picker.chooseMove(new Player[3][3], Player.X);
+        }
+
+
+        long worst = 0;
+        long total = 0;
+
+        for(int i = 0; i < MEASURED_ITERATIONS; i++){
+            Player[][] board = new Player[3][3];
+
+            long start = System.nanoTime();
+            assertNotEquals(Move.NONE, picker.chooseMove(board, Player.X));
+            long elapsed = System.nanoTime() - start;
+
+            worst = Math.max(worst, elapsed);
+            total += elapsed;
+        }
+
+
+        Log.i(TAG, String.format("warm table: worst %d us, mean %d us",
+                worst / 1000, total / MEASURED_ITERATIONS / 1000));
+    }
+}
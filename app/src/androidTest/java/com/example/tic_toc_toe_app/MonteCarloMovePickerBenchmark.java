@@ -0,0 +1,60 @@
+package com.example.tic_toc_toe_app;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.tic_toc_toe_app.Models.MonteCarloMovePicker;
+import com.example.tic_toc_toe_app.Models.Move;
+import com.example.tic_toc_toe_app.Models.Player;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Measures how the number of playouts {@link MonteCarloMovePicker} runs per second grows as
+ * more worker threads are added, from 1 up to the number of cores on the device. Results are
+ * written to logcat under the tag "MonteCarloBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class MonteCarloMovePickerBenchmark {
+    private static final String TAG = "MonteCarloBenchmark";
+    private static final int BOARD_SIZE = 15;
+    private static final int WIN_LENGTH = 5;
+    private static final long MILLIS_PER_MOVE = 1000;
+    private static final int MEASURED_MOVES = 3;
+
+
+    @Test
+    public void playoutsPerSecondByThreadCount() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        double singleThreadRate = 0;
+
+        for(int threads = 1; threads <= cores; threads++){
+            MonteCarloMovePicker picker = new MonteCarloMovePicker(threads, MILLIS_PER_MOVE);
+
+            //Warm up
+            picker.chooseMove(new Player[BOARD_SIZE][BOARD_SIZE], WIN_LENGTH, Player.X);
+
+
+            long playouts = 0;
+            for(int i = 0; i < MEASURED_MOVES; i++){
+                //A fresh board each time, so no tree is reused
+                assertNotEquals(Move.NONE, picker.chooseMove(new Player[BOARD_SIZE][BOARD_SIZE], WIN_LENGTH, Player.O));
+                playouts += picker.getPlayoutsLastMove();
+            }
+            picker.shutdown();
+
+
+            double rate = playouts * 1000.0 / (MEASURED_MOVES * MILLIS_PER_MOVE);
+            if(threads == 1){
+                singleThreadRate = rate;
+            }
+
+            Log.i(TAG, String.format("%d threads: %.0f playouts/sec (%.2fx)",
+                    threads, rate, rate / singleThreadRate));
+        }
+    }
+}
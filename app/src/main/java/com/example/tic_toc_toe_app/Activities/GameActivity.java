@@ -3,34 +3,68 @@ package com.example.tic_toc_toe_app.Activities;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
-import android.graphics.Point;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.MenuItem;
 import android.view.View;
 import android.widget.GridLayout;
 import android.widget.TextView;
 
+import com.example.tic_toc_toe_app.Models.AsyncTicTocToeGame;
+import com.example.tic_toc_toe_app.Models.GameChangeListener;
+import com.example.tic_toc_toe_app.Models.GameRecordWriter;
+import com.example.tic_toc_toe_app.Models.GameState;
 import com.example.tic_toc_toe_app.Models.MediumDifficultyMovePicker;
+import com.example.tic_toc_toe_app.Models.Move;
 import com.example.tic_toc_toe_app.Models.Player;
 import com.example.tic_toc_toe_app.Models.SerializableTicTocToe;
 import com.example.tic_toc_toe_app.Models.TicTocToeGame;
 import com.example.tic_toc_toe_app.Models.TicTocToeGameModel;
 import com.example.tic_toc_toe_app.R;
 
-import java.io.Serializable;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 
 public class GameActivity extends AppCompatActivity {
     private static final String MODEL_STORAGE_KEY = "model";
+    private static final long COMPUTER_TURN_DELAY_MS = 1500;
+    private static final String GAME_LOG_FILE = "games.log";
+
+    //Every finished game is recorded here. It is opened once and kept for the life of the app,
+    //and is only used on the UI thread.
+    private static GameRecordWriter gameLog = null;
     private boolean computerOpponent;
     private SerializableTicTocToe gameModel = null;
     private final TextView[][] board = new TextView[3][3];
-    private Timer turnDelayer = new Timer();
     private TextView statusBar;
 
+    //Computer turns are worked out on the engine thread by asyncGame and shown on the UI thread.
+    //Each new game gets a new number, so results from a cancelled game are thrown away.
+    private final ExecutorService engineExecutor = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "GameEngine"));
+    private AsyncTicTocToeGame asyncGame = null;
+    private final Handler uiHandler = new Handler(Looper.getMainLooper());
+    private CompletableFuture<Integer> pendingComputerTurn = null;
+    private volatile int gameNumber = 0;
+
+    //Games finished on the engine thread are recorded on the UI thread, so an interrupted
+    //computer turn can never interrupt a write to the log. This is kept apart from uiHandler so
+    //cancelling a computer turn doesn't drop a finished game.
+    private final Handler recordHandler = new Handler(Looper.getMainLooper());
+
+    //Shows the changes the model reports, at most once per frame
+    private BoardUpdater boardUpdater = null;
+
 
 
 
@@ -53,8 +87,38 @@ public class GameActivity extends AppCompatActivity {
 
         setupStatusBar();
 
+        setupBoardUpdater();
+
         setupBoardClickListeners();
 
+        resumeComputerTurn();
+    }
+
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+
+        if(gameLog != null){
+            try {
+                gameLog.flush();
+            } catch (IOException e) {
+                Log.w("GameActivity", "Could not write the game log.", e);
+            }
+        }
+    }
+
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+
+        cancelComputerTurn();
+        engineExecutor.shutdownNow();
+        gameModel.shutdown();
+
+        gameModel.removeGameChangeListener(boardUpdater);
+        boardUpdater.stop();
     }
 
 
@@ -72,9 +136,14 @@ public class GameActivity extends AppCompatActivity {
         }
         else{
             //Restore old model
-            this.gameModel = (SerializableTicTocToe) savedInstanceState.getSerializable(MODEL_STORAGE_KEY);
+            TicTocToeGameModel model = TicTocToeGameModel.fromByteArray(savedInstanceState.getByteArray(MODEL_STORAGE_KEY));
+            setupRecorder(model);
+
+            this.gameModel = model;
             this.computerOpponent = savedInstanceState.getBoolean(MainActivity.OPPONENT_KEY);
         }
+
+        this.asyncGame = new AsyncTicTocToeGame(gameModel, engineExecutor);
     }
 
 
@@ -86,7 +155,10 @@ public class GameActivity extends AppCompatActivity {
     private void setupNewModel(){
         computerOpponent = getIntent().getBooleanExtra(MainActivity.OPPONENT_KEY, false);
 
-        gameModel = new TicTocToeGameModel(new MediumDifficultyMovePicker());
+        TicTocToeGameModel model = new TicTocToeGameModel(new MediumDifficultyMovePicker());
+        setupRecorder(model);
+
+        gameModel = model;
         gameModel.startNewGame(
                 (computerOpponent ?
                         TicTocToeGame.COMPUTER_OPPONENT :
@@ -95,6 +167,56 @@ public class GameActivity extends AppCompatActivity {
     }
 
 
+    /**
+     * Makes the model record its finished games in the game log, opening the log if this is the
+     * first game since the app started. If the log can't be opened, games aren't recorded. If
+     * writing to it fails later, such as when the disk is full, the model stops recording and
+     * the log is closed, so the next activity tries to open it again.
+     *
+     * @param model the model to record.
+     */
+    private void setupRecorder(TicTocToeGameModel model){
+        if(gameLog == null){
+            try {
+                gameLog = new GameRecordWriter(new File(getFilesDir(), GAME_LOG_FILE));
+            } catch (IOException e) {
+                Log.w("GameActivity", "Could not open the game log.", e);
+                return;
+            }
+        }
+
+        final GameRecordWriter log = gameLog;
+        model.setRecorder((game, computer) -> recordHandler.post(() -> {
+            try {
+                log.gameFinished(game, computer);
+            } catch (UncheckedIOException e) {
+                Log.w("GameActivity", "Could not write the game log, so games are no longer recorded.", e);
+                model.setRecorder(null);
+                closeGameLog(log);
+            }
+        }));
+    }
+
+
+    /**
+     * Closes the game log after writing to it failed, and forgets it if it is still the open
+     * log. Records that can't be written are lost.
+     *
+     * @param log the log that failed.
+     */
+    private static void closeGameLog(GameRecordWriter log){
+        if(gameLog == log){
+            gameLog = null;
+        }
+
+        try {
+            log.close();
+        } catch (IOException e) {
+            //The buffered records couldn't be written either
+        }
+    }
+
+
     /**
      * Does initialization of status bar.
      */
@@ -107,7 +229,6 @@ public class GameActivity extends AppCompatActivity {
         });
 
         this.statusBar = findViewById(R.id.status_bar_text);
-        updateStatusBar();
     }
 
 
@@ -128,6 +249,17 @@ public class GameActivity extends AppCompatActivity {
     }
 
 
+    /**
+     * Shows the whole game once, and from then on only what the model reports has changed.
+     */
+    private void setupBoardUpdater(){
+        boardUpdater = new BoardUpdater();
+        boardUpdater.showWholeGame(gameModel.getState());
+
+        gameModel.addGameChangeListener(boardUpdater);
+    }
+
+
     /**
      * Converts the indexes of a 2 dimensional array into a single index for a linear array
      * with the same total capacity.
@@ -142,6 +274,19 @@ public class GameActivity extends AppCompatActivity {
     }
 
 
+    /**
+     * If the activity was re-created while the computer was about to move, starts that turn
+     * again, since the turn that was pending belonged to the old activity.
+     */
+    private void resumeComputerTurn(){
+        GameState game = gameModel.getState();
+
+        if(computerOpponent && !game.isGameOver() && game.getCurrentPlayer() == Player.O){
+            scheduleComputerTurn();
+        }
+    }
+
+
     /**
      * Sets up event handlers to handle user clicks on the game board.
      */
@@ -168,50 +313,100 @@ public class GameActivity extends AppCompatActivity {
      */
     private void startNewGame(){
         //Cancel pending computer turns
-        if(computerOpponent){
-            turnDelayer.cancel();
-            turnDelayer = new Timer();
-        }
+        cancelComputerTurn();
 
-        gameModel.startNewGame(computerOpponent ? TicTocToeGame.COMPUTER_OPPONENT : TicTocToeGame.HUMAN_OPPONENT);
+        //If the engine thread is in the middle of a move, it is interrupted and the model throws
+        //that move away. The model reports the empty board to boardUpdater.
+        asyncGame.startNewGame(computerOpponent ? TicTocToeGame.COMPUTER_OPPONENT : TicTocToeGame.HUMAN_OPPONENT);
+    }
 
-        clearBoard();
 
-        updateStatusBar();
+    /**
+     * Starts working out the computer's move on the engine thread. The move is shown on the UI
+     * thread once COMPUTER_TURN_DELAY_MS has passed since this was called, or as soon as it is
+     * ready if it takes longer than that, so the time spent thinking counts towards the delay.
+     * The delay is also the computer's thinking budget: a generator that can work to a deadline
+     * keeps improving its move until it is time to show it. If the generator fails, the error
+     * is logged and the held back turn is let go straight away, so the board isn't left locked.
+     */
+    private void scheduleComputerTurn(){
+        final int game = gameNumber;
+        final long showAt = SystemClock.uptimeMillis() + COMPUTER_TURN_DELAY_MS;
+        final long deadline = System.nanoTime() + COMPUTER_TURN_DELAY_MS * 1_000_000L;
+
+        //The model reports the move as soon as it is made, so hold it back until showAt
+        boardUpdater.holdComputerTurn();
+        pendingComputerTurn = asyncGame.takeComputerTurnAsync(deadline);
+        pendingComputerTurn.whenComplete((computerMove, error) -> {
+            if(error == null){
+                uiHandler.postAtTime(() -> showComputerMove(game, computerMove), showAt);
+                return;
+            }
+
+            //A cancelled turn was already dropped by whoever cancelled it
+            if(!(error instanceof CancellationException)){
+                Log.e("GameActivity", "The computer could not take its turn.", error);
+                uiHandler.post(() -> showComputerMove(game, Move.NONE));
+            }
+        });
     }
 
 
     /**
-     * Removes all text from the game board.
+     * Cancels the computer turn that is being worked out or waiting to be shown, if there is one.
      */
-    private void clearBoard(){
-        for(int i = 0; i < board.length; i++){
-            for(int j = 0; j < board[i].length; j++){
-                board[i][j].setText(" ");
-            }
+    private void cancelComputerTurn(){
+        gameNumber++;
+
+        asyncGame.cancelComputerTurn();
+        pendingComputerTurn = null;
+
+        uiHandler.removeCallbacksAndMessages(null);
+        boardUpdater.dropComputerTurn();
+    }
+
+
+    /**
+     * Updates the UI with the results of the computer's turn. Must be called on the UI thread.
+     *
+     * @param game the number of the game the move was made in.
+     * @param computerMove the move the computer made, or Move.NONE if it didn't move.
+     */
+    private void showComputerMove(int game, int computerMove){
+        if(game != gameNumber){
+            return;
         }
+
+        pendingComputerTurn = null;
+
+        //If the computer didn't move there is nothing held back, and this just stops holding
+        boardUpdater.showComputerTurn();
     }
 
 
     /**
-     * Updates the status bar to display the correct message.
+     * Returns the status bar message for a game that is still going.
+     *
+     * @param currentPlayer the player whose turn it is.
+     * @return the message.
      */
-    private void updateStatusBar(){
-        String text;
+    private static String turnText(Player currentPlayer){
+        return "It is " + currentPlayer.toString() + "'s turn.";
+    }
 
-        if(gameModel.isGameOver()){
-            if(gameModel.getWinner() == Player.NONE){
-                text = "Game over: Draw";
-            }
-            else{
-                text = "Game over: " + gameModel.getWinner().toString() + " wins!";
-            }
-        }
-        else{
-            text = "It is " + gameModel.getCurrentPlayer().toString() + "'s turn.";
+
+    /**
+     * Returns the status bar message for a game that has ended.
+     *
+     * @param winner the player who won, or NONE for a draw.
+     * @return the message.
+     */
+    private static String gameOverText(Player winner){
+        if(winner == Player.NONE){
+            return "Game over: Draw";
         }
 
-        runOnUiThread(() -> {statusBar.setText(text);});
+        return "Game over: " + winner.toString() + " wins!";
     }
 
 
@@ -245,7 +440,7 @@ public class GameActivity extends AppCompatActivity {
     protected void onSaveInstanceState(@NonNull Bundle outState) {
         super.onSaveInstanceState(outState);
 
-        outState.putSerializable(MODEL_STORAGE_KEY, this.gameModel);
+        outState.putByteArray(MODEL_STORAGE_KEY, this.gameModel.toByteArray());
         outState.putBoolean(MainActivity.OPPONENT_KEY, computerOpponent);
     }
 
@@ -264,7 +459,8 @@ public class GameActivity extends AppCompatActivity {
     private class BoardClickListener implements View.OnClickListener {
         @Override
         public void onClick(View view) {
-            if(gameModel.isGameOver()){
+            //Ignore clicks while the computer is taking its turn
+            if(pendingComputerTurn != null || gameModel.isGameOver()){
                 return;
             }
 
@@ -275,6 +471,7 @@ public class GameActivity extends AppCompatActivity {
 
 
 
+            //The model reports the move to boardUpdater, which shows it on the next frame
             boolean moveWasLegal = gameModel.takeTurn(x, y);
 
             if(!moveWasLegal){
@@ -282,39 +479,295 @@ public class GameActivity extends AppCompatActivity {
             }
 
 
-            //Update the board to display the move that was just taken.
-            board[x][y].setText(    gameModel.getValueAtBoardPosition(x, y).toString()   );
+            if(computerOpponent){
+                scheduleComputerTurn();
+            }
+        }
+    }
 
 
-            updateStatusBar();
 
+    /**
+     * Collects the changes the model reports and shows them all on the next frame, so changes
+     * that arrive close together cost one UI update, and only the cells that changed are touched.
+     *
+     * Changes made on the engine thread are the computer's turn, which is shown after a delay.
+     * While a computer turn is pending they are held back until it is time to show it, and they
+     * are thrown away if the turn is cancelled. Everything else happens on the UI thread.
+     */
+    private class BoardUpdater implements GameChangeListener, Choreographer.FrameCallback {
+        private final Choreographer choreographer = Choreographer.getInstance();
+
+        //Changes to show on the next frame, and changes held back for the computer turn.
+        //Guarded by this.
+        private final PendingChanges ready = new PendingChanges(board.length, board[0].length);
+        private final PendingChanges held = new PendingChanges(board.length, board[0].length);
+        private boolean holding = false;
+
+        //Only used on the UI thread
+        private boolean frameScheduled = false;
+
+
+        /**
+         * Marks every cell and the status bar as changed, to show a game from scratch.
+         *
+         * @param game the game to show.
+         */
+        void showWholeGame(GameState game) {
+            synchronized (this){
+                for(int i = 0; i < board.length; i++){
+                    for(int j = 0; j < board[i].length; j++){
+                        ready.setCell(i, j, game.getValueAtBoardPosition(i, j));
+                    }
+                }
+
+                if(game.isGameOver()){
+                    ready.setGameOver(game.getWinner());
+                }
+                else{
+                    ready.setTurn(game.getCurrentPlayer());
+                }
+            }
 
-            if(computerOpponent){
-                turnDelayer.schedule(new ComputerTurnTask(), 1500);
+            scheduleFrame();
+        }
+
+
+        /**
+         * Starts holding back the changes made by the engine thread.
+         */
+        synchronized void holdComputerTurn() {
+            holding = true;
+        }
+
+
+        /**
+         * Shows the changes that were held back, on the next frame.
+         */
+        void showComputerTurn() {
+            synchronized (this){
+                holding = false;
+                ready.addAll(held);
+                held.clear();
+            }
+
+            scheduleFrame();
+        }
+
+
+        /**
+         * Throws away the changes that were held back.
+         */
+        synchronized void dropComputerTurn() {
+            holding = false;
+            held.clear();
+        }
+
+
+        /**
+         * Stops showing changes.
+         */
+        void stop() {
+            choreographer.removeFrameCallback(this);
+            frameScheduled = false;
+        }
+
+
+        @Override
+        public void gameStarted(GameState game) {
+            showWholeGame(game);
+        }
+
+
+        @Override
+        public void cellChanged(int row, int col, Player player) {
+            boolean onUiThread = isUiThread();
+
+            synchronized (this){
+                PendingChanges changes = changesFor(onUiThread);
+                if(changes == null){
+                    return;
+                }
+                changes.setCell(row, col, player);
+            }
+
+            if(onUiThread){
+                scheduleFrame();
+            }
+        }
+
+
+        @Override
+        public void turnChanged(Player currentPlayer) {
+            boolean onUiThread = isUiThread();
+
+            synchronized (this){
+                PendingChanges changes = changesFor(onUiThread);
+                if(changes == null){
+                    return;
+                }
+                changes.setTurn(currentPlayer);
+            }
+
+            if(onUiThread){
+                scheduleFrame();
+            }
+        }
+
+
+        @Override
+        public void gameOver(Player winner) {
+            boolean onUiThread = isUiThread();
+
+            synchronized (this){
+                PendingChanges changes = changesFor(onUiThread);
+                if(changes == null){
+                    return;
+                }
+                changes.setGameOver(winner);
+            }
+
+            if(onUiThread){
+                scheduleFrame();
+            }
+        }
+
+
+        private boolean isUiThread(){
+            return Looper.myLooper() == Looper.getMainLooper();
+        }
+
+
+        /**
+         * Returns where a change goes: straight to the next frame if it was made on the UI
+         * thread, or held back if it was made on the engine thread. Must be called holding this.
+         *
+         * @return the changes to add to, or null if the change belongs to a cancelled computer
+         * turn.
+         */
+        private PendingChanges changesFor(boolean onUiThread){
+            if(onUiThread){
+                return ready;
+            }
+
+            return holding ? held : null;
+        }
+
+
+        /**
+         * Asks for a call to doFrame before the next frame is drawn, unless one is coming
+         * already. Must be called on the UI thread.
+         */
+        private void scheduleFrame(){
+            if(!frameScheduled){
+                frameScheduled = true;
+                choreographer.postFrameCallback(this);
+            }
+        }
+
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            frameScheduled = false;
+
+            synchronized (this){
+                for(int i = 0; i < ready.changedCount; i++){
+                    int cell = ready.changedCells[i];
+                    Player player = ready.cells[cell];
+
+                    board[cell / ready.cols][cell % ready.cols].setText(
+                            player == null || player == Player.NONE ? " " : player.toString());
+                }
+
+                if(ready.statusChanged){
+                    statusBar.setText(ready.gameOver ? gameOverText(ready.statusPlayer) : turnText(ready.statusPlayer));
+                }
+
+                ready.clear();
             }
         }
     }
 
 
     /**
-     * Implementation of TimerTask that tells the model to take the computer turn, and then updates
-     * the UI based on the results of that turn.
+     * The cells and status that have changed since they were last shown. Only the latest value
+     * of each is kept, so any number of changes to a cell cost one update.
      */
-    private class ComputerTurnTask extends TimerTask {
-        @Override
-        public void run() {
-            Point computerMove = gameModel.takeComputerTurn();
+    private static final class PendingChanges {
+        final int cols;
+        final Player[] cells;
+        final boolean[] changed;
 
-            if(computerMove == null){
-                return;
+        //The cells that have changed, in the order they first changed
+        final int[] changedCells;
+        int changedCount = 0;
+
+        boolean statusChanged = false;
+        boolean gameOver;
+        Player statusPlayer;
+
+
+        PendingChanges(int rows, int cols){
+            this.cols = cols;
+            this.cells = new Player[rows * cols];
+            this.changed = new boolean[rows * cols];
+            this.changedCells = new int[rows * cols];
+        }
+
+
+        void setCell(int row, int col, Player player){
+            setCell(row * cols + col, player);
+        }
+
+
+        private void setCell(int cell, Player player){
+            cells[cell] = player;
+
+            if(!changed[cell]){
+                changed[cell] = true;
+                changedCells[changedCount++] = cell;
+            }
+        }
+
+
+        void setTurn(Player currentPlayer){
+            statusChanged = true;
+            gameOver = false;
+            statusPlayer = currentPlayer;
+        }
+
+
+        void setGameOver(Player winner){
+            statusChanged = true;
+            gameOver = true;
+            statusPlayer = winner;
+        }
+
+
+        /**
+         * Adds changes made after the ones already here.
+         */
+        void addAll(PendingChanges later){
+            for(int i = 0; i < later.changedCount; i++){
+                int cell = later.changedCells[i];
+                setCell(cell, later.cells[cell]);
             }
 
-            board[computerMove.x][computerMove.y].setText(
-                    gameModel.getValueAtBoardPosition(computerMove.x, computerMove.y)
-                            .toString());
+            if(later.statusChanged){
+                statusChanged = true;
+                gameOver = later.gameOver;
+                statusPlayer = later.statusPlayer;
+            }
+        }
 
 
-            updateStatusBar();
+        void clear(){
+            for(int i = 0; i < changedCount; i++){
+                changed[changedCells[i]] = false;
+            }
+
+            changedCount = 0;
+            statusChanged = false;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.util.Random;
+
+
+/**
+ * Builds the fixed, repeatable game positions the benchmarks run against.
+ */
+final class BenchmarkPositions {
+    private BenchmarkPositions(){}
+
+
+    /**
+     * Parses a board shape written as "rows,cols,winLength".
+     *
+     * @param shape the board shape.
+     * @return an array holding rows, cols and winLength.
+     */
+    static int[] parseShape(String shape){
+        String[] parts = shape.split(",");
+
+        return new int[]{
+                Integer.parseInt(parts[0].trim()),
+                Integer.parseInt(parts[1].trim()),
+                Integer.parseInt(parts[2].trim())
+        };
+    }
+
+
+    /**
+     * Returns every cell of the board as (row * cols + col), in a shuffled but repeatable order.
+     *
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param seed the seed for the shuffle.
+     * @return the shuffled cells.
+     */
+    static int[] shuffledCells(int rows, int cols, long seed){
+        int[] cells = new int[rows * cols];
+        for(int i = 0; i < cells.length; i++){
+            cells[i] = i;
+        }
+
+        Random random = new Random(seed);
+        for(int i = cells.length - 1; i > 0; i--){
+            int j = random.nextInt(i + 1);
+            int temp = cells[i];
+            cells[i] = cells[j];
+            cells[j] = temp;
+        }
+
+        return cells;
+    }
+
+
+    /**
+     * Plays a player vs player game until a third of the board is filled, using the first
+     * shuffle seed that does not end the game early.
+     *
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param winLength the number in a row needed to win.
+     * @return a model whose game is still running, with about a third of the board filled.
+     */
+    static TicTocToeGameModel midGame(int rows, int cols, int winLength){
+        for(long seed = 0; ; seed++){
+            TicTocToeGameModel model = new TicTocToeGameModel(new MediumDifficultyMovePicker(new Random(seed)));
+            model.startNewGame(TicTocToeGame.HUMAN_OPPONENT, rows, cols, winLength);
+
+            //Keep the move count even, so it is X's turn
+            int moves = (rows * cols / 3) & ~1;
+            int[] cells = shuffledCells(rows, cols, seed);
+            for(int i = 0; i < moves && !model.isGameOver(); i++){
+                model.takeTurn(cells[i] / cols, cells[i] % cols);
+            }
+
+            if(!model.isGameOver()){
+                return model;
+            }
+        }
+    }
+}
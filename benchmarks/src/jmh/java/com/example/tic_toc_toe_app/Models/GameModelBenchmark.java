@@ -0,0 +1,122 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks for {@link TicTocToeGameModel}. The model can't be reset to a position part way
+ * through a game, so the turn benchmarks each start a new game. startNewGame on its own is
+ * benchmarked as a baseline to subtract.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameModelBenchmark {
+    //rows,cols,winLength
+    @Param({"3,3,3", "15,15,5"})
+    public String shape;
+
+    private int rows;
+    private int cols;
+    private int winLength;
+    private int[] moveOrder;
+
+    private TicTocToeGameModel model;
+    private TicTocToeGameModel midGame;
+
+
+    @Setup
+    public void setup() {
+        int[] parsed = BenchmarkPositions.parseShape(shape);
+        rows = parsed[0];
+        cols = parsed[1];
+        winLength = parsed[2];
+        moveOrder = BenchmarkPositions.shuffledCells(rows, cols, 42);
+
+        model = new TicTocToeGameModel(new MediumDifficultyMovePicker(new Random(42)));
+        midGame = BenchmarkPositions.midGame(rows, cols, winLength);
+    }
+
+
+    @Benchmark
+    public TicTocToeGameModel startNewGame() {
+        model.startNewGame(TicTocToeGame.HUMAN_OPPONENT, rows, cols, winLength);
+        return model;
+    }
+
+
+    /**
+     * Starts a game against the computer and makes one move.
+     */
+    @Benchmark
+    public boolean takeTurn() {
+        model.startNewGame(TicTocToeGame.COMPUTER_OPPONENT, rows, cols, winLength);
+
+        return model.takeTurn(moveOrder[0] / cols, moveOrder[0] % cols);
+    }
+
+
+    /**
+     * Starts a game against the computer, makes one move and lets the computer reply. Subtract
+     * takeTurn to get the cost of takeComputerTurn.
+     */
+    @Benchmark
+    public int takeComputerTurn() {
+        model.startNewGame(TicTocToeGame.COMPUTER_OPPONENT, rows, cols, winLength);
+        model.takeTurn(moveOrder[0] / cols, moveOrder[0] % cols);
+
+        return model.takeComputerTurn();
+    }
+
+
+    /**
+     * Plays a whole player vs player game, with the moves taken in a fixed shuffled order.
+     */
+    @Benchmark
+    public Player wholeGameOfTakeTurn() {
+        model.startNewGame(TicTocToeGame.HUMAN_OPPONENT, rows, cols, winLength);
+
+        for(int i = 0; i < moveOrder.length && !model.isGameOver(); i++){
+            model.takeTurn(moveOrder[i] / cols, moveOrder[i] % cols);
+        }
+
+        return model.getWinner();
+    }
+
+
+    /**
+     * Plays a whole game against the computer. The human side goes in the first empty cell of a
+     * fixed shuffled order.
+     */
+    @Benchmark
+    public Player wholeGameAgainstComputer() {
+        model.startNewGame(TicTocToeGame.COMPUTER_OPPONENT, rows, cols, winLength);
+
+        int next = 0;
+        while(!model.isGameOver()){
+            while(!model.takeTurn(moveOrder[next] / cols, moveOrder[next] % cols)){
+                next++;
+            }
+            model.takeComputerTurn();
+        }
+
+        return model.getWinner();
+    }
+
+
+    @Benchmark
+    public void copyBoard(Blackhole blackhole) {
+        blackhole.consume(midGame.copyBoard());
+    }
+}
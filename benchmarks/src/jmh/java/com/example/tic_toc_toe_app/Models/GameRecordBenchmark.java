@@ -0,0 +1,112 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks scanning a log of recorded games with a {@link GameRecordReader}, and recording
+ * games with a {@link GameRecordWriter}. The scan reports the time per game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameRecordBenchmark {
+    private static final int GAMES = 1_000_000;
+
+    private File file;
+    private File writerFile;
+    private GameRecordReader reader;
+    private GameRecordWriter writer;
+    private GameState finishedGame;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = File.createTempFile("games", ".log");
+        file.delete();
+
+        //Play some games to have a few different records to write
+        Random random = new Random(1);
+        TicTocToeGameModel model = new TicTocToeGameModel(new MediumDifficultyMovePicker(random));
+        try(GameRecordWriter log = new GameRecordWriter(file)){
+            model.setRecorder(log);
+
+            for(int i = 0; i < GAMES; i++){
+                model.startNewGame(TicTocToeGame.COMPUTER_OPPONENT);
+                while(!model.isGameOver()){
+                    int cell;
+                    do{
+                        cell = random.nextInt(9);
+                    } while(model.getValueAtBoardPosition(cell / 3, cell % 3) != null);
+
+                    model.takeTurn(cell / 3, cell % 3);
+                    model.takeComputerTurn();
+                }
+            }
+        }
+
+        finishedGame = model.getState();
+        reader = new GameRecordReader(file);
+        writerFile = File.createTempFile("games", ".log");
+        writer = new GameRecordWriter(writerFile);
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        reader.close();
+        writer.close();
+        file.delete();
+        writerFile.delete();
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public int scanWinners() {
+        int xWins = 0;
+
+        for(int i = 0; i < GAMES; i++){
+            if(reader.getWinner(i) == Player.X){
+                xWins++;
+            }
+        }
+
+        return xWins;
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public long scanOpeningMoves() {
+        long centreOpenings = 0;
+
+        for(int i = 0; i < GAMES; i++){
+            if(reader.getMove(i, 0) == 4){
+                centreOpenings++;
+            }
+        }
+
+        return centreOpenings;
+    }
+
+
+    @Benchmark
+    public void record() {
+        writer.gameFinished(finishedGame, null);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures how the number of playouts {@link MonteCarloMovePicker} runs per second grows from 1
+ * to 8 worker threads, on an empty board and on a fixed position a third of the way through a
+ * game. The playouts are reported as the "playouts" counter, per second. Run on a machine with
+ * at least as many cores as threads.
+ *
+ * Every call searches the same position, which is never the last one searched plus a reply, so
+ * each call starts from new trees.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MonteCarloBenchmark {
+    private static final long MILLIS_PER_MOVE = 200;
+
+    //rows,cols,winLength
+    @Param({"15,15,5"})
+    public String shape;
+
+    @Param({"false", "true"})
+    public boolean midGame;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private int winLength;
+    private Player[][] board;
+    private Player computer;
+    private MonteCarloMovePicker picker;
+
+
+    @Setup
+    public void setup() {
+        int[] parsed = BenchmarkPositions.parseShape(shape);
+        winLength = parsed[2];
+
+        if(midGame){
+            TicTocToeGameModel game = BenchmarkPositions.midGame(parsed[0], parsed[1], winLength);
+            board = game.copyBoard();
+            computer = game.getCurrentPlayer();
+        }
+        else{
+            board = new Player[parsed[0]][parsed[1]];
+            computer = Player.X;
+        }
+        picker = new MonteCarloMovePicker(threads, MILLIS_PER_MOVE, new Random(42));
+    }
+
+
+    @TearDown
+    public void tearDown() {
+        picker.shutdown();
+    }
+
+
+    @Benchmark
+    public int chooseMove(Playouts playouts) {
+        int move = picker.chooseMove(board, winLength, computer);
+        playouts.playouts += picker.getPlayoutsLastMove();
+
+        return move;
+    }
+
+
+
+
+
+
+    /****       Inner Classes       ****/
+
+
+    /**
+     * Counts the playouts run by every call in an iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Playouts {
+        public long playouts;
+
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            playouts = 0;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks for {@link MediumDifficultyMovePicker} on a fixed position a third of the way
+ * through a game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MovePickerBenchmark {
+    //rows,cols,winLength
+    @Param({"3,3,3", "15,15,5"})
+    public String shape;
+
+    private int winLength;
+    private Player[][] board;
+    private MediumDifficultyMovePicker picker;
+
+
+    @Setup
+    public void setup() {
+        int[] parsed = BenchmarkPositions.parseShape(shape);
+        winLength = parsed[2];
+
+        board = BenchmarkPositions.midGame(parsed[0], parsed[1], winLength).copyBoard();
+        picker = new MediumDifficultyMovePicker(new Random(42));
+    }
+
+
+    @Benchmark
+    public int chooseMove() {
+        return picker.chooseMove(board, winLength, Player.O);
+    }
+
+
+    @Benchmark
+    public int chooseMoveIndex() {
+        return picker.chooseMoveIndex(board, winLength, Player.O);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures how {@link ParallelAlphaBetaMovePicker} speeds up from 1 to 8 threads. Each call
+ * searches a fixed position a third of the way through a game to a fixed depth, so every thread
+ * count does the same search and the times can be compared directly. Run on a machine with at
+ * least as many cores as threads.
+ *
+ * The picker's transposition table is kept from call to call, so searching the same position
+ * again would just replay the last search from the table. It is cleared before every call, so
+ * what is measured is a search from an empty table, as on the first move of a game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelSearchBenchmark {
+    //rows,cols,winLength,depth
+    @Param({"4,4,4,7", "5,5,4,6", "6,6,4,5", "7,7,5,5"})
+    public String search;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private int depth;
+    private SearchPosition position;
+    private ParallelAlphaBetaMovePicker picker;
+
+
+    @Setup
+    public void setup() {
+        int[] shape = BenchmarkPositions.parseShape(search.substring(0, search.lastIndexOf(',')));
+        depth = Integer.parseInt(search.substring(search.lastIndexOf(',') + 1));
+
+        GameState game = BenchmarkPositions.midGame(shape[0], shape[1], shape[2]).getState();
+        position = game.toSearchPosition(game.getCurrentPlayer());
+        picker = new ParallelAlphaBetaMovePicker(threads, 1000);
+    }
+
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        picker.clearTable();
+    }
+
+
+    @TearDown
+    public void tearDown() {
+        picker.shutdown();
+    }
+
+
+    @Benchmark
+    public int chooseMoveAtDepth() {
+        return picker.chooseMoveAtDepth(position, depth);
+    }
+}
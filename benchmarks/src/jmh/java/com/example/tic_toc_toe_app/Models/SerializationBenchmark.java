@@ -0,0 +1,59 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks saving and restoring a {@link TicTocToeGameModel}, with Java serialization and with
+ * the compact encoding GameActivity uses when the device is rotated.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializationBenchmark {
+    //rows,cols,winLength
+    @Param({"3,3,3", "15,15,5"})
+    public String shape;
+
+    private TicTocToeGameModel model;
+
+
+    @Setup
+    public void setup() {
+        int[] parsed = BenchmarkPositions.parseShape(shape);
+        model = BenchmarkPositions.midGame(parsed[0], parsed[1], parsed[2]);
+    }
+
+
+    @Benchmark
+    public Object roundTrip() throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(ObjectOutputStream output = new ObjectOutputStream(bytes)){
+            output.writeObject(model);
+        }
+
+        try(ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))){
+            return input.readObject();
+        }
+    }
+
+
+    @Benchmark
+    public Object compactRoundTrip() {
+        return TicTocToeGameModel.fromByteArray(model.toByteArray());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares scoring a position after a move with the incrementally updated
+ * {@link ThreatEvaluator} against rescanning every line of the board, as
+ * {@link IterativeDeepeningMovePicker} does, on a fixed position a third of the way through a
+ * game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ThreatEvaluatorBenchmark {
+    //rows,cols,winLength
+    @Param({"7,7,5", "15,15,5"})
+    public String shape;
+
+    private SearchPosition position;
+    private ThreatEvaluator evaluator;
+    private int cell;
+
+
+    @Setup
+    public void setup() {
+        int[] parsed = BenchmarkPositions.parseShape(shape);
+
+        GameState game = BenchmarkPositions.midGame(parsed[0], parsed[1], parsed[2]).getState();
+        position = game.toSearchPosition(game.getCurrentPlayer());
+        evaluator = ThreatEvaluator.fromPosition(position);
+
+        cell = position.nextEmptyCell(SearchPosition.NO_MOVE);
+    }
+
+
+    @Benchmark
+    public long incremental() {
+        evaluator.makeMove(cell);
+        long score = evaluator.evaluate();
+        evaluator.unmakeMove();
+
+        return score;
+    }
+
+
+    @Benchmark
+    public int rescan() {
+        position.makeMove(cell);
+        int score = IterativeDeepeningMovePicker.evaluate(position);
+        position.unmakeMove();
+
+        return score;
+    }
+
+
+    @Benchmark
+    public int threatScore() {
+        return evaluator.threatScore(cell);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * A {@link ComputerMoveGenerator ComputerMoveGenerator} that can be told when it must have
+ * chosen its move by. It keeps improving its choice until the deadline, for example by
+ * searching one move deeper at a time, and then returns the best move it has found so far. It
+ * also stops early with the best move so far if the calling thread is interrupted, so a turn
+ * that is no longer wanted can be cancelled.
+ *
+ * The other chooseMove methods use a time budget set when the generator is made.
+ */
+public interface AnytimeMoveGenerator extends ComputerMoveGenerator {
+    /**
+     * Chooses a move for the side to move in the specified position, returning by the deadline.
+     * The position belongs to the caller, so it must be left as it was found and must not be
+     * kept after this returns.
+     *
+     * @param position the current position.
+     * @param deadline the value of System.nanoTime() by which the move must be chosen.
+     * @return the best move found, or Move.NONE if the board is full. If the calling thread was
+     * interrupted, this returns early and the thread stays interrupted.
+     */
+    int chooseMove(SearchPosition position, long deadline);
+}
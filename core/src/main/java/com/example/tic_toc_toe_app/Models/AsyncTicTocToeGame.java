@@ -0,0 +1,258 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+
+/**
+ * Wraps a {@link TicTocToeGame TicTocToeGame} so computer turns can be taken without blocking.
+ * {@link #takeComputerTurnAsync takeComputerTurnAsync} runs the turn on an executor and returns
+ * a future of the move, so callers can chain work onto it instead of managing threads. Many
+ * games can share one executor, so a few engine threads can serve any number of games.
+ *
+ * A game has at most one computer turn in flight. Starting a new game, or calling
+ * {@link #cancelComputerTurn cancelComputerTurn}, cancels it: its future completes with a
+ * CancellationException, and the engine thread working on it is interrupted, which stops an
+ * {@link AnytimeMoveGenerator AnytimeMoveGenerator} early and keeps the move from being taken.
+ *
+ * Everything else is passed straight to the wrapped game.
+ */
+public class AsyncTicTocToeGame implements TicTocToeGame {
+    private final TicTocToeGame game;
+    private final Executor engine;
+
+    //The computer turn in flight, if any. Guarded by this.
+    private ComputerTurn pendingTurn = null;
+
+
+    /**
+     * Constructs a facade that runs the game's computer turns on the specified executor.
+     *
+     * @param game the game to wrap. It must be thread safe, like
+     *             {@link TicTocToeGameModel TicTocToeGameModel}.
+     * @param engine runs the computer turns. It may be shared with other games.
+     */
+    public AsyncTicTocToeGame(TicTocToeGame game, Executor engine) {
+        this.game = game;
+        this.engine = engine;
+    }
+
+
+    /**
+     * Starts taking the computer's turn on the engine executor. If a computer turn is already
+     * in flight, its future is returned instead of starting another.
+     *
+     * @return a future of the move taken by the computer packed with {@link Move#of Move.of}, or
+     * Move.NONE if the computer did not move. It completes exceptionally if the turn fails or
+     * the executor rejects it.
+     */
+    public CompletableFuture<Integer> takeComputerTurnAsync() {
+        return submitComputerTurn(false, 0);
+    }
+
+
+    /**
+     * Starts taking the computer's turn on the engine executor, to be chosen by the specified
+     * deadline. See {@link TicTocToeGame#takeComputerTurn(long) takeComputerTurn}. If a computer
+     * turn is already in flight, its future is returned instead of starting another.
+     *
+     * @param deadline the value of System.nanoTime() by which the move should be chosen. Time
+     *                 spent waiting for an engine thread counts towards it.
+     * @return a future of the move taken by the computer packed with {@link Move#of Move.of}, or
+     * Move.NONE if the computer did not move.
+     */
+    public CompletableFuture<Integer> takeComputerTurnAsync(long deadline) {
+        return submitComputerTurn(true, deadline);
+    }
+
+
+    private synchronized CompletableFuture<Integer> submitComputerTurn(boolean hasDeadline, long deadline){
+        if(pendingTurn != null && !pendingTurn.isDone()){
+            return pendingTurn;
+        }
+
+        ComputerTurn turn = new ComputerTurn(hasDeadline, deadline);
+        pendingTurn = turn;
+
+        try {
+            engine.execute(turn);
+        } catch (RejectedExecutionException e) {
+            turn.completeExceptionally(e);
+        }
+
+        return turn;
+    }
+
+
+    /**
+     * Cancels the computer turn in flight, if there is one.
+     */
+    public synchronized void cancelComputerTurn() {
+        if(pendingTurn != null){
+            pendingTurn.cancel(true);
+            pendingTurn = null;
+        }
+    }
+
+
+    /**
+     * Checks if a computer turn has been started and hasn't finished yet.
+     *
+     * @return true if a computer turn is in flight.
+     */
+    public synchronized boolean isComputerTurnPending() {
+        return pendingTurn != null && !pendingTurn.isDone();
+    }
+
+
+    @Override
+    public void startNewGame(int opponentType) {
+        cancelComputerTurn();
+        game.startNewGame(opponentType);
+    }
+
+
+    @Override
+    public void startNewGame(int opponentType, int rows, int cols, int winLength) {
+        cancelComputerTurn();
+        game.startNewGame(opponentType, rows, cols, winLength);
+    }
+
+
+    @Override
+    public boolean takeTurn(int row, int col) {
+        return game.takeTurn(row, col);
+    }
+
+
+    @Override
+    public int takeComputerTurn() {
+        return game.takeComputerTurn();
+    }
+
+
+    @Override
+    public int takeComputerTurn(long deadline) {
+        return game.takeComputerTurn(deadline);
+    }
+
+
+    @Override
+    public void addGameChangeListener(GameChangeListener listener) {
+        game.addGameChangeListener(listener);
+    }
+
+
+    @Override
+    public void removeGameChangeListener(GameChangeListener listener) {
+        game.removeGameChangeListener(listener);
+    }
+
+
+    @Override
+    public Player getCurrentPlayer() {
+        return game.getCurrentPlayer();
+    }
+
+
+    @Override
+    public Player getWinner() {
+        return game.getWinner();
+    }
+
+
+    @Override
+    public boolean isGameOver() {
+        return game.isGameOver();
+    }
+
+
+    @Override
+    public Player getValueAtBoardPosition(int row, int col) {
+        return game.getValueAtBoardPosition(row, col);
+    }
+
+
+    @Override
+    public int getBoardRows() {
+        return game.getBoardRows();
+    }
+
+
+    @Override
+    public int getBoardColumns() {
+        return game.getBoardColumns();
+    }
+
+
+    @Override
+    public int getWinLength() {
+        return game.getWinLength();
+    }
+
+
+    @Override
+    public GameState getState() {
+        return game.getState();
+    }
+
+
+    /**
+     * A computer turn that is both the task given to the executor and the future handed to the
+     * caller, so cancelling the future can interrupt the thread running the task.
+     */
+    private final class ComputerTurn extends CompletableFuture<Integer> implements Runnable {
+        private final boolean hasDeadline;
+        private final long deadline;
+
+        //The engine thread running this turn, while it runs. Guarded by this.
+        private Thread runner = null;
+
+
+        ComputerTurn(boolean hasDeadline, long deadline) {
+            this.hasDeadline = hasDeadline;
+            this.deadline = deadline;
+        }
+
+
+        @Override
+        public void run() {
+            synchronized (this){
+                if(isDone()){ //cancelled while it was queued
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+
+            try {
+                complete(hasDeadline ? game.takeComputerTurn(deadline) : game.takeComputerTurn());
+            } catch (Throwable e) {
+                completeExceptionally(e);
+            } finally {
+                synchronized (this){
+                    runner = null;
+                }
+
+                //Don't leave a cancellation interrupt behind for the next task on this thread
+                Thread.interrupted();
+            }
+        }
+
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+            if(cancelled && mayInterruptIfRunning){
+                synchronized (this){
+                    if(runner != null){
+                        runner.interrupt();
+                    }
+                }
+            }
+
+            return cancelled;
+        }
+    }
+}
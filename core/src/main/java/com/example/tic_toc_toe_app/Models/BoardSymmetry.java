@@ -0,0 +1,223 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * Maps square game boards through the 8 rotations and reflections of the square, so positions
+ * that are mirror images or rotations of each other can share one entry in a cache,
+ * transposition table or opening book.
+ *
+ * A symmetry is a number from 0 to 7. If bit 2 is set the board is first mirrored left to right,
+ * then it is rotated clockwise by 90 degrees (symmetry &amp; 3) times. Symmetry 0 is the identity.
+ *
+ * Positions on a 3x3 board are given as one bitmask per player, with bit (row * 3 + col) set if
+ * that player went there. The canonical form of a position is whichever of its 8 images has the
+ * smallest key, where the key is (cells of the player to move &lt;&lt; 9) | (cells of the other
+ * player).
+ */
+public final class BoardSymmetry {
+    public static final int SYMMETRY_COUNT = 8;
+    public static final int IDENTITY = 0;
+
+    private static final int SIZE = ThreeByThreeBitboard.BOARD_ROWS;
+    private static final int CELLS = ThreeByThreeBitboard.BOARD_SIZE;
+
+    //CELL_TABLE[symmetry][cell] is where the cell ends up after applying the symmetry.
+    private static final int[][] CELL_TABLE = buildCellTable();
+
+    //INVERSE[symmetry] is the symmetry that undoes it.
+    private static final int[] INVERSE = buildInverseTable();
+
+    //MASK_TABLE[symmetry][mask] is the mask after applying the symmetry to every cell in it.
+    private static final int[][] MASK_TABLE = buildMaskTable();
+
+
+    private BoardSymmetry(){}
+
+
+    /**
+     * Finds where a cell of a square board ends up after applying a symmetry.
+     *
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @param size the number of rows (and columns) on the board.
+     * @param symmetry the symmetry to apply, from 0 to 7.
+     * @return the index (row * size + col) of the cell after applying the symmetry.
+     */
+    public static int transformCell(int row, int col, int size, int symmetry){
+        checkSymmetry(symmetry);
+
+        if((symmetry & 4) != 0){
+            col = size - 1 - col;
+        }
+
+        for(int i = 0; i < (symmetry & 3); i++){
+            int rotatedRow = col;
+            col = size - 1 - row;
+            row = rotatedRow;
+        }
+
+        return row * size + col;
+    }
+
+
+    /**
+     * Finds where a cell of a 3x3 board ends up after applying a symmetry.
+     *
+     * @param cell the index (row * 3 + col) of the cell.
+     * @param symmetry the symmetry to apply, from 0 to 7.
+     * @return the index of the cell after applying the symmetry.
+     */
+    public static int transformCell(int cell, int symmetry){
+        return CELL_TABLE[symmetry][cell];
+    }
+
+
+    /**
+     * Undoes a symmetry on a cell of a 3x3 board. This is how a move chosen on the canonical
+     * form of a position is mapped back onto the real board.
+     *
+     * @param cell the index (row * 3 + col) of the cell after the symmetry was applied.
+     * @param symmetry the symmetry that was applied, from 0 to 7.
+     * @return the index of the cell before the symmetry was applied.
+     */
+    public static int inverseTransformCell(int cell, int symmetry){
+        return CELL_TABLE[INVERSE[symmetry]][cell];
+    }
+
+
+    /**
+     * Returns the symmetry that undoes the specified symmetry.
+     *
+     * @param symmetry a symmetry from 0 to 7.
+     * @return the inverse symmetry.
+     */
+    public static int inverse(int symmetry){
+        return INVERSE[symmetry];
+    }
+
+
+    /**
+     * Applies a symmetry to every cell in a 3x3 bitmask.
+     *
+     * @param mask the cells to transform.
+     * @param symmetry the symmetry to apply, from 0 to 7.
+     * @return the transformed mask.
+     */
+    public static int transformMask(int mask, int symmetry){
+        return MASK_TABLE[symmetry][mask];
+    }
+
+
+    /**
+     * Finds the symmetry that maps a 3x3 position to its canonical form. If several symmetries
+     * give the canonical form, the lowest one is returned.
+     *
+     * @param mine the cells taken by the player to move.
+     * @param theirs the cells taken by the other player.
+     * @return the symmetry to apply to reach the canonical form.
+     */
+    public static int canonicalSymmetry(int mine, int theirs){
+        int bestSymmetry = IDENTITY;
+        int bestKey = key(mine, theirs);
+
+        for(int symmetry = 1; symmetry < SYMMETRY_COUNT; symmetry++){
+            int key = key(MASK_TABLE[symmetry][mine], MASK_TABLE[symmetry][theirs]);
+            if(key < bestKey){
+                bestKey = key;
+                bestSymmetry = symmetry;
+            }
+        }
+
+        return bestSymmetry;
+    }
+
+
+    /**
+     * Computes the key of the canonical form of a 3x3 position. Positions that are rotations or
+     * reflections of each other have the same canonical key.
+     *
+     * @param mine the cells taken by the player to move.
+     * @param theirs the cells taken by the other player.
+     * @return (canonical cells of the player to move &lt;&lt; 9) | canonical cells of the other player.
+     */
+    public static int canonicalKey(int mine, int theirs){
+        int symmetry = canonicalSymmetry(mine, theirs);
+
+        return key(MASK_TABLE[symmetry][mine], MASK_TABLE[symmetry][theirs]);
+    }
+
+
+    private static int key(int mine, int theirs){
+        return (mine << CELLS) | theirs;
+    }
+
+
+    private static void checkSymmetry(int symmetry){
+        if(symmetry < 0 || symmetry >= SYMMETRY_COUNT){
+            throw new IllegalArgumentException(String.format("%d is not a valid symmetry.", symmetry));
+        }
+    }
+
+
+    private static int[][] buildCellTable(){
+        int[][] table = new int[SYMMETRY_COUNT][CELLS];
+
+        for(int symmetry = 0; symmetry < SYMMETRY_COUNT; symmetry++){
+            for(int cell = 0; cell < CELLS; cell++){
+                table[symmetry][cell] = transformCell(cell / SIZE, cell % SIZE, SIZE, symmetry);
+            }
+        }
+
+        return table;
+    }
+
+
+    private static int[] buildInverseTable(){
+        int[] table = new int[SYMMETRY_COUNT];
+
+        for(int symmetry = 0; symmetry < SYMMETRY_COUNT; symmetry++){
+            for(int candidate = 0; candidate < SYMMETRY_COUNT; candidate++){
+                if(undoes(candidate, symmetry)){
+                    table[symmetry] = candidate;
+                    break;
+                }
+            }
+        }
+
+        return table;
+    }
+
+
+    /**
+     * Checks if applying the candidate symmetry after the specified symmetry puts every cell
+     * back where it started.
+     */
+    private static boolean undoes(int candidate, int symmetry){
+        for(int cell = 0; cell < CELLS; cell++){
+            if(CELL_TABLE[candidate][CELL_TABLE[symmetry][cell]] != cell){
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    private static int[][] buildMaskTable(){
+        int[][] table = new int[SYMMETRY_COUNT][1 << CELLS];
+
+        for(int symmetry = 0; symmetry < SYMMETRY_COUNT; symmetry++){
+            for(int mask = 0; mask < (1 << CELLS); mask++){
+                int transformed = 0;
+                for(int cell = 0; cell < CELLS; cell++){
+                    if((mask & (1 << cell)) != 0){
+                        transformed |= 1 << CELL_TABLE[symmetry][cell];
+                    }
+                }
+                table[symmetry][mask] = transformed;
+            }
+        }
+
+        return table;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.tic_toc_toe_app.Models;
+
+/**
+ * An object that decides the move the computer will make given a certain board state.
+ */
+public interface ComputerMoveGenerator {
+    /**
+     * Chooses a move for the computer to take, and returns the chosen move packed with
+     * {@link Move#of Move.of}.
+     *
+     * @param gameBoard the current board state.
+     * @param whoseTurnToTake the player that the computer should pick a move for.
+     * @return the chosen move, or Move.NONE if the board is full.
+     */
+    int chooseMove(Player[][] gameBoard, Player whoseTurnToTake);
+
+
+    /**
+     * Chooses a move for the computer to take in a game where the specified number in a row is
+     * needed to win, and returns the chosen move packed with {@link Move#of Move.of}. Generators
+     * that only play the standard game can rely on the default implementation, which ignores the
+     * win length.
+     *
+     * @param gameBoard the current board state.
+     * @param winLength the number of symbols in a row needed to win.
+     * @param whoseTurnToTake the player that the computer should pick a move for.
+     * @return the chosen move, or Move.NONE if the board is full.
+     */
+    default int chooseMove(Player[][] gameBoard, int winLength, Player whoseTurnToTake) {
+        return chooseMove(gameBoard, whoseTurnToTake);
+    }
+
+
+    /**
+     * Chooses a move for the side to move in the specified position. Search algorithms can
+     * override this to play moves forward and back on the position instead of copying a board
+     * at each step. The position belongs to the caller, so it must be left as it was found and
+     * must not be kept after this returns. The default implementation copies the position into
+     * a 2D array and calls {@link #chooseMove(Player[][], int, Player) chooseMove}.
+     *
+     * @param position the current position.
+     * @return the chosen move, or Move.NONE if the board is full.
+     */
+    default int chooseMove(SearchPosition position) {
+        return chooseMove(position.toBoard(), position.getWinLength(), position.getSideToMove());
+    }
+
+
+    /**
+     * Checks if this generator can choose moves in games of the specified shape. Generators
+     * that only play some shapes, like the 3x3 ones, override this so a game they can't play is
+     * refused when it starts instead of failing on the computer's first turn.
+     *
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param winLength the number of symbols in a row needed to win.
+     * @return true if the generator can play the game. The default implementation always can.
+     */
+    default boolean canPlay(int rows, int cols, int winLength) {
+        return true;
+    }
+
+
+    /**
+     * Stops any threads the generator runs. It can't choose moves after this is called. The
+     * default implementation does nothing, for generators that only run on the calling thread.
+     */
+    default void shutdown() {
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A registry of {@link GeneratorMetrics GeneratorMetrics}, one per kind of computer opponent,
+ * so a headless run can hand each model the metrics for its generator and print all of them at
+ * the end. Looking metrics up is meant to happen when a model is set up, not on every move.
+ */
+public class EngineMetrics {
+    //Guarded by itself. Kept in the order generators were first seen, for reports.
+    private final Map<String, GeneratorMetrics> generators = new LinkedHashMap<>();
+
+
+    /**
+     * Returns the metrics for the generator with the specified name, creating them the first
+     * time the name is seen.
+     *
+     * @param name the name of the generator.
+     * @return the metrics to give to models using that generator.
+     */
+    public GeneratorMetrics forGenerator(String name) {
+        synchronized (generators){
+            GeneratorMetrics metrics = generators.get(name);
+            if(metrics == null){
+                metrics = new GeneratorMetrics(name);
+                generators.put(name, metrics);
+            }
+
+            return metrics;
+        }
+    }
+
+
+    /**
+     * Returns the metrics of every generator seen so far.
+     *
+     * @return the metrics, in the order their generators were first seen.
+     */
+    public List<GeneratorMetrics> getGenerators() {
+        synchronized (generators){
+            return new ArrayList<>(generators.values());
+        }
+    }
+
+
+    /**
+     * Prints a one line summary for every generator seen so far.
+     *
+     * @param out where to print the summaries.
+     */
+    public void print(PrintStream out) {
+        for(GeneratorMetrics metrics : getGenerators()){
+            out.println(metrics);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * Told by a {@link TicTocToeGame TicTocToeGame} exactly what changed each time the game
+ * changes, so a view can update the parts that changed instead of reading the whole game again.
+ *
+ * Events are delivered on whichever thread made the change, straight after it was made, so a
+ * computer turn taken on an engine thread is reported on that thread. A move is reported as
+ * {@link #cellChanged cellChanged} followed by either {@link #turnChanged turnChanged} or
+ * {@link #gameOver gameOver}.
+ */
+public interface GameChangeListener {
+    /**
+     * Called when a new game starts. Every cell of the new board is empty, and the board may be
+     * a different size from the last one.
+     *
+     * @param game the new game.
+     */
+    void gameStarted(GameState game);
+
+
+    /**
+     * Called when a player goes in a cell.
+     *
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @param player the player who went there.
+     */
+    void cellChanged(int row, int col, Player player);
+
+
+    /**
+     * Called after a move that didn't end the game.
+     *
+     * @param currentPlayer the player whose turn it now is.
+     */
+    void turnChanged(Player currentPlayer);
+
+
+    /**
+     * Called after the move that ended the game.
+     *
+     * @param winner the player who won, or NONE for a draw.
+     */
+    void gameOver(Player winner);
+}
@@ -0,0 +1,208 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+
+/**
+ * Reads a log written by a {@link GameRecordWriter GameRecordWriter}. The file is mapped into
+ * memory rather than read, and every record has the same size, so any game can be looked at
+ * directly by its number and scanning the log never copies or allocates anything. Records
+ * appended after the reader was opened are not seen, and neither is a half written record at
+ * the end of the log.
+ */
+public class GameRecordReader implements Closeable {
+    private static final Player[] PLAYERS = Player.values();
+
+    //A mapping can be at most 2GB, so bigger logs are mapped in chunks of whole records
+    private static final long MAX_CHUNK_SIZE = Integer.MAX_VALUE;
+
+    private final RandomAccessFile file;
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+    private final int moveWidth;
+    private final int recordSize;
+    private final int gameCount;
+
+    private final MappedByteBuffer[] chunks;
+    private final int gamesPerChunk;
+
+
+    /**
+     * Opens a log and maps the games it holds so far.
+     *
+     * @param logFile the log file.
+     * @throws IOException if the file can't be read or is not a game record log.
+     */
+    public GameRecordReader(File logFile) throws IOException {
+        this.file = new RandomAccessFile(logFile, "r");
+
+        try {
+            FileChannel channel = file.getChannel();
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(channel.size(), GameRecordWriter.HEADER_SIZE));
+
+            if(header.capacity() < GameRecordWriter.HEADER_SIZE || header.getInt(0) != GameRecordWriter.MAGIC
+                    || header.get(GameRecordWriter.HEADER_VERSION) != GameRecordWriter.VERSION){
+                throw new IOException("Not a game record log.");
+            }
+
+            this.rows = header.get(GameRecordWriter.HEADER_ROWS) & 0xFF;
+            this.cols = header.get(GameRecordWriter.HEADER_COLS) & 0xFF;
+            this.winLength = header.get(GameRecordWriter.HEADER_WIN_LENGTH) & 0xFF;
+            this.moveWidth = header.get(GameRecordWriter.HEADER_MOVE_WIDTH) & 0xFF;
+            this.recordSize = header.getInt(GameRecordWriter.HEADER_RECORD_SIZE);
+            if(moveWidth != TicTocToeGameModel.moveWidth(rows * cols)
+                    || recordSize != GameRecordWriter.recordSize(rows * cols, moveWidth)){
+                throw new IOException("The log's header is corrupt.");
+            }
+
+
+            long games = (channel.size() - GameRecordWriter.HEADER_SIZE) / recordSize;
+            if(games > Integer.MAX_VALUE){
+                throw new IOException(String.format("The log has too many games (%d) to read.", games));
+            }
+
+            this.gameCount = (int) games;
+            this.gamesPerChunk = (int) (MAX_CHUNK_SIZE / recordSize);
+            this.chunks = new MappedByteBuffer[(gameCount + gamesPerChunk - 1) / gamesPerChunk];
+
+            for(int i = 0; i < chunks.length; i++){
+                long firstGame = (long) i * gamesPerChunk;
+                long chunkGames = Math.min(gamesPerChunk, gameCount - firstGame);
+
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        GameRecordWriter.HEADER_SIZE + firstGame * recordSize, chunkGames * recordSize);
+            }
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+
+    public int getBoardRows() {
+        return rows;
+    }
+
+
+    public int getBoardColumns() {
+        return cols;
+    }
+
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+
+    public int getGameCount() {
+        return gameCount;
+    }
+
+
+    /**
+     * Returns who won a game.
+     *
+     * @param game the number of the game in the log, starting from 0.
+     * @return the winner, or NONE if the game was a draw.
+     * @throws IndexOutOfBoundsException if there is no such game.
+     */
+    public Player getWinner(int game) {
+        return PLAYERS[chunk(game).get(offset(game) + GameRecordWriter.RECORD_WINNER)];
+    }
+
+
+    /**
+     * Returns the id in the {@link MoveGeneratorRegistry MoveGeneratorRegistry} of the generator
+     * that played X in a game.
+     *
+     * @param game the number of the game in the log, starting from 0.
+     * @return the generator id, or NO_GENERATOR if a person played X.
+     * @throws IndexOutOfBoundsException if there is no such game.
+     */
+    public int getXGenerator(int game) {
+        return chunk(game).get(offset(game) + GameRecordWriter.RECORD_X_GENERATOR) & 0xFF;
+    }
+
+
+    /**
+     * Returns the id in the {@link MoveGeneratorRegistry MoveGeneratorRegistry} of the generator
+     * that played O in a game.
+     *
+     * @param game the number of the game in the log, starting from 0.
+     * @return the generator id, or NO_GENERATOR if a person played O.
+     * @throws IndexOutOfBoundsException if there is no such game.
+     */
+    public int getOGenerator(int game) {
+        return chunk(game).get(offset(game) + GameRecordWriter.RECORD_O_GENERATOR) & 0xFF;
+    }
+
+
+    /**
+     * Returns the number of moves made in a game.
+     *
+     * @param game the number of the game in the log, starting from 0.
+     * @return the number of moves.
+     * @throws IndexOutOfBoundsException if there is no such game.
+     */
+    public int getMoveCount(int game) {
+        return chunk(game).getShort(offset(game) + GameRecordWriter.RECORD_MOVE_COUNT) & 0xFFFF;
+    }
+
+
+    /**
+     * Returns one of the moves made in a game. X made the even numbered moves and O the odd
+     * ones.
+     *
+     * @param game the number of the game in the log, starting from 0.
+     * @param move the number of the move, starting from 0.
+     * @return the cell (row * number of columns + col) the move was made in.
+     * @throws IndexOutOfBoundsException if there is no such game or move.
+     */
+    public int getMove(int game, int move) {
+        MappedByteBuffer chunk = chunk(game);
+        int offset = offset(game);
+
+        if(move < 0 || move >= (chunk.getShort(offset + GameRecordWriter.RECORD_MOVE_COUNT) & 0xFFFF)){
+            throw new IndexOutOfBoundsException(String.format("Game %d has no move %d.", game, move));
+        }
+
+        return readMove(chunk, offset + GameRecordWriter.RECORD_MOVES + move * moveWidth);
+    }
+
+
+    private MappedByteBuffer chunk(int game){
+        if(game < 0 || game >= gameCount){
+            throw new IndexOutOfBoundsException(
+                    String.format("Game %d is not in a log of %d games.", game, gameCount));
+        }
+
+        return chunks[game / gamesPerChunk];
+    }
+
+
+    private int offset(int game){
+        return (game % gamesPerChunk) * recordSize;
+    }
+
+
+    private int readMove(MappedByteBuffer chunk, int offset){
+        return moveWidth == 2 ? chunk.getShort(offset) & 0xFFFF : chunk.get(offset) & 0xFF;
+    }
+
+
+    /**
+     * Closes the file. The mapped memory is released once the reader is garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
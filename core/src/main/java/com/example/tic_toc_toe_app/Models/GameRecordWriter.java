@@ -0,0 +1,256 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+
+/**
+ * A {@link GameRecorder GameRecorder} that appends every finished game to a log file, which can
+ * be read back with a {@link GameRecordReader GameRecordReader}. All the games in one log are
+ * played on the same board shape, so every record is the same size.
+ *
+ * The log starts with a 16 byte header: the magic number "TTTR", a version byte, the rows,
+ * columns and win length, the number of bytes used for each move, 3 unused bytes, and the size
+ * of each record as an int. Each record then holds the winner's ordinal, the X and O generator
+ * ids from the {@link MoveGeneratorRegistry MoveGeneratorRegistry}, the number of moves as a
+ * short, and the cells (row * columns + col) in the order they were taken, padded to the size
+ * of a full board. The count always takes two bytes, since a full board can have one more move
+ * than the cells of a one byte move can number.
+ *
+ * Records are collected in a buffer and only written when it fills up or {@link #flush flush}
+ * is called, so recording a game is normally just a copy into memory. A record half written
+ * when the process died is dropped the next time the log is opened.
+ */
+public class GameRecordWriter implements GameRecorder, Closeable {
+    static final int MAGIC = ('T' << 24) | ('T' << 16) | ('T' << 8) | 'R';
+    static final int VERSION = 2;
+
+    static final int HEADER_SIZE = 16;
+    static final int HEADER_VERSION = 4;
+    static final int HEADER_ROWS = 5;
+    static final int HEADER_COLS = 6;
+    static final int HEADER_WIN_LENGTH = 7;
+    static final int HEADER_MOVE_WIDTH = 8;
+    static final int HEADER_RECORD_SIZE = 12;
+
+    static final int RECORD_WINNER = 0;
+    static final int RECORD_X_GENERATOR = 1;
+    static final int RECORD_O_GENERATOR = 2;
+    static final int RECORD_MOVE_COUNT = 3;
+    static final int RECORD_MOVES = 5;
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+    private final int moveWidth;
+    private final int recordSize;
+    private final MoveGeneratorRegistry registry;
+    private int xGenerator = MoveGeneratorRegistry.NO_GENERATOR;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+
+    /**
+     * Opens a log for 3x3 games, creating it if it doesn't exist.
+     *
+     * @param file the log file.
+     * @throws IOException if the file can't be opened, or it is not a log of 3x3 games.
+     */
+    public GameRecordWriter(File file) throws IOException {
+        this(file, TicTocToeGame.DEFAULT_BOARD_ROWS, TicTocToeGame.DEFAULT_BOARD_COLS,
+                TicTocToeGame.DEFAULT_WIN_LENGTH, MoveGeneratorRegistry.defaultRegistry(), DEFAULT_BUFFER_SIZE);
+    }
+
+
+    /**
+     * Opens a log, creating it if it doesn't exist.
+     *
+     * @param file the log file.
+     * @param rows the number of rows on the board of every game in the log.
+     * @param cols the number of columns on the board of every game in the log.
+     * @param winLength the number of symbols in a row needed to win.
+     * @param registry used to look up the ids of the generators that played each game.
+     * @param bufferSize the number of bytes of records collected before they are written.
+     * @throws IOException if the file can't be opened, or it is a log of a different board.
+     * @throws IllegalArgumentException if the board shape is invalid, or the buffer can't hold
+     *                                  a record.
+     */
+    public GameRecordWriter(File file, int rows, int cols, int winLength, MoveGeneratorRegistry registry,
+                            int bufferSize) throws IOException {
+        GameState.checkBoardShape(rows, cols, winLength);
+
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
+        this.moveWidth = TicTocToeGameModel.moveWidth(rows * cols);
+        this.recordSize = recordSize(rows * cols, moveWidth);
+        this.registry = registry;
+
+        if(bufferSize < recordSize){
+            throw new IllegalArgumentException(String.format(
+                    "A buffer of %d bytes can't hold a %d byte record.", bufferSize, recordSize));
+        }
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+
+
+        this.channel = new RandomAccessFile(file, "rw").getChannel();
+        try {
+            openLog();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+
+    static int recordSize(int cells, int moveWidth){
+        return RECORD_MOVES + cells * moveWidth;
+    }
+
+
+    /**
+     * Writes the header to a new log, or checks the header of an existing one, and moves to the
+     * end of its last whole record.
+     */
+    private void openLog() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+        if(channel.size() == 0){
+            header.putInt(MAGIC);
+            header.put(HEADER_VERSION, (byte) VERSION);
+            header.put(HEADER_ROWS, (byte) rows);
+            header.put(HEADER_COLS, (byte) cols);
+            header.put(HEADER_WIN_LENGTH, (byte) winLength);
+            header.put(HEADER_MOVE_WIDTH, (byte) moveWidth);
+            header.putInt(HEADER_RECORD_SIZE, recordSize);
+            header.clear();
+
+            while(header.hasRemaining()){
+                channel.write(header);
+            }
+            return;
+        }
+
+
+        while(header.hasRemaining() && channel.read(header) != -1){
+            //keep reading until the header is full
+        }
+
+        if(header.hasRemaining() || header.getInt(0) != MAGIC || header.get(HEADER_VERSION) != VERSION){
+            throw new IOException("Not a game record log.");
+        }
+        if((header.get(HEADER_ROWS) & 0xFF) != rows || (header.get(HEADER_COLS) & 0xFF) != cols
+                || (header.get(HEADER_WIN_LENGTH) & 0xFF) != winLength){
+            throw new IOException(String.format("The log is not for %dx%d boards with a win length of %d.",
+                    rows, cols, winLength));
+        }
+
+        long wholeRecords = (channel.size() - HEADER_SIZE) / recordSize;
+        long end = HEADER_SIZE + wholeRecords * recordSize;
+        channel.truncate(end);
+        channel.position(end);
+    }
+
+
+    /**
+     * Sets the generator id recorded for the X player, for logs of games where the computer
+     * plays both sides. It is NO_GENERATOR by default, meaning a person played X.
+     *
+     * @param id the generator id.
+     */
+    public synchronized void setXGenerator(int id){
+        this.xGenerator = id;
+    }
+
+
+    /**
+     * Adds a game to the log.
+     *
+     * @param game the finished game.
+     * @param computer the generator that played O, or null if a person did. Generators that
+     *                 aren't registered are recorded as NO_GENERATOR.
+     * @throws IllegalArgumentException if the game's board is not the shape of the log's.
+     * @throws UncheckedIOException if the buffer was full and writing it failed.
+     */
+    @Override
+    public synchronized void gameFinished(GameState game, ComputerMoveGenerator computer) {
+        if(game.getBoardRows() != rows || game.getBoardColumns() != cols || game.getWinLength() != winLength){
+            throw new IllegalArgumentException(String.format(
+                    "A %dx%d game can't be added to a log of %dx%d games.",
+                    game.getBoardRows(), game.getBoardColumns(), rows, cols));
+        }
+
+        if(buffer.remaining() < recordSize){
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+
+        int start = buffer.position();
+        int oGenerator = registry.isRegistered(computer) ? registry.idOf(computer) : MoveGeneratorRegistry.NO_GENERATOR;
+
+        buffer.put((byte) game.getWinner().ordinal());
+        buffer.put((byte) xGenerator);
+        buffer.put((byte) oGenerator);
+        buffer.putShort((short) game.getMovesTaken());
+        for(int i = 0; i < game.getMovesTaken(); i++){
+            putMove(game.getMove(i));
+        }
+
+        //Unused moves are left as zero
+        buffer.position(start + recordSize);
+        for(int i = start + RECORD_MOVES + moveWidth * game.getMovesTaken(); i < start + recordSize; i++){
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+
+    private void putMove(int value){
+        if(moveWidth == 2){
+            buffer.putShort((short) value);
+        }
+        else{
+            buffer.put((byte) value);
+        }
+    }
+
+
+    /**
+     * Writes any buffered records to the file.
+     *
+     * @throws IOException if the write fails.
+     */
+    public synchronized void flush() throws IOException {
+        buffer.flip();
+        while(buffer.hasRemaining()){
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+
+    /**
+     * Writes any buffered records and closes the file.
+     *
+     * @throws IOException if the write fails.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * Told about every game a {@link TicTocToeGameModel TicTocToeGameModel} finishes, for example to
+ * keep a record of them. It is called on whichever thread made the last move, so it should
+ * return quickly and must be thread safe if it is shared between models.
+ */
+public interface GameRecorder {
+    /**
+     * Called once when a game ends with a win or a draw.
+     *
+     * @param game the finished game.
+     * @param computer the generator that played O, or null if two people played.
+     */
+    void gameFinished(GameState game, ComputerMoveGenerator computer);
+}
@@ -0,0 +1,411 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * An immutable snapshot of a game: the board, whose turn it is, and how the game ended. Moves
+ * don't change a state, they make a new one with {@link #withMove withMove}, so a state can be
+ * shared between threads and read without locking, and every value read from one state belongs
+ * to the same moment in the game.
+ *
+ * States are written to streams through {@link SerializedForm SerializedForm}, which holds just
+ * the moves this state has taken.
+ */
+public final class GameState implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    //The smallest move list made when a state can't add to the one it shares
+    private static final int MIN_MOVE_CAPACITY = 16;
+
+    private final int boardRows;
+    private final int boardCols;
+    private final int winLength;
+
+    //The board is stored as one bitset per player, with bit (row * boardCols + col) set if that
+    //player went there. The arrays are never changed once the state is made.
+    private final long[] xBoard;
+    private final long[] oBoard;
+
+    //The cells (row * boardCols + col) taken so far, in the order they were taken, are the
+    //first movesTaken entries of the list. Each state in a game shares the list of the state
+    //before it, so making a move doesn't copy every move so far.
+    private final MoveList moves;
+    private final int movesTaken;
+
+    private final Player playerWhoseTurnItIs;
+    private final Player winner;
+    private final boolean gameRunning;
+    private final boolean computerOpponent;
+
+
+    /**
+     * Constructs a state from its parts. The arrays are kept, not copied, so the caller must not
+     * change them afterwards.
+     */
+    GameState(int boardRows, int boardCols, int winLength, long[] xBoard, long[] oBoard, int[] moveOrder,
+              Player playerWhoseTurnItIs, Player winner, boolean gameRunning, boolean computerOpponent) {
+        this(boardRows, boardCols, winLength, xBoard, oBoard, new MoveList(moveOrder), moveOrder.length,
+                playerWhoseTurnItIs, winner, gameRunning, computerOpponent);
+    }
+
+
+    private GameState(int boardRows, int boardCols, int winLength, long[] xBoard, long[] oBoard,
+                      MoveList moves, int movesTaken,
+                      Player playerWhoseTurnItIs, Player winner, boolean gameRunning, boolean computerOpponent) {
+        this.boardRows = boardRows;
+        this.boardCols = boardCols;
+        this.winLength = winLength;
+        this.xBoard = xBoard;
+        this.oBoard = oBoard;
+        this.moves = moves;
+        this.movesTaken = movesTaken;
+        this.playerWhoseTurnItIs = playerWhoseTurnItIs;
+        this.winner = winner;
+        this.gameRunning = gameRunning;
+        this.computerOpponent = computerOpponent;
+    }
+
+
+    /**
+     * Returns the state of a model that hasn't started a game yet: an empty standard board with
+     * nobody to move.
+     *
+     * @return the state before any game.
+     */
+    static GameState notStarted() {
+        int words = wordsNeeded(TicTocToeGame.DEFAULT_BOARD_ROWS * TicTocToeGame.DEFAULT_BOARD_COLS);
+
+        return new GameState(TicTocToeGame.DEFAULT_BOARD_ROWS, TicTocToeGame.DEFAULT_BOARD_COLS,
+                TicTocToeGame.DEFAULT_WIN_LENGTH, new long[words], new long[words], new int[0],
+                Player.NONE, Player.NONE, false, false);
+    }
+
+
+    /**
+     * Returns the state at the start of a new game, with X to move. If the board shape is
+     * invalid, an exception is thrown.
+     *
+     * @param computerOpponent true if O is played by the computer.
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param winLength the number of symbols in a row needed to win.
+     * @return the state of the new game.
+     */
+    static GameState newGame(boolean computerOpponent, int rows, int cols, int winLength) {
+        checkBoardShape(rows, cols, winLength);
+
+        int words = wordsNeeded(rows * cols);
+        return new GameState(rows, cols, winLength, new long[words], new long[words], new int[0],
+                Player.X, Player.NONE, true, computerOpponent);
+    }
+
+
+    /**
+     * Throws an exception if the board size or the number in a row needed to win is invalid.
+     *
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param winLength the number of symbols in a row needed to win.
+     */
+    static void checkBoardShape(int rows, int cols, int winLength){
+        if(rows < 1 || cols < 1 || rows > TicTocToeGameModel.MAX_BOARD_DIMENSION || cols > TicTocToeGameModel.MAX_BOARD_DIMENSION){
+            throw new IllegalArgumentException(
+                    String.format("%dx%d is not a valid board size.", rows, cols));
+        }
+        if(winLength < 1 || winLength > Math.max(rows, cols)){
+            throw new IllegalArgumentException(
+                    String.format("Cannot win with %d in a row on a %dx%d board.", winLength, rows, cols));
+        }
+    }
+
+
+    /**
+     * Returns the number of longs needed to hold one bit for each cell on the board.
+     *
+     * @param cells the number of cells on the board.
+     * @return the length of a bitset that can hold that many cells.
+     */
+    static int wordsNeeded(int cells){
+        return (cells + 63) >>> 6;
+    }
+
+
+    /**
+     * Returns the state after the current player goes in the specified cell, which must be on
+     * the board and empty, and the game must still be running. The winner, the end of the game
+     * and the next turn are all worked out here.
+     *
+     * @param row the row the current player chose.
+     * @param col the column the current player chose.
+     * @return the state after the move.
+     */
+    GameState withMove(int row, int col){
+        int cell = row * boardCols + col;
+        long[] newXBoard = xBoard;
+        long[] newOBoard = oBoard;
+
+        if(playerWhoseTurnItIs == Player.X){
+            newXBoard = xBoard.clone();
+            newXBoard[cell >>> 6] |= 1L << cell;
+        }
+        else{
+            newOBoard = oBoard.clone();
+            newOBoard[cell >>> 6] |= 1L << cell;
+        }
+
+
+        //Handel game over or next turn
+        long[] playerBoard = (playerWhoseTurnItIs == Player.X ? newXBoard : newOBoard);
+        Player newWinner = Player.NONE;
+        Player nextTurn = (playerWhoseTurnItIs == Player.X ? Player.O : Player.X);
+        boolean stillRunning = true;
+
+        if(WinLines.completesLine(playerBoard, boardRows, boardCols, winLength, cell)){
+            newWinner = playerWhoseTurnItIs;
+            nextTurn = Player.NONE;
+            stillRunning = false;
+        }
+        else if(movesTaken + 1 == boardRows * boardCols){
+            nextTurn = Player.NONE;
+            stillRunning = false;
+        }
+
+        return new GameState(boardRows, boardCols, winLength, newXBoard, newOBoard, movesWith(cell), movesTaken + 1,
+                nextTurn, newWinner, stillRunning, computerOpponent);
+    }
+
+
+    /**
+     * Returns a move list holding this state's moves followed by the specified cell. The move
+     * is added to the shared list if no other state has added one after this state's moves,
+     * which is always the case when a game is played forwards. Otherwise, such as when two
+     * moves are tried from the same state, or when the list is full, this state's moves are
+     * copied into a new list with room to grow.
+     *
+     * @param cell the cell taken by the next move.
+     * @return the list of moves of the state after the move.
+     */
+    private MoveList movesWith(int cell){
+        MoveList list = moves;
+
+        if(movesTaken == list.cells.length || !list.used.compareAndSet(movesTaken, movesTaken + 1)){
+            int capacity = Math.min(boardRows * boardCols, Math.max(2 * movesTaken, MIN_MOVE_CAPACITY));
+            list = new MoveList(Arrays.copyOf(moves.cells, capacity), movesTaken + 1);
+        }
+
+        list.cells[movesTaken] = cell;
+        return list;
+    }
+
+
+    /**
+     * Throws an IndexOutOfBoundsException if the specified position is not on the board.
+     *
+     * @param row the row of the position.
+     * @param col the column of the position.
+     */
+    void checkBounds(int row, int col){
+        if(row < 0 || row >= boardRows){
+            throw new IndexOutOfBoundsException(String.format("Row %d out of bounds for board length %d.", row, boardRows));
+        }
+        if(col < 0 || col >= boardCols){
+            throw new IndexOutOfBoundsException(String.format("Column %d out of bounds for board length %d.", col, boardCols));
+        }
+    }
+
+
+    /**
+     * Returns the value at the specified position on the board.
+     *
+     * @param row the row of the position.
+     * @param col the column of the position.
+     * @return the player who went there, or null if nobody has gone there.
+     */
+    public Player getValueAtBoardPosition(int row, int col) {
+        checkBounds(row, col);
+
+        return cellValue(row * boardCols + col);
+    }
+
+
+    /**
+     * Reads the value of a single cell out of the bitsets.
+     *
+     * @param cell the index (row * boardCols + col) of the cell.
+     * @return the player who went in the cell, or null if nobody has gone there.
+     */
+    Player cellValue(int cell){
+        long bit = 1L << cell;
+
+        if((xBoard[cell >>> 6] & bit) != 0){
+            return Player.X;
+        }
+        if((oBoard[cell >>> 6] & bit) != 0){
+            return Player.O;
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Makes a search position from this state with the specified player to move.
+     *
+     * @param sideToMove the player the position is for.
+     * @return a new position with the same board.
+     */
+    SearchPosition toSearchPosition(Player sideToMove){
+        return SearchPosition.fromBits(boardRows, boardCols, winLength, xBoard, oBoard, sideToMove);
+    }
+
+
+    public int getBoardRows() {
+        return boardRows;
+    }
+
+
+    public int getBoardColumns() {
+        return boardCols;
+    }
+
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+
+    public int getMovesTaken() {
+        return movesTaken;
+    }
+
+
+    /**
+     * Returns one of the moves taken so far. X took the even numbered moves and O the odd ones.
+     *
+     * @param index the number of the move, starting from 0.
+     * @return the cell (row * number of columns + col) the move was made in.
+     */
+    public int getMove(int index) {
+        if(index < 0 || index >= movesTaken){
+            throw new IndexOutOfBoundsException(String.format("Move %d out of bounds for %d moves taken.", index, movesTaken));
+        }
+
+        return moves.cells[index];
+    }
+
+
+    /**
+     * Returns whose turn it is.
+     *
+     * @return the player to move, or Player.NONE if the game is not running.
+     */
+    public Player getCurrentPlayer() {
+        return playerWhoseTurnItIs;
+    }
+
+
+    /**
+     * Returns who won the game.
+     *
+     * @return the winner, or Player.NONE on a draw or if the game is not over.
+     */
+    public Player getWinner() {
+        return winner;
+    }
+
+
+    public boolean isGameOver() {
+        return !gameRunning;
+    }
+
+
+    public boolean isComputerOpponent() {
+        return computerOpponent;
+    }
+
+
+    private Object writeReplace() {
+        return new SerializedForm(this);
+    }
+
+
+    private void readObject(ObjectInputStream input) throws InvalidObjectException {
+        throw new InvalidObjectException("Game states are read through their serialized form.");
+    }
+
+
+
+
+
+
+    /****       Inner Classes       ****/
+
+
+    /**
+     * The moves of a game, shared by the states that follow one another in it. Each state only
+     * reads the entries below its own number of moves, which are never changed once written.
+     */
+    private static final class MoveList {
+        final int[] cells;
+
+        //How many entries some state is using. Claimed one at a time, so only one state can add
+        //each entry.
+        final AtomicInteger used;
+
+
+        MoveList(int[] cells){
+            this(cells, cells.length);
+        }
+
+
+        MoveList(int[] cells, int used){
+            this.cells = cells;
+            this.used = new AtomicInteger(used);
+        }
+    }
+
+
+    /**
+     * What is written to a stream in place of a state, holding only the moves the state has
+     * taken rather than the whole list it shares.
+     */
+    private static final class SerializedForm implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int boardRows;
+        private final int boardCols;
+        private final int winLength;
+        private final long[] xBoard;
+        private final long[] oBoard;
+        private final int[] moveOrder;
+        private final Player playerWhoseTurnItIs;
+        private final Player winner;
+        private final boolean gameRunning;
+        private final boolean computerOpponent;
+
+
+        SerializedForm(GameState state){
+            this.boardRows = state.boardRows;
+            this.boardCols = state.boardCols;
+            this.winLength = state.winLength;
+            this.xBoard = state.xBoard;
+            this.oBoard = state.oBoard;
+            this.moveOrder = Arrays.copyOf(state.moves.cells, state.movesTaken);
+            this.playerWhoseTurnItIs = state.playerWhoseTurnItIs;
+            this.winner = state.winner;
+            this.gameRunning = state.gameRunning;
+            this.computerOpponent = state.computerOpponent;
+        }
+
+
+        private Object readResolve() {
+            return new GameState(boardRows, boardCols, winLength, xBoard, oBoard, moveOrder,
+                    playerWhoseTurnItIs, winner, gameRunning, computerOpponent);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * A {@link MetricsListener MetricsListener} that adds up how one kind of computer opponent is
+ * doing: how long its turns take, how much it searches, how often its caches already have the
+ * answer and how its games end. It can be shared by any number of models. Recording takes a
+ * short lock and never allocates, so it can be left on in production and in benchmarks.
+ *
+ * Threads that take many turns at once should each record into their own metrics and
+ * {@link #merge merge} them afterwards, so they don't wait on each other's lock.
+ */
+public class GeneratorMetrics implements MetricsListener {
+    private final String name;
+
+    //All guarded by this
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private long nodes = 0;
+    private long cacheHits = 0;
+    private long cacheLookups = 0;
+    private long gamesCompleted = 0;
+    private long xWins = 0;
+    private long oWins = 0;
+
+
+    /**
+     * Constructs an empty set of metrics.
+     *
+     * @param name the name of the generator being measured, used in reports.
+     */
+    public GeneratorMetrics(String name) {
+        this.name = name;
+    }
+
+
+    @Override
+    public void computerTurnTaken(ComputerMoveGenerator generator, long nanos) {
+        long turnNodes = 0;
+        long turnHits = 0;
+        long turnLookups = 0;
+
+        //Read on the thread that chose the move, before anything else can change them
+        if(generator instanceof SearchStatistics){
+            SearchStatistics statistics = (SearchStatistics) generator;
+            turnNodes = statistics.getNodesLastMove();
+            turnHits = statistics.getCacheHitsLastMove();
+            turnLookups = statistics.getCacheLookupsLastMove();
+        }
+
+        synchronized (this){
+            latencies.record(nanos);
+            nodes += turnNodes;
+            cacheHits += turnHits;
+            cacheLookups += turnLookups;
+        }
+    }
+
+
+    @Override
+    public synchronized void gameFinished(GameState game) {
+        gamesCompleted++;
+
+        if(game.getWinner() == Player.X){
+            xWins++;
+        }
+        else if(game.getWinner() == Player.O){
+            oWins++;
+        }
+    }
+
+
+    /**
+     * Adds everything recorded in another set of metrics to this one.
+     *
+     * @param other the metrics to add. They can still be recorded into while this runs.
+     */
+    public void merge(GeneratorMetrics other) {
+        LatencyHistogram otherLatencies = new LatencyHistogram();
+        long otherNodes;
+        long otherHits;
+        long otherLookups;
+        long otherGames;
+        long otherXWins;
+        long otherOWins;
+
+        //Read in one go, and without holding this lock, so two threads merging into each other
+        //can't deadlock
+        synchronized (other){
+            otherLatencies.merge(other.latencies);
+            otherNodes = other.nodes;
+            otherHits = other.cacheHits;
+            otherLookups = other.cacheLookups;
+            otherGames = other.gamesCompleted;
+            otherXWins = other.xWins;
+            otherOWins = other.oWins;
+        }
+
+        synchronized (this){
+            latencies.merge(otherLatencies);
+            nodes += otherNodes;
+            cacheHits += otherHits;
+            cacheLookups += otherLookups;
+            gamesCompleted += otherGames;
+            xWins += otherXWins;
+            oWins += otherOWins;
+        }
+    }
+
+
+    /**
+     * Returns the name of the generator being measured.
+     *
+     * @return the generator's name.
+     */
+    public String getName() {
+        return name;
+    }
+
+
+    /**
+     * Returns a copy of the histogram of computer turn durations, so it can be read while turns
+     * are still being recorded.
+     *
+     * @return the turn durations so far, in nanoseconds.
+     */
+    public synchronized LatencyHistogram getLatencies() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.merge(latencies);
+
+        return copy;
+    }
+
+
+    /**
+     * Returns the number of computer turns taken.
+     *
+     * @return the number of computer turns.
+     */
+    public synchronized long getComputerTurns() {
+        return latencies.getTotalCount();
+    }
+
+
+    /**
+     * Returns the number of positions searched, or playouts run, over all computer turns. Only
+     * generators that implement {@link SearchStatistics SearchStatistics} are counted.
+     *
+     * @return the total search done.
+     */
+    public synchronized long getNodes() {
+        return nodes;
+    }
+
+
+    /**
+     * Returns the number of cache lookups that already had the answer.
+     *
+     * @return the number of cache hits.
+     */
+    public synchronized long getCacheHits() {
+        return cacheHits;
+    }
+
+
+    /**
+     * Returns the number of times a cache was looked in.
+     *
+     * @return the number of cache lookups.
+     */
+    public synchronized long getCacheLookups() {
+        return cacheLookups;
+    }
+
+
+    /**
+     * Returns the number of games that ended in a win or a draw.
+     *
+     * @return the number of finished games.
+     */
+    public synchronized long getGamesCompleted() {
+        return gamesCompleted;
+    }
+
+
+    /**
+     * Returns the number of games won by X.
+     *
+     * @return the number of X wins.
+     */
+    public synchronized long getXWins() {
+        return xWins;
+    }
+
+
+    /**
+     * Returns the number of games won by O, which is the computer when it plays.
+     *
+     * @return the number of O wins.
+     */
+    public synchronized long getOWins() {
+        return oWins;
+    }
+
+
+    /**
+     * Returns the number of games that ended in a draw.
+     *
+     * @return the number of draws.
+     */
+    public synchronized long getDraws() {
+        return gamesCompleted - xWins - oWins;
+    }
+
+
+    /**
+     * Returns a one line summary of the metrics.
+     *
+     * @return the summary.
+     */
+    @Override
+    public synchronized String toString() {
+        long turns = latencies.getTotalCount();
+
+        return String.format("%s: %,d turns (ns: p50=%,d p99=%,d max=%,d), %,d nodes (%,.0f/turn), "
+                        + "cache %,d/%,d (%.1f%%), %,d games (X %,d, O %,d, draws %,d)",
+                name, turns, latencies.getPercentile(0.50), latencies.getPercentile(0.99), latencies.getMax(), nodes, turns == 0 ? 0.0 : (double) nodes / turns,
+                cacheHits, cacheLookups, cacheLookups == 0 ? 0.0 : 100.0 * cacheHits / cacheLookups,
+                gamesCompleted, xWins, oWins, gamesCompleted - xWins - oWins);
+    }
+}
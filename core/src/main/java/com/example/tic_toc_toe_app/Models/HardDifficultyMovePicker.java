@@ -0,0 +1,284 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * Implementation of the {@link ComputerMoveGenerator ComputerMoveGenerator interface} that plays
+ * perfectly, and so never loses. Moves are chosen with a negamax search with alpha-beta pruning.
+ * Every position searched is stored in a transposition table that lives as long as this object,
+ * so after the first few calls almost every position is answered straight from the table.
+ */
+public class HardDifficultyMovePicker implements ComputerMoveGenerator, SearchStatistics {
+    //Cells in the order they are searched. Center first, then corners, then edges, which makes
+    //alpha-beta cutoffs happen much sooner.
+    private static final int[] MOVE_ORDER = {4, 0, 2, 6, 8, 1, 3, 5, 7};
+
+    //Each transposition table entry is packed into a short:
+    //bit 0 = entry present, bits 1-2 = bound type, bits 3-6 = best move, bits 7-11 = score + 16
+    private static final int EXACT = 0;
+    private static final int LOWER_BOUND = 1;
+    private static final int UPPER_BOUND = 2;
+    private static final int SCORE_OFFSET = 16;
+
+    //Positions are keyed by (cells of player to move << 9) | (cells of the other player).
+    private final short[] transpositionTable = new short[1 << (2 * ThreeByThreeBitboard.BOARD_SIZE)];
+
+    //Counted afresh for each move
+    private long nodes = 0;
+    private long tableLookups = 0;
+    private long tableHits = 0;
+
+
+    //Only the standard 3x3 game
+    @Override
+    public boolean canPlay(int rows, int cols, int winLength) {
+        return ThreeByThreeBitboard.isStandardGame(rows, cols, winLength);
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, int winLength, Player computer) {
+        ThreeByThreeBitboard.checkWinLength(winLength);
+
+        return chooseMove(gameBoard, computer);
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, Player computer) {
+        Player human = (computer == Player.X ? Player.O : Player.X);
+
+        return chooseMove(ThreeByThreeBitboard.maskOf(gameBoard, computer),
+                ThreeByThreeBitboard.maskOf(gameBoard, human));
+    }
+
+
+    @Override
+    public int chooseMove(SearchPosition position) {
+        if(position.getRows() != ThreeByThreeBitboard.BOARD_ROWS || position.getColumns() != ThreeByThreeBitboard.BOARD_COLS){
+            throw new IllegalArgumentException(String.format("Expected a %dx%d board but got %dx%d.",
+                    ThreeByThreeBitboard.BOARD_ROWS, ThreeByThreeBitboard.BOARD_COLS, position.getRows(), position.getColumns()));
+        }
+        ThreeByThreeBitboard.checkWinLength(position.getWinLength());
+
+        //The position's cells are numbered the same way as the masks, and all fit in one word
+        Player computer = position.getSideToMove();
+        Player human = (computer == Player.X ? Player.O : Player.X);
+
+        return chooseMove((int) position.bitsOf(computer)[0], (int) position.bitsOf(human)[0]);
+    }
+
+
+    /**
+     * Chooses a move for the player owning the first mask.
+     *
+     * @param mine the cells taken by the player to move.
+     * @param theirs the cells taken by the other player.
+     * @return the chosen move, or Move.NONE if the board is full.
+     */
+    private int chooseMove(int mine, int theirs) {
+        nodes = 0;
+        tableLookups = 0;
+        tableHits = 0;
+
+        if((mine | theirs) == ThreeByThreeBitboard.FULL_BOARD){
+            return Move.NONE;
+        }
+
+
+        //Search the canonical form of the position so that rotations and reflections of a
+        //position share their transposition table entries.
+        int symmetry = BoardSymmetry.canonicalSymmetry(mine, theirs);
+        int move = searchRoot(BoardSymmetry.transformMask(mine, symmetry),
+                BoardSymmetry.transformMask(theirs, symmetry));
+        move = BoardSymmetry.inverseTransformCell(move, symmetry);
+
+        return Move.of(move / ThreeByThreeBitboard.BOARD_COLS, move % ThreeByThreeBitboard.BOARD_COLS);
+    }
+
+
+    /**
+     * Searches every legal move from the specified position and returns the best one.
+     *
+     * @param mine the cells taken by the player to move.
+     * @param theirs the cells taken by the other player.
+     * @return the index (row * 3 + col) of the best move.
+     */
+    private int searchRoot(int mine, int theirs){
+        int entry = transpositionTable[key(mine, theirs)];
+        tableLookups++;
+        if(entry != 0 && boundOf(entry) == EXACT){
+            tableHits++;
+            return moveOf(entry);
+        }
+
+
+        int alpha = -SCORE_OFFSET;
+        int beta = SCORE_OFFSET;
+        int bestMove = -1;
+
+        for(int cell : MOVE_ORDER){
+            int bit = 1 << cell;
+            if(((mine | theirs) & bit) != 0){
+                continue;
+            }
+
+            int score = -negamax(theirs, mine | bit, cell, -beta, -alpha);
+            if(score > alpha || bestMove == -1){
+                alpha = score;
+                bestMove = cell;
+            }
+        }
+
+
+        store(mine, theirs, alpha, EXACT, bestMove);
+        return bestMove;
+    }
+
+
+    /**
+     * Scores a position from the point of view of the player to move. A win is worth more the
+     * sooner it happens, so the search prefers quick wins and slow losses.
+     *
+     * @param mine the cells taken by the player to move.
+     * @param theirs the cells taken by the player who just moved.
+     * @param lastMove the cell the other player just went in.
+     * @param alpha the lowest score the player to move is already guaranteed.
+     * @param beta the highest score the other player will allow.
+     * @return the score of the position, exact if it falls strictly between alpha and beta.
+     */
+    private int negamax(int mine, int theirs, int lastMove, int alpha, int beta){
+        nodes++;
+        int emptyCells = ThreeByThreeBitboard.BOARD_SIZE - Integer.bitCount(mine | theirs);
+
+        //If the last move won, the player to move has lost.
+        if(ThreeByThreeBitboard.winsThrough(theirs, lastMove)){
+            return -(emptyCells + 1);
+        }
+        if(emptyCells == 0){
+            return 0;
+        }
+
+
+        int originalAlpha = alpha;
+        int key = key(mine, theirs);
+        int entry = transpositionTable[key];
+        tableLookups++;
+
+        if(entry != 0){
+            tableHits++;
+            int score = scoreOf(entry);
+            int bound = boundOf(entry);
+
+            if(bound == EXACT){
+                return score;
+            }
+            else if(bound == LOWER_BOUND){
+                alpha = Math.max(alpha, score);
+            }
+            else{
+                beta = Math.min(beta, score);
+            }
+
+            if(alpha >= beta){
+                return score;
+            }
+        }
+
+
+        int bestScore = -SCORE_OFFSET;
+        int bestMove = -1;
+
+        for(int cell : MOVE_ORDER){
+            int bit = 1 << cell;
+            if(((mine | theirs) & bit) != 0){
+                continue;
+            }
+
+            int score = -negamax(theirs, mine | bit, cell, -beta, -alpha);
+            if(score > bestScore){
+                bestScore = score;
+                bestMove = cell;
+            }
+            if(score > alpha){
+                alpha = score;
+            }
+            if(alpha >= beta){
+                break;
+            }
+        }
+
+
+        int bound;
+        if(bestScore <= originalAlpha){
+            bound = UPPER_BOUND;
+        }
+        else if(bestScore >= beta){
+            bound = LOWER_BOUND;
+        }
+        else{
+            bound = EXACT;
+        }
+
+        store(mine, theirs, bestScore, bound, bestMove);
+        return bestScore;
+    }
+
+
+    @Override
+    public long getNodesLastMove() {
+        return nodes;
+    }
+
+
+    /**
+     * Returns the number of transposition table entries found while choosing the most recent
+     * move, including entries that only narrowed the search rather than ending it.
+     *
+     * @return the number of transposition table hits.
+     */
+    @Override
+    public long getCacheHitsLastMove() {
+        return tableHits;
+    }
+
+
+    @Override
+    public long getCacheLookupsLastMove() {
+        return tableLookups;
+    }
+
+
+    /**
+     * Saves the result of searching a position in the transposition table.
+     *
+     * @param mine the cells taken by the player to move.
+     * @param theirs the cells taken by the other player.
+     * @param score the score found for the position.
+     * @param bound whether the score is exact, a lower bound or an upper bound.
+     * @param bestMove the best move found for the position.
+     */
+    private void store(int mine, int theirs, int score, int bound, int bestMove){
+        transpositionTable[key(mine, theirs)] =
+                (short) (1 | (bound << 1) | (bestMove << 3) | ((score + SCORE_OFFSET) << 7));
+    }
+
+
+    private static int key(int mine, int theirs){
+        return (mine << ThreeByThreeBitboard.BOARD_SIZE) | theirs;
+    }
+
+
+    private static int boundOf(int entry){
+        return (entry >> 1) & 0b11;
+    }
+
+
+    private static int moveOf(int entry){
+        return (entry >> 3) & 0b1111;
+    }
+
+
+    private static int scoreOf(int entry){
+        return ((entry >> 7) & 0b11111) - SCORE_OFFSET;
+    }
+}
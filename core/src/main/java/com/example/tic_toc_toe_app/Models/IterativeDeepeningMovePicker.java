@@ -0,0 +1,341 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * Implementation of the {@link AnytimeMoveGenerator AnytimeMoveGenerator interface} that works
+ * on boards of any size. It runs a negamax search with alpha-beta pruning to depth 1, then 2,
+ * and so on, searching the best move of the last depth first each time, until the deadline
+ * passes or the whole game has been searched. The move from the deepest search that finished
+ * is played.
+ *
+ * Positions the search stops in before the game ends are scored by counting, for every line of
+ * winLength cells that only one player has gone in, how many of its cells they have taken. On
+ * boards bigger than 5x5 only the empty cells next to a taken cell are searched, since moves
+ * far from the action are almost never good. The search plays moves forward and back on a
+ * {@link SearchPosition SearchPosition}, so it doesn't allocate while searching.
+ */
+public class IterativeDeepeningMovePicker implements AnytimeMoveGenerator, SearchStatistics {
+    private static final long DEFAULT_MILLIS_PER_MOVE = 1000;
+
+    //Boards with more cells than this only search cells next to taken ones
+    private static final int NEIGHBOURS_ONLY_ABOVE = 25;
+
+    //How often the clock is checked, as a mask of the node count
+    private static final int CLOCK_CHECK_MASK = 255;
+
+    //A win is worth WIN less the number of moves it takes, so quicker wins score higher. Line
+    //scores are capped well below it. Shared with ParallelAlphaBetaMovePicker.
+    static final int WIN = 1 << 30;
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int MAX_LINE_SCORE_SHIFT = 20;
+
+    private final long millisPerMove;
+
+    //Move lists for each ply of the search, so generating moves doesn't allocate. Made again
+    //when the board size changes.
+    private int[][] moveLists = new int[0][];
+
+    private long deadline;
+    private long nodes;
+    private boolean stopped;
+
+    private int depthLastMove = 0;
+    private long nodesLastMove = 0;
+
+
+    /**
+     * Constructs a move picker that thinks for one second per move when no deadline is given.
+     */
+    public IterativeDeepeningMovePicker() {
+        this(DEFAULT_MILLIS_PER_MOVE);
+    }
+
+
+    /**
+     * Constructs a move picker with the specified time budget for moves chosen without a
+     * deadline.
+     *
+     * @param millisPerMove how long to search before choosing each move, in milliseconds.
+     */
+    public IterativeDeepeningMovePicker(long millisPerMove) {
+        if(millisPerMove < 1){
+            throw new IllegalArgumentException(String.format("%d ms is not a valid time budget.", millisPerMove));
+        }
+
+        this.millisPerMove = millisPerMove;
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, Player computer) {
+        return chooseMove(gameBoard, TicTocToeGame.DEFAULT_WIN_LENGTH, computer);
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, int winLength, Player computer) {
+        return chooseMove(SearchPosition.fromBoard(gameBoard, winLength, computer));
+    }
+
+
+    @Override
+    public int chooseMove(SearchPosition position) {
+        return chooseMove(position, System.nanoTime() + millisPerMove * 1_000_000L);
+    }
+
+
+    @Override
+    public int chooseMove(SearchPosition position, long deadline) {
+        if(position.isGameOver()){
+            depthLastMove = 0;
+            nodesLastMove = 0;
+            return Move.NONE;
+        }
+
+        int cellCount = position.getRows() * position.getColumns();
+        if(moveLists.length != cellCount + 1 || moveLists[0].length != cellCount){
+            moveLists = new int[cellCount + 1][cellCount];
+        }
+
+        this.deadline = deadline;
+        this.nodes = 0;
+        this.stopped = false;
+
+
+        int[] rootMoves = moveLists[0];
+        int rootMoveCount = generateMoves(position, rootMoves);
+        int emptyCells = cellCount - position.getMoveCount();
+        int completedDepth = 0;
+
+        for(int depth = 1; depth <= emptyCells; depth++){
+            int score = searchRoot(position, rootMoves, rootMoveCount, depth);
+            if(stopped){
+                break;
+            }
+
+            completedDepth = depth;
+
+            //A forced win or loss has been found, so searching deeper won't change the move
+            if(Math.abs(score) > WIN - cellCount){
+                break;
+            }
+        }
+
+        depthLastMove = completedDepth;
+        nodesLastMove = nodes;
+
+        //The best move of the last finished depth is always moved to the front. If not even
+        //depth 1 finished, this is just the first candidate.
+        int cell = rootMoves[0];
+        return Move.of(cell / position.getColumns(), cell % position.getColumns());
+    }
+
+
+    /**
+     * Returns the depth of the deepest search that finished while choosing the most recent move.
+     *
+     * @return the number of moves ahead that were searched.
+     */
+    public int getDepthLastMove() {
+        return depthLastMove;
+    }
+
+
+    @Override
+    public long getNodesLastMove() {
+        return nodesLastMove;
+    }
+
+
+    //No transposition table, so nothing is ever looked up
+    @Override
+    public long getCacheHitsLastMove() {
+        return 0;
+    }
+
+
+    @Override
+    public long getCacheLookupsLastMove() {
+        return 0;
+    }
+
+
+    /**
+     * Searches every candidate move to the specified depth. If the search finishes, the best
+     * move is swapped to the front of the list so the next depth searches it first.
+     *
+     * @return the score of the best move, which is meaningless if the search was stopped.
+     */
+    private int searchRoot(SearchPosition position, int[] moves, int moveCount, int depth){
+        int alpha = -INFINITY;
+        int best = 0;
+
+        for(int i = 0; i < moveCount; i++){
+            position.makeMove(moves[i]);
+            int score = -negamax(position, depth - 1, 1, -INFINITY, -alpha);
+            position.unmakeMove();
+
+            if(stopped){
+                return 0;
+            }
+            if(score > alpha){
+                alpha = score;
+                best = i;
+            }
+        }
+
+
+        int bestMove = moves[best];
+        System.arraycopy(moves, 0, moves, 1, best);
+        moves[0] = bestMove;
+
+        return alpha;
+    }
+
+
+    /**
+     * Scores a position from the point of view of the player to move.
+     *
+     * @param position the position, with the move that led to it already made.
+     * @param depth the number of moves left to search.
+     * @param ply the number of moves made since the root.
+     * @param alpha the lowest score the player to move is already guaranteed.
+     * @param beta the highest score the other player will allow.
+     * @return the score of the position, exact if it falls strictly between alpha and beta.
+     */
+    private int negamax(SearchPosition position, int depth, int ply, int alpha, int beta){
+        //If the last move won, the player to move has lost
+        if(position.getWinner() != Player.NONE){
+            return -(WIN - ply);
+        }
+        if(position.isDraw()){
+            return 0;
+        }
+        if((++nodes & CLOCK_CHECK_MASK) == 0 && timeIsUp()){
+            stopped = true;
+            return 0;
+        }
+        if(depth == 0){
+            return evaluate(position);
+        }
+
+
+        int[] moves = moveLists[ply];
+        int moveCount = generateMoves(position, moves);
+        int best = -INFINITY;
+
+        for(int i = 0; i < moveCount; i++){
+            position.makeMove(moves[i]);
+            int score = -negamax(position, depth - 1, ply + 1, -beta, -alpha);
+            position.unmakeMove();
+
+            if(stopped){
+                return 0;
+            }
+            if(score > best){
+                best = score;
+            }
+            if(score > alpha){
+                alpha = score;
+            }
+            if(alpha >= beta){
+                break;
+            }
+        }
+
+        return best;
+    }
+
+
+    private boolean timeIsUp(){
+        return System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted();
+    }
+
+
+    /**
+     * Fills the array with the cells worth searching: every empty cell on small boards, and
+     * the empty cells next to a taken cell on bigger ones, or the middle cell if the board is
+     * empty.
+     *
+     * @return the number of cells written.
+     */
+    static int generateMoves(SearchPosition position, int[] moves){
+        int rows = position.getRows();
+        int cols = position.getColumns();
+        boolean neighboursOnly = rows * cols > NEIGHBOURS_ONLY_ABOVE && position.getMoveCount() > 0;
+        int count = 0;
+
+        for(int cell = position.nextEmptyCell(SearchPosition.NO_MOVE); cell != SearchPosition.NO_MOVE;
+                cell = position.nextEmptyCell(cell)){
+            if(!neighboursOnly || hasTakenNeighbour(position, cell / cols, cell % cols)){
+                moves[count++] = cell;
+            }
+        }
+
+        if(rows * cols > NEIGHBOURS_ONLY_ABOVE && position.getMoveCount() == 0){
+            moves[0] = (rows / 2) * cols + cols / 2;
+            count = 1;
+        }
+
+        return count;
+    }
+
+
+    private static boolean hasTakenNeighbour(SearchPosition position, int row, int col){
+        for(int i = Math.max(0, row - 1); i <= Math.min(position.getRows() - 1, row + 1); i++){
+            for(int j = Math.max(0, col - 1); j <= Math.min(position.getColumns() - 1, col + 1); j++){
+                if(!position.isEmpty(i * position.getColumns() + j)){
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Scores a position the game hasn't ended in, from the point of view of the player to
+     * move. Each line of winLength cells that only one player has gone in is worth 4^(cells
+     * taken) to them.
+     */
+    static int evaluate(SearchPosition position){
+        long[] mine = position.bitsOf(position.getSideToMove());
+        long[] theirs = position.bitsOf(position.getSideToMove() == Player.X ? Player.O : Player.X);
+        int rows = position.getRows();
+        int cols = position.getColumns();
+        int winLength = position.getWinLength();
+        long score = 0;
+
+        for(int direction = 0; direction < WinLines.DIRECTIONS; direction++){
+            int rowStep = WinLines.ROW_STEPS[direction];
+            int colStep = WinLines.COL_STEPS[direction];
+
+            for(int row = 0; row < rows; row++){
+                for(int col = 0; col < cols; col++){
+                    if(!WinLines.fitsOnBoard(rows, cols, winLength, row, col, direction)){
+                        continue;
+                    }
+
+                    int myCount = 0;
+                    int theirCount = 0;
+                    for(int k = 0; k < winLength; k++){
+                        int cell = (row + rowStep * k) * cols + col + colStep * k;
+                        myCount += (int) (mine[cell >>> 6] >>> cell) & 1;
+                        theirCount += (int) (theirs[cell >>> 6] >>> cell) & 1;
+                    }
+
+                    if(theirCount == 0 && myCount > 0){
+                        score += 1L << Math.min(2 * myCount, MAX_LINE_SCORE_SHIFT);
+                    }
+                    else if(myCount == 0 && theirCount > 0){
+                        score -= 1L << Math.min(2 * theirCount, MAX_LINE_SCORE_SHIFT);
+                    }
+                }
+            }
+        }
+
+        //Keep huge boards well away from the win scores
+        return (int) Math.max(-WIN / 2, Math.min(WIN / 2, score));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * A histogram of durations in nanoseconds, with buckets that grow with the value so that every
+ * bucket is accurate to within about 12%. Recording is a few arithmetic operations and never
+ * allocates. Not thread safe: each thread should record into its own histogram, and the results
+ * can be merged afterwards.
+ */
+public class LatencyHistogram {
+    //Each power of two is split into this many buckets
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount = 0;
+    private long max = 0;
+
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos the duration in nanoseconds. Negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+
+        counts[bucketOf(value)]++;
+        totalCount++;
+        if(value > max){
+            max = value;
+        }
+    }
+
+
+    /**
+     * Adds every duration recorded in another histogram to this one.
+     *
+     * @param other the histogram to add.
+     */
+    public void merge(LatencyHistogram other) {
+        for(int i = 0; i < BUCKET_COUNT; i++){
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        max = Math.max(max, other.max);
+    }
+
+
+    /**
+     * Returns the number of durations recorded.
+     *
+     * @return the number of durations recorded.
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+
+    /**
+     * Returns the longest duration recorded.
+     *
+     * @return the longest duration recorded, in nanoseconds.
+     */
+    public long getMax() {
+        return max;
+    }
+
+
+    /**
+     * Returns an estimate of the duration that the specified fraction of all recorded durations
+     * are at or below.
+     *
+     * @param fraction the percentile as a fraction, for example 0.99 for the 99th percentile.
+     * @return the lower bound of the bucket holding that percentile, in nanoseconds, or 0 if
+     * nothing was recorded.
+     */
+    public long getPercentile(double fraction) {
+        if(totalCount == 0){
+            return 0;
+        }
+
+
+        long target = (long) Math.ceil(fraction * totalCount);
+        long seen = 0;
+
+        for(int i = 0; i < BUCKET_COUNT; i++){
+            seen += counts[i];
+            if(seen >= target && counts[i] > 0){
+                return Math.min(lowestValueIn(i), max);
+            }
+        }
+
+        return max;
+    }
+
+
+    /**
+     * Returns the bucket a value belongs in. Values below SUB_BUCKETS each get their own bucket;
+     * above that, each power of two is split into SUB_BUCKETS equal parts.
+     */
+    private static int bucketOf(long value){
+        if(value < SUB_BUCKETS){
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+
+    /**
+     * Returns the smallest value that belongs in a bucket.
+     */
+    private static long lowestValueIn(int bucket){
+        if(bucket < SUB_BUCKETS){
+            return bucket;
+        }
+
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.util.Random;
+
+
+/**
+ * Implementation of the {@link ComputerMoveGenerator ComputerMoveGenerator interface} that plays
+ * the computer on medium difficulty. With this implementation, the computer will first look to
+ * complete a row (3 in a row on the standard board). If it cannot, it will check if it can prevent
+ * the player from completing a row. If it cannot do that either it will pick a move at random.
+ *
+ * Every stretch of cells that could hold a winning row is worked out once per board shape and
+ * kept in a table, and moves are handled as cell numbers, so once the table is built
+ * {@link #chooseMoveIndex chooseMoveIndex} does not allocate anything. Because of this reused
+ * scratch space, an instance should only be used by one thread at a time.
+ */
+public class MediumDifficultyMovePicker implements ComputerMoveGenerator {
+    public static final int NO_MOVE = -1;
+
+    private static final Random sharedGenerator = new Random();
+
+    private final Random generator;
+
+    //The board shape the line table was built for
+    private int tableRows = -1;
+    private int tableCols = -1;
+    private int tableWinLength = -1;
+
+    //Cell k of line i is at (lineRows[i * winLength + k], lineCols[i * winLength + k])
+    private int[] lineRows;
+    private int[] lineCols;
+    private int lineCount;
+
+    //Scratch space for collecting empty cells
+    private int[] emptyCells;
+
+
+    /**
+     * Constructs a move picker that shares one random number generator with every other move
+     * picker made with this constructor.
+     */
+    public MediumDifficultyMovePicker() {
+        this(sharedGenerator);
+    }
+
+
+    /**
+     * Constructs a move picker that uses the specified random number generator to choose
+     * random moves.
+     *
+     * @param generator the source of randomness for this move picker.
+     */
+    public MediumDifficultyMovePicker(Random generator) {
+        this.generator = generator;
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, Player computer) {
+        return chooseMove(gameBoard, TicTocToeGame.DEFAULT_WIN_LENGTH, computer);
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, int winLength, Player computer) {
+        int move = chooseMoveIndex(gameBoard, winLength, computer);
+
+        if(move == NO_MOVE){
+            return Move.NONE;
+        }
+
+
+        int cols = gameBoard[0].length;
+        return Move.of(move / cols, move % cols);
+    }
+
+
+    /**
+     * Chooses a move the same way as {@link #chooseMove(Player[][], int, Player) chooseMove}, but
+     * returns it as a single cell number instead of a packed row and column.
+     *
+     * @param gameBoard the current board state.
+     * @param winLength the number of symbols in a row needed to win.
+     * @param computer the player that the computer should pick a move for.
+     * @return the chosen move as (row * number of columns + col), or NO_MOVE if the board is full.
+     */
+    public int chooseMoveIndex(Player[][] gameBoard, int winLength, Player computer) {
+        Player human = (computer == Player.X ? Player.O : Player.X);
+
+        buildTables(gameBoard.length, gameBoard[0].length, winLength);
+
+        int chosenMove;
+
+
+        //If there is a move that would let the computer win immediately, make that move.
+        chosenMove = checkIfPlayerCanWin(gameBoard, computer);
+        if(chosenMove != NO_MOVE){
+            return chosenMove;
+        }
+
+
+        //If there is a move that would let the player win on his/her next turn, block that move.
+        chosenMove = checkIfPlayerCanWin(gameBoard, human);
+        if(chosenMove != NO_MOVE){
+            return chosenMove;
+        }
+
+
+
+        //otherwise just pick something random
+        return pickOtherMove(gameBoard);
+    }
+
+
+    /**
+     * Builds the table of every stretch of winLength cells on the board, unless it was already
+     * built for this board shape. Lines are listed by direction, and within a direction by the
+     * position of their first cell, top to bottom and left to right.
+     *
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param winLength the number of symbols in a row needed to win.
+     */
+    private void buildTables(int rows, int cols, int winLength){
+        if(rows == tableRows && cols == tableCols && winLength == tableWinLength){
+            return;
+        }
+
+
+        int count = 0;
+        for(int direction = 0; direction < WinLines.DIRECTIONS; direction++){
+            for(int i = 0; i < rows; i++){
+                for(int j = 0; j < cols; j++){
+                    if(WinLines.fitsOnBoard(rows, cols, winLength, i, j, direction)){
+                        count++;
+                    }
+                }
+            }
+        }
+
+        lineRows = new int[count * winLength];
+        lineCols = new int[count * winLength];
+        lineCount = count;
+
+        int next = 0;
+        for(int direction = 0; direction < WinLines.DIRECTIONS; direction++){
+            for(int i = 0; i < rows; i++){
+                for(int j = 0; j < cols; j++){
+                    if(!WinLines.fitsOnBoard(rows, cols, winLength, i, j, direction)){
+                        continue;
+                    }
+
+                    for(int k = 0; k < winLength; k++){
+                        lineRows[next] = i + WinLines.ROW_STEPS[direction] * k;
+                        lineCols[next] = j + WinLines.COL_STEPS[direction] * k;
+                        next++;
+                    }
+                }
+            }
+        }
+
+        emptyCells = new int[rows * cols];
+        tableRows = rows;
+        tableCols = cols;
+        tableWinLength = winLength;
+    }
+
+
+    /**
+     * Checks if there is a move that the specified can take that would result in a win. If there
+     * is, it will return the cell number of that move. Otherwise, NO_MOVE is returned.
+     *
+     * @param gameBoard the current board state.
+     * @param whoseTurnToTake the player that the computer is picking a move for.
+     * @return the cell number of the move that can win the game, or NO_MOVE if there is no
+     *                  such move.
+     */
+    private int checkIfPlayerCanWin(Player[][] gameBoard, Player whoseTurnToTake){
+        for(int line = 0; line < lineCount; line++){
+            int chosenMove = checkLineForWin(gameBoard, whoseTurnToTake, line);
+
+            if(chosenMove != NO_MOVE){
+                return chosenMove;
+            }
+        }
+
+
+        return NO_MOVE;
+    }
+
+
+
+    /**
+     * Checks if there is a winning move in the specified line of the line table. If there is,
+     * the cell number of that move is returned. If there isn't, NO_MOVE is returned.
+     *
+     * @param gameBoard the current board state.
+     * @param whoseTurnToTake the player that the computer is picking a move for.
+     * @param line the index of the line in the line table.
+     * @return the cell number of the winning move, or NO_MOVE if there is no winning move.
+     */
+    private int checkLineForWin(Player[][] gameBoard, Player whoseTurnToTake, int line){
+        int indexOfEmptySpace = NO_MOVE;
+        int end = (line + 1) * tableWinLength;
+
+        for(int k = line * tableWinLength; k < end; k++){
+            Player current = gameBoard[lineRows[k]][lineCols[k]];
+
+            if(current == null){                        //nobody went in this spot
+                if(indexOfEmptySpace != NO_MOVE){       //if this isn't the first empty spot in this row
+                    return NO_MOVE;                     //no wins are possible here
+                }
+                indexOfEmptySpace = lineRows[k] * tableCols + lineCols[k];
+            }
+            else if (current != whoseTurnToTake) {      //if the opponent has already went in this row
+                return NO_MOVE;                         //no wins possible in this row
+            }
+        }
+
+
+        return indexOfEmptySpace;
+    }
+
+
+    /**
+     * Picks a move at random.
+     *
+     * @param board the game board.
+     * @return the cell number of the chosen move. NO_MOVE if the board is full.
+     */
+    private int pickOtherMove(Player[][] board){
+        int emptySpotCount = 0;
+
+        //fill the list
+        for(int i = 0; i < tableRows; i++){
+            for(int j = 0; j < tableCols; j++){
+                if(board[i][j] == null){
+                    emptyCells[emptySpotCount++] = i * tableCols + j;
+                }
+            }
+        }
+
+
+
+        if(emptySpotCount == 0){
+            return NO_MOVE;
+        }
+
+
+        return emptyCells[generator.nextInt(emptySpotCount)];
+    }
+}
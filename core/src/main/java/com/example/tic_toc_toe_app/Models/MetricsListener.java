@@ -0,0 +1,28 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * Told by a {@link TicTocToeGameModel TicTocToeGameModel} how long each computer turn took and
+ * when each game ends. It is called on whichever thread took the turn or made the last move, so
+ * it must be thread safe if it is shared between models, and it should not allocate or block,
+ * so that it can stay on all the time.
+ */
+public interface MetricsListener {
+    /**
+     * Called after the computer move generator has chosen a move, whether or not the move was
+     * then taken.
+     *
+     * @param generator the generator that chose the move. If it implements
+     *                  {@link SearchStatistics SearchStatistics}, its counts describe this move.
+     * @param nanos how long choosing the move took, in nanoseconds.
+     */
+    void computerTurnTaken(ComputerMoveGenerator generator, long nanos);
+
+
+    /**
+     * Called once when a game ends with a win or a draw.
+     *
+     * @param game the finished game.
+     */
+    void gameFinished(GameState game);
+}
@@ -0,0 +1,689 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Implementation of the {@link ComputerMoveGenerator ComputerMoveGenerator interface} that picks
+ * moves with Monte Carlo Tree Search, for boards too large to search completely.
+ *
+ * Each worker thread grows its own search tree by playing random games (playouts) until the time
+ * budget for the move runs out. The visit counts of the moves at the top of every tree are then
+ * added together, and the most visited move is chosen. The trees are kept after the move is made,
+ * and if the next position is the same one with the opponent's reply added, the search continues
+ * from the matching part of each tree instead of starting over.
+ *
+ * Each tree is limited to a set number of nodes. On a big board every node that has been
+ * expanded holds arrays as long as the number of empty cells, and a tree that is kept across a
+ * whole game would otherwise grow without bound. Once a tree is full, playouts still run and
+ * update the nodes already there, but no new nodes are added until the root moves down the tree
+ * and the rest of it is dropped.
+ *
+ * If the thread choosing the move is interrupted, the workers stop after their current playout
+ * and the most visited move so far is chosen.
+ */
+public class MonteCarloMovePicker implements AnytimeMoveGenerator, SearchStatistics {
+    private static final long DEFAULT_MILLIS_PER_MOVE = 1000;
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final long IDLE_SECONDS = 30;
+
+    /**
+     * The default most nodes in each worker's tree. On a 15x15 board this keeps a tree to
+     * around 100 MB.
+     */
+    public static final int DEFAULT_MAX_NODES = 200_000;
+
+    //Cell values on the worker boards
+    private static final byte EMPTY = 0;
+    private static final byte COMPUTER = 1;
+    private static final byte OPPONENT = 2;
+
+    private final long millisPerMove;
+    private final ExecutorService workerPool;
+    private final Worker[] workers;
+
+    //The position the trees were last searched from, so the next search can tell if it can
+    //reuse them.
+    private byte[] lastRootCells = null;
+    private int lastRows;
+    private int lastCols;
+    private int lastWinLength;
+    private Player lastComputer;
+    private int lastChosenMove;
+
+    private long playoutsLastMove = 0;
+    private boolean treesReusedLastMove = false;
+    private int treeNodesLastMove = 0;
+
+    //Set to stop the workers early when the thread choosing the move is interrupted
+    private final AtomicBoolean stopRequested = new AtomicBoolean(false);
+
+
+    /**
+     * Constructs a move picker that uses one worker per available processor and thinks for one
+     * second per move.
+     */
+    public MonteCarloMovePicker() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_MILLIS_PER_MOVE);
+    }
+
+
+    /**
+     * Constructs a move picker with the specified number of worker threads and time budget.
+     *
+     * @param threads the number of threads that run playouts.
+     * @param millisPerMove how long to search before choosing each move, in milliseconds.
+     */
+    public MonteCarloMovePicker(int threads, long millisPerMove) {
+        this(threads, millisPerMove, new Random());
+    }
+
+
+    /**
+     * Constructs a move picker with the specified number of worker threads and time budget,
+     * whose workers are seeded from the specified random number generator. Seeding makes the
+     * playouts repeatable, though the moves chosen still depend on how many playouts fit in the
+     * time budget.
+     *
+     * @param threads the number of threads that run playouts.
+     * @param millisPerMove how long to search before choosing each move, in milliseconds.
+     * @param seeds the source of the seed for each worker's random number generator.
+     */
+    public MonteCarloMovePicker(int threads, long millisPerMove, Random seeds) {
+        this(threads, millisPerMove, seeds, DEFAULT_MAX_NODES);
+    }
+
+
+    /**
+     * Constructs a move picker with the specified number of worker threads, time budget and
+     * tree size, whose workers are seeded from the specified random number generator.
+     *
+     * @param threads the number of threads that run playouts.
+     * @param millisPerMove how long to search before choosing each move, in milliseconds.
+     * @param seeds the source of the seed for each worker's random number generator.
+     * @param maxNodes the most nodes each worker's tree may hold.
+     */
+    public MonteCarloMovePicker(int threads, long millisPerMove, Random seeds, int maxNodes) {
+        if(threads < 1){
+            throw new IllegalArgumentException(String.format("Cannot search with %d threads.", threads));
+        }
+        if(millisPerMove < 1){
+            throw new IllegalArgumentException(String.format("%d ms is not a valid time budget.", millisPerMove));
+        }
+        if(maxNodes < 1){
+            throw new IllegalArgumentException(String.format("A tree of %d nodes is too small.", maxNodes));
+        }
+
+        this.millisPerMove = millisPerMove;
+        //Idle threads stop after a while, so a picker that is dropped without being shut down
+        //doesn't keep them
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, IDLE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "MonteCarloMovePicker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        this.workerPool = pool;
+
+        this.workers = new Worker[threads];
+        for(int i = 0; i < threads; i++){
+            workers[i] = new Worker(new Random(seeds.nextLong()), maxNodes);
+        }
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, Player computer) {
+        return chooseMove(gameBoard, TicTocToeGame.DEFAULT_WIN_LENGTH, computer);
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, int winLength, Player computer) {
+        return chooseMove(gameBoard, winLength, computer, System.nanoTime() + millisPerMove * 1_000_000L);
+    }
+
+
+    @Override
+    public int chooseMove(SearchPosition position, long deadline) {
+        return chooseMove(position.toBoard(), position.getWinLength(), position.getSideToMove(), deadline);
+    }
+
+
+    private synchronized int chooseMove(Player[][] gameBoard, int winLength, Player computer, long deadline) {
+        int rows = gameBoard.length;
+        int cols = gameBoard[0].length;
+        byte[] cells = readBoard(gameBoard, computer);
+
+        int emptyCells = 0;
+        for(byte cell : cells){
+            if(cell == EMPTY){
+                emptyCells++;
+            }
+        }
+        if(emptyCells == 0){
+            playoutsLastMove = 0;
+            treesReusedLastMove = false;
+            treeNodesLastMove = 0;
+            return Move.NONE;
+        }
+
+
+        int opponentMove = findOpponentReply(cells, rows, cols, winLength, computer);
+        treesReusedLastMove = (opponentMove != -1);
+        for(Worker worker : workers){
+            worker.prepare(cells, rows, cols, winLength, opponentMove);
+        }
+
+
+        //Run every worker until the deadline
+        stopRequested.set(false);
+        List<Future<Long>> results = new ArrayList<>();
+        for(Worker worker : workers){
+            results.add(workerPool.submit(() -> worker.search(deadline, stopRequested)));
+        }
+
+        playoutsLastMove = awaitWorkers(results);
+
+        treeNodesLastMove = 0;
+        for(Worker worker : workers){
+            treeNodesLastMove = Math.max(treeNodesLastMove, worker.nodeCount);
+        }
+
+
+        int move = mostVisitedMove(cells.length);
+        for(Worker worker : workers){
+            worker.advanceRoot(move);
+        }
+
+        lastRootCells = cells;
+        lastRows = rows;
+        lastCols = cols;
+        lastWinLength = winLength;
+        lastComputer = computer;
+        lastChosenMove = move;
+
+        return Move.of(move / cols, move % cols);
+    }
+
+
+    /**
+     * Waits for every worker to finish searching. If the calling thread is interrupted, the
+     * workers are told to stop, and this still waits for them so that no worker is touching
+     * its tree when the move is chosen. The thread is left interrupted.
+     *
+     * @return the total number of playouts the workers ran.
+     */
+    private long awaitWorkers(List<Future<Long>> results){
+        boolean interrupted = false;
+        long playouts = 0;
+
+        for(Future<Long> result : results){
+            while(true){
+                try {
+                    playouts += result.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    stopRequested.set(true);
+                } catch (ExecutionException e) {
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        }
+
+        if(interrupted){
+            Thread.currentThread().interrupt();
+        }
+        return playouts;
+    }
+
+
+    /**
+     * Returns the total number of playouts all workers ran while choosing the most recent move.
+     *
+     * @return the number of playouts run for the last move.
+     */
+    public synchronized long getPlayoutsLastMove() {
+        return playoutsLastMove;
+    }
+
+
+    /**
+     * Returns the number of nodes in the biggest worker tree when the most recent move was
+     * chosen, which is never more than the most the trees may hold.
+     *
+     * @return the size of the biggest tree after the last move was searched.
+     */
+    public synchronized int getTreeNodesLastMove() {
+        return treeNodesLastMove;
+    }
+
+
+    @Override
+    public synchronized long getNodesLastMove() {
+        return playoutsLastMove;
+    }
+
+
+    /**
+     * Returns 1 if the search trees from the previous move were carried over to the most recent
+     * move, and 0 if it had to start from new trees.
+     *
+     * @return the number of times the trees were reused for the last move.
+     */
+    @Override
+    public synchronized long getCacheHitsLastMove() {
+        return treesReusedLastMove ? 1 : 0;
+    }
+
+
+    //The trees are checked for reuse once per move
+    @Override
+    public synchronized long getCacheLookupsLastMove() {
+        return 1;
+    }
+
+
+    /**
+     * Stops the worker threads. The move picker can't be used after this is called.
+     */
+    @Override
+    public void shutdown() {
+        workerPool.shutdownNow();
+    }
+
+
+    /**
+     * Copies the game board into a flat array of cells, marking each cell as empty, taken by
+     * the computer or taken by its opponent.
+     */
+    private static byte[] readBoard(Player[][] gameBoard, Player computer){
+        int cols = gameBoard[0].length;
+        byte[] cells = new byte[gameBoard.length * cols];
+
+        for(int i = 0; i < gameBoard.length; i++){
+            for(int j = 0; j < cols; j++){
+                Player value = gameBoard[i][j];
+                if(value == Player.X || value == Player.O){
+                    cells[i * cols + j] = (value == computer ? COMPUTER : OPPONENT);
+                }
+            }
+        }
+
+        return cells;
+    }
+
+
+    /**
+     * Checks if the specified position is the position last searched with the move that was
+     * chosen and exactly one opponent move added. If it is, the trees can be reused.
+     *
+     * @return the cell the opponent went in, or -1 if the trees can't be reused.
+     */
+    private int findOpponentReply(byte[] cells, int rows, int cols, int winLength, Player computer){
+        if(lastRootCells == null || rows != lastRows || cols != lastCols
+                || winLength != lastWinLength || computer != lastComputer){
+            return -1;
+        }
+
+
+        int opponentMove = -1;
+
+        for(int cell = 0; cell < cells.length; cell++){
+            if(cells[cell] == lastRootCells[cell]){
+                continue;
+            }
+
+            if(cell == lastChosenMove && cells[cell] == COMPUTER){
+                continue;
+            }
+            if(opponentMove == -1 && lastRootCells[cell] == EMPTY && cells[cell] == OPPONENT){
+                opponentMove = cell;
+                continue;
+            }
+
+            return -1;
+        }
+
+        if(cells[lastChosenMove] != COMPUTER){
+            return -1;
+        }
+
+        return opponentMove;
+    }
+
+
+    /**
+     * Adds up the visits of each move at the top of every worker's tree and returns the move
+     * that was visited the most.
+     */
+    private int mostVisitedMove(int cellCount){
+        long[] visits = new long[cellCount];
+
+        for(Worker worker : workers){
+            Node root = worker.root;
+            for(int i = 0; i < root.childCount; i++){
+                visits[root.children[i].move] += root.children[i].visits;
+            }
+        }
+
+
+        int bestMove = -1;
+        for(int cell = 0; cell < cellCount; cell++){
+            if(workers[0].rootCells[cell] != EMPTY){
+                continue;
+            }
+            if(bestMove == -1 || visits[cell] > visits[bestMove]){
+                bestMove = cell;
+            }
+        }
+
+        return bestMove;
+    }
+
+
+
+
+
+
+    /****       Inner Classes       ****/
+
+
+    /**
+     * A position in a search tree. Wins are counted for the player who made the move leading to
+     * this node, with draws counting as half a win.
+     */
+    private static final class Node {
+        final int move;
+        final byte player;
+        final boolean terminal;
+        Node parent;
+
+        int[] untriedMoves = null;
+        int untriedCount = -1;
+        Node[] children = null;
+        int childCount = 0;
+
+        long visits = 0;
+        double wins = 0;
+
+
+        Node(Node parent, int move, byte player, boolean terminal){
+            this.parent = parent;
+            this.move = move;
+            this.player = player;
+            this.terminal = terminal;
+        }
+
+
+        Node findChild(int move){
+            for(int i = 0; i < childCount; i++){
+                if(children[i].move == move){
+                    return children[i];
+                }
+            }
+
+            return null;
+        }
+    }
+
+
+    /**
+     * Grows one search tree. Each worker is only ever used by one thread at a time, so nothing in
+     * it needs to be synchronized.
+     */
+    private static final class Worker {
+        private final Random random;
+        private final int maxNodes;
+
+        private Node root;
+        private byte[] rootCells;
+        private int rows;
+        private int cols;
+        private int winLength;
+        private int nodeCount;
+
+        //Scratch space reused by every playout
+        private byte[] cells;
+        private int[] emptyCells;
+
+
+        Worker(Random random, int maxNodes){
+            this.random = random;
+            this.maxNodes = maxNodes;
+        }
+
+
+        /**
+         * Sets the position to search from. If the opponent's reply is known and both it and
+         * the move chosen last time are in the tree, the search continues from that part of the
+         * tree.
+         */
+        void prepare(byte[] position, int rows, int cols, int winLength, int opponentMove){
+            Node reused = null;
+            if(opponentMove != -1 && root != null){
+                reused = root.findChild(opponentMove);
+            }
+
+            this.rows = rows;
+            this.cols = cols;
+            this.winLength = winLength;
+            this.rootCells = position.clone();
+
+            if(cells == null || cells.length != position.length){
+                cells = new byte[position.length];
+                emptyCells = new int[position.length];
+            }
+
+            if(reused != null && !reused.terminal){
+                reused.parent = null;
+                root = reused;
+                nodeCount = countNodes(reused);
+            }
+            else{
+                root = new Node(null, -1, OPPONENT, false);
+                nodeCount = 1;
+            }
+        }
+
+
+        /**
+         * Moves the root of the tree to the move that was chosen, so the tree can be reused on
+         * the next move.
+         */
+        void advanceRoot(int move){
+            Node child = root.findChild(move);
+
+            if(child == null){
+                root = null;
+                return;
+            }
+
+            child.parent = null;
+            root = child;
+        }
+
+
+        /**
+         * Runs playouts until the deadline, or until told to stop.
+         *
+         * @param deadline the value of System.nanoTime() to stop at.
+         * @param stop set to stop before the deadline.
+         * @return the number of playouts that were run.
+         */
+        long search(long deadline, AtomicBoolean stop){
+            long playouts = 0;
+
+            do {
+                runPlayout();
+                playouts++;
+            } while(System.nanoTime() - deadline < 0 && !stop.get());
+
+            return playouts;
+        }
+
+
+        /**
+         * Runs one round of selection, expansion, random playout and backpropagation.
+         */
+        private void runPlayout(){
+            System.arraycopy(rootCells, 0, cells, 0, cells.length);
+            Node node = root;
+
+
+            //Selection: follow the best child while every move of the node has been tried
+            while(!node.terminal && node.untriedCount == 0){
+                node = selectChild(node);
+                cells[node.move] = node.player;
+            }
+
+
+            //Expansion: add one untried move to the tree, unless the tree is full
+            if(!node.terminal && nodeCount < maxNodes){
+                if(node.untriedCount == -1){
+                    initializeUntriedMoves(node);
+                }
+
+                int pick = random.nextInt(node.untriedCount);
+                int move = node.untriedMoves[pick];
+                node.untriedMoves[pick] = node.untriedMoves[--node.untriedCount];
+                if(node.untriedCount == 0){
+                    node.untriedMoves = null;
+                }
+
+                byte player = (node.player == COMPUTER ? OPPONENT : COMPUTER);
+                cells[move] = player;
+                //The new position is full if this was the last empty cell of the parent
+                boolean terminal = WinLines.completesLine(cells, rows, cols, winLength, move) || node.children.length == 1;
+
+                Node child = new Node(node, move, player, terminal);
+                node.children[node.childCount++] = child;
+                nodeCount++;
+                node = child;
+            }
+
+
+            //Simulation: play random moves until the game ends
+            byte winner = playRandomGame(node);
+
+
+            //Backpropagation
+            for(Node current = node; current != null; current = current.parent){
+                current.visits++;
+                if(winner == current.player){
+                    current.wins += 1;
+                }
+                else if(winner == EMPTY){
+                    current.wins += 0.5;
+                }
+            }
+        }
+
+
+        /**
+         * Counts the nodes in the tree below and including the specified node.
+         */
+        private static int countNodes(Node top){
+            int count = 0;
+            ArrayDeque<Node> pending = new ArrayDeque<>();
+            pending.push(top);
+
+            while(!pending.isEmpty()){
+                Node node = pending.pop();
+                count++;
+                for(int i = 0; i < node.childCount; i++){
+                    pending.push(node.children[i]);
+                }
+            }
+
+            return count;
+        }
+
+
+        private void initializeUntriedMoves(Node node){
+            int count = 0;
+            for(int cell = 0; cell < cells.length; cell++){
+                if(cells[cell] == EMPTY){
+                    emptyCells[count++] = cell;
+                }
+            }
+
+            node.untriedMoves = new int[count];
+            System.arraycopy(emptyCells, 0, node.untriedMoves, 0, count);
+            node.untriedCount = count;
+            node.children = new Node[count];
+        }
+
+
+        /**
+         * Picks the child with the best upper confidence bound.
+         */
+        private Node selectChild(Node node){
+            double logVisits = Math.log(node.visits);
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+
+            for(int i = 0; i < node.childCount; i++){
+                Node child = node.children[i];
+                double value = child.wins / child.visits
+                        + EXPLORATION * Math.sqrt(logVisits / child.visits);
+
+                if(value > bestValue){
+                    bestValue = value;
+                    best = child;
+                }
+            }
+
+            return best;
+        }
+
+
+        /**
+         * Plays random moves from the position of the specified node until someone wins or the
+         * board fills up.
+         *
+         * @return the player who won, or EMPTY for a draw.
+         */
+        private byte playRandomGame(Node node){
+            if(node.terminal){
+                return (WinLines.completesLine(cells, rows, cols, winLength, node.move) ? node.player : EMPTY);
+            }
+
+
+            int count = 0;
+            for(int cell = 0; cell < cells.length; cell++){
+                if(cells[cell] == EMPTY){
+                    emptyCells[count++] = cell;
+                }
+            }
+
+            byte player = node.player;
+            while(count > 0){
+                player = (player == COMPUTER ? OPPONENT : COMPUTER);
+
+                int pick = random.nextInt(count);
+                int move = emptyCells[pick];
+                emptyCells[pick] = emptyCells[--count];
+
+                cells[move] = player;
+                if(WinLines.completesLine(cells, rows, cols, winLength, move)){
+                    return player;
+                }
+            }
+
+            return EMPTY;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * Moves are passed around as a single int with the row in the upper 16 bits and the column in
+ * the lower 16 bits, so choosing and taking a move never allocates. This class packs and
+ * unpacks them.
+ */
+public final class Move {
+    //Returned instead of a move when no move was chosen or taken
+    public static final int NONE = -1;
+
+
+    private Move() {
+    }
+
+
+    /**
+     * Packs a position on the board into a move.
+     *
+     * @param row the row of the move.
+     * @param col the column of the move.
+     * @return the packed move.
+     */
+    public static int of(int row, int col) {
+        return (row << 16) | col;
+    }
+
+
+    /**
+     * Returns the row of a packed move.
+     *
+     * @param move the packed move.
+     * @return the row of the move.
+     */
+    public static int row(int move) {
+        return move >>> 16;
+    }
+
+
+    /**
+     * Returns the column of a packed move.
+     *
+     * @param move the packed move.
+     * @return the column of the move.
+     */
+    public static int col(int move) {
+        return move & 0xFFFF;
+    }
+
+
+    /**
+     * Describes a packed move for logs and error messages.
+     *
+     * @param move the packed move.
+     * @return the move as "(row, col)", or "none" for NONE.
+     */
+    public static String toString(int move) {
+        return (move == NONE ? "none" : String.format("(%d, %d)", row(move), col(move)));
+    }
+}
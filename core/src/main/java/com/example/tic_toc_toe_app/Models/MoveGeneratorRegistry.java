@@ -0,0 +1,163 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+
+/**
+ * Maps each kind of {@link ComputerMoveGenerator ComputerMoveGenerator} to a small number, so a
+ * saved game can record which generator it was using and get a new one back when it is
+ * restored, without any reflection.
+ *
+ * A registry is made with a {@link Builder Builder} and can't be changed afterwards, so one
+ * registry can be shared by every thread that saves, restores or records games.
+ */
+public final class MoveGeneratorRegistry {
+    public static final int NO_GENERATOR = 0;
+    public static final int MEDIUM = 1;
+    public static final int HARD = 2;
+    public static final int OPTIMAL_MOVE_TABLE = 3;
+    public static final int MONTE_CARLO = 4;
+    public static final int ITERATIVE_DEEPENING = 5;
+    public static final int PARALLEL_ALPHA_BETA = 6;
+    public static final int THREAT_SEARCH = 7;
+
+    private static final int MAX_ID = 255;
+
+    private static final MoveGeneratorRegistry DEFAULT_REGISTRY = new Builder()
+            .register(MEDIUM, MediumDifficultyMovePicker.class, MediumDifficultyMovePicker::new)
+            .register(HARD, HardDifficultyMovePicker.class, HardDifficultyMovePicker::new)
+            .register(OPTIMAL_MOVE_TABLE, OptimalMoveTableMovePicker.class, OptimalMoveTableMovePicker::new)
+            .register(MONTE_CARLO, MonteCarloMovePicker.class, MonteCarloMovePicker::new)
+            .register(ITERATIVE_DEEPENING, IterativeDeepeningMovePicker.class, IterativeDeepeningMovePicker::new)
+            .register(PARALLEL_ALPHA_BETA, ParallelAlphaBetaMovePicker.class, ParallelAlphaBetaMovePicker::new)
+            .register(THREAT_SEARCH, ThreatSearchMovePicker.class, ThreatSearchMovePicker::new)
+            .build();
+
+    private final Map<Class<?>, Integer> idsByType;
+    private final Map<Integer, Supplier<? extends ComputerMoveGenerator>> factoriesById;
+
+
+    private MoveGeneratorRegistry(Builder builder) {
+        this.idsByType = Collections.unmodifiableMap(new HashMap<>(builder.idsByType));
+        this.factoriesById = Collections.unmodifiableMap(new HashMap<>(builder.factoriesById));
+    }
+
+
+    /**
+     * Returns the registry of every generator in this package.
+     *
+     * @return the default registry.
+     */
+    public static MoveGeneratorRegistry defaultRegistry(){
+        return DEFAULT_REGISTRY;
+    }
+
+
+    /**
+     * Checks if a generator's class is registered.
+     *
+     * @param generator the generator.
+     * @return true if {@link #idOf idOf} will find an id for it.
+     */
+    public boolean isRegistered(ComputerMoveGenerator generator){
+        return generator != null && idsByType.containsKey(generator.getClass());
+    }
+
+
+    /**
+     * Returns the id a generator is registered under.
+     *
+     * @param generator the generator, or null.
+     * @return the generator's id, or NO_GENERATOR if the generator is null.
+     * @throws IllegalArgumentException if the generator's class is not registered.
+     */
+    public int idOf(ComputerMoveGenerator generator){
+        if(generator == null){
+            return NO_GENERATOR;
+        }
+
+        Integer id = idsByType.get(generator.getClass());
+        if(id == null){
+            throw new IllegalArgumentException(
+                    String.format("%s is not registered.", generator.getClass().getSimpleName()));
+        }
+
+        return id;
+    }
+
+
+    /**
+     * Creates a new generator of the kind registered under the specified id.
+     *
+     * @param id the id of the generator.
+     * @return a new generator, or null if the id is NO_GENERATOR.
+     * @throws IllegalArgumentException if nothing is registered under the id.
+     */
+    public ComputerMoveGenerator create(int id){
+        if(id == NO_GENERATOR){
+            return null;
+        }
+
+        Supplier<? extends ComputerMoveGenerator> factory = factoriesById.get(id);
+        if(factory == null){
+            throw new IllegalArgumentException(String.format("No generator is registered with id %d.", id));
+        }
+
+        return factory.get();
+    }
+
+
+
+
+
+
+    /****       Inner Classes       ****/
+
+
+    /**
+     * Collects the generators for a new registry.
+     */
+    public static final class Builder {
+        private final Map<Class<?>, Integer> idsByType = new HashMap<>();
+        private final Map<Integer, Supplier<? extends ComputerMoveGenerator>> factoriesById = new HashMap<>();
+
+
+        /**
+         * Adds a kind of generator to the registry being built.
+         *
+         * @param id the number saved games will use for this generator, from 1 to 255.
+         * @param type the class of the generator.
+         * @param factory creates a new generator of this kind when a game is restored.
+         * @return this builder, so calls can be chained.
+         * @throws IllegalArgumentException if the id is out of range or already used, or the
+         *                                  class is already registered.
+         */
+        public <T extends ComputerMoveGenerator> Builder register(int id, Class<T> type, Supplier<? extends T> factory){
+            if(id <= NO_GENERATOR || id > MAX_ID){
+                throw new IllegalArgumentException(String.format("%d is not a valid generator id.", id));
+            }
+            if(factoriesById.containsKey(id) || idsByType.containsKey(type)){
+                throw new IllegalArgumentException(
+                        String.format("%s or id %d is already registered.", type.getSimpleName(), id));
+            }
+
+            idsByType.put(type, id);
+            factoriesById.put(id, factory);
+            return this;
+        }
+
+
+        /**
+         * Makes a registry of the generators added so far. The builder can go on being used
+         * without changing the registry.
+         *
+         * @return the new registry.
+         */
+        public MoveGeneratorRegistry build(){
+            return new MoveGeneratorRegistry(this);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+
+/**
+ * A book of opening moves written by an {@link OpeningBookBuilder OpeningBookBuilder}, for one
+ * board shape. The book is a file of fixed-size entries sorted by a 64 bit key of the position,
+ * each giving the move to play there and how many games it was played in. The file is mapped
+ * into memory and searched with a binary search, so a lookup reads O(log n) entries and never
+ * allocates, and the book can be shared between threads.
+ *
+ * The book starts with a 16 byte header: the magic number "TTTB", a version byte, the rows,
+ * columns and win length, 4 unused bytes, and the number of entries as an int. Each entry is the
+ * position key as a long, the cell (row * columns + col) to play as an int, and the number of
+ * games as an int.
+ */
+public class OpeningBook implements Closeable {
+    public static final int NO_MOVE = -1;
+
+    static final int MAGIC = ('T' << 24) | ('T' << 16) | ('T' << 8) | 'B';
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 16;
+    static final int HEADER_VERSION = 4;
+    static final int HEADER_ROWS = 5;
+    static final int HEADER_COLS = 6;
+    static final int HEADER_WIN_LENGTH = 7;
+    static final int HEADER_ENTRY_COUNT = 12;
+
+    static final int ENTRY_SIZE = 16;
+    static final int ENTRY_CELL = 8;
+    static final int ENTRY_GAMES = 12;
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer entries;
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+    private final int entryCount;
+
+
+    /**
+     * Opens a book and maps it into memory.
+     *
+     * @param bookFile the book file.
+     * @throws IOException if the file can't be read or is not an opening book.
+     */
+    public OpeningBook(File bookFile) throws IOException {
+        this.file = new RandomAccessFile(bookFile, "r");
+
+        try {
+            FileChannel channel = file.getChannel();
+            if(channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE){
+                throw new IOException("Not an opening book.");
+            }
+
+            this.entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(entries.getInt(0) != MAGIC || entries.get(HEADER_VERSION) != VERSION){
+                throw new IOException("Not an opening book.");
+            }
+
+            this.rows = entries.get(HEADER_ROWS) & 0xFF;
+            this.cols = entries.get(HEADER_COLS) & 0xFF;
+            this.winLength = entries.get(HEADER_WIN_LENGTH) & 0xFF;
+            this.entryCount = entries.getInt(HEADER_ENTRY_COUNT);
+            if(entryCount < 0 || HEADER_SIZE + (long) entryCount * ENTRY_SIZE != channel.size()){
+                throw new IOException(String.format("The book should have %d entries, but its size is wrong.", entryCount));
+            }
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Returns the key of a position in a book. It depends on which player has gone in each
+     * cell and whose turn it is, but not on the order the moves were made in. It is the key
+     * the position keeps up to date as moves are made, so this doesn't look at the board.
+     *
+     * @param position the position.
+     * @return the position's key.
+     */
+    public static long positionKey(SearchPosition position) {
+        return position.getKey();
+    }
+
+
+    /**
+     * Returns the key of a position in a book, the same as
+     * {@link #positionKey(SearchPosition) positionKey} would.
+     *
+     * @param gameBoard the board, with null for empty cells.
+     * @param sideToMove the player whose turn it is.
+     * @return the position's key.
+     */
+    public static long positionKey(Player[][] gameBoard, Player sideToMove) {
+        long key = sideToMove == Player.O ? ZobristKeys.O_TO_MOVE : 0;
+        int cols = gameBoard[0].length;
+
+        for(int i = 0; i < gameBoard.length; i++){
+            for(int j = 0; j < cols; j++){
+                if(gameBoard[i][j] == Player.X || gameBoard[i][j] == Player.O){
+                    key ^= ZobristKeys.cellKey(i * cols + j, gameBoard[i][j]);
+                }
+            }
+        }
+
+        return key;
+    }
+
+
+    public int getBoardRows() {
+        return rows;
+    }
+
+
+    public int getBoardColumns() {
+        return cols;
+    }
+
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+
+    public int getPositionCount() {
+        return entryCount;
+    }
+
+
+    /**
+     * Checks if the book was made for games of the specified shape.
+     *
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param winLength the number of symbols in a row needed to win.
+     * @return true if the book's moves apply to such games.
+     */
+    public boolean covers(int rows, int cols, int winLength) {
+        return this.rows == rows && this.cols == cols && this.winLength == winLength;
+    }
+
+
+    /**
+     * Looks up the move to play in a position.
+     *
+     * @param key the key of the position, from {@link #positionKey(SearchPosition) positionKey}.
+     * @return the cell (row * columns + col) to play, or NO_MOVE if the position isn't in the book.
+     */
+    public int lookup(long key) {
+        int entry = find(key);
+
+        return entry < 0 ? NO_MOVE : entries.getInt(HEADER_SIZE + entry * ENTRY_SIZE + ENTRY_CELL);
+    }
+
+
+    /**
+     * Returns the number of games the book's move for a position was played in when the book
+     * was built.
+     *
+     * @param key the key of the position.
+     * @return the number of games, or 0 if the position isn't in the book.
+     */
+    public int getGames(long key) {
+        int entry = find(key);
+
+        return entry < 0 ? 0 : entries.getInt(HEADER_SIZE + entry * ENTRY_SIZE + ENTRY_GAMES);
+    }
+
+
+    /**
+     * Binary searches the entries, which are sorted by key as signed longs.
+     *
+     * @return the number of the entry with the key, or -1 if there isn't one.
+     */
+    private int find(long key){
+        int low = 0;
+        int high = entryCount - 1;
+
+        while(low <= high){
+            int middle = (low + high) >>> 1;
+            long middleKey = entries.getLong(HEADER_SIZE + middle * ENTRY_SIZE);
+
+            if(middleKey < key){
+                low = middle + 1;
+            }
+            else if(middleKey > key){
+                high = middle - 1;
+            }
+            else{
+                return middle;
+            }
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Closes the file. The mapped memory is released once the book is garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
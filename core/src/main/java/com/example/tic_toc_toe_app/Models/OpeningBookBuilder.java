@@ -0,0 +1,229 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Collects the results of finished games into statistics for each move played in the first few
+ * moves of a game, and writes the best move found for each position to an
+ * {@link OpeningBook OpeningBook}. Games can be added from a
+ * {@link GameRecordReader game record log}, or the builder can be set as the
+ * {@link GameRecorder GameRecorder} of a model to collect games as they are played.
+ *
+ * A move's score is its wins plus half its draws, over the games it was played in, from the
+ * point of view of the player who made it. The book gets the highest scoring move in each
+ * position that was played in enough games.
+ */
+public class OpeningBookBuilder implements GameRecorder {
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+    private final int maxMoves;
+
+    //Statistics for each move, by position key and then by cell. Guarded by this.
+    private final Map<Long, Map<Integer, MoveStatistics>> positions = new HashMap<>();
+
+
+    /**
+     * Constructs an empty builder.
+     *
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param winLength the number of symbols in a row needed to win.
+     * @param maxMoves the number of moves at the start of each game to collect statistics for.
+     * @throws IllegalArgumentException if the board shape is invalid or maxMoves is negative.
+     */
+    public OpeningBookBuilder(int rows, int cols, int winLength, int maxMoves) {
+        GameState.checkBoardShape(rows, cols, winLength);
+        if(maxMoves < 0){
+            throw new IllegalArgumentException(String.format("%d is not a valid number of moves.", maxMoves));
+        }
+
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
+        this.maxMoves = maxMoves;
+    }
+
+
+    /**
+     * Adds a game played on a model that uses this builder as its recorder.
+     *
+     * @param game the finished game.
+     * @param computer ignored.
+     * @throws IllegalArgumentException if the game's board is not the shape of the book's.
+     */
+    @Override
+    public void gameFinished(GameState game, ComputerMoveGenerator computer) {
+        checkShape(game.getBoardRows(), game.getBoardColumns(), game.getWinLength());
+
+        int[] moves = new int[game.getMovesTaken()];
+        for(int i = 0; i < moves.length; i++){
+            moves[i] = game.getMove(i);
+        }
+
+        addGame(moves, moves.length, game.getWinner());
+    }
+
+
+    /**
+     * Adds every game in a game record log.
+     *
+     * @param log the log.
+     * @throws IllegalArgumentException if the log's board is not the shape of the book's.
+     */
+    public void addGames(GameRecordReader log) {
+        checkShape(log.getBoardRows(), log.getBoardColumns(), log.getWinLength());
+
+        int[] moves = new int[rows * cols];
+        for(int game = 0; game < log.getGameCount(); game++){
+            int moveCount = Math.min(log.getMoveCount(game), maxMoves);
+
+            for(int i = 0; i < moveCount; i++){
+                moves[i] = log.getMove(game, i);
+            }
+
+            addGame(moves, moveCount, log.getWinner(game));
+        }
+    }
+
+
+    private void checkShape(int rows, int cols, int winLength){
+        if(rows != this.rows || cols != this.cols || winLength != this.winLength){
+            throw new IllegalArgumentException(String.format(
+                    "A %dx%d game with a win length of %d can't be added to a book for %dx%d games with a win length of %d.",
+                    rows, cols, winLength, this.rows, this.cols, this.winLength));
+        }
+    }
+
+
+    /**
+     * Replays the start of a game, adding its result to the statistics of each move.
+     *
+     * @param moves the cells taken, in order.
+     * @param moveCount the number of moves to replay.
+     * @param winner the winner of the game, or NONE for a draw.
+     */
+    private synchronized void addGame(int[] moves, int moveCount, Player winner){
+        SearchPosition position = new SearchPosition(rows, cols, winLength);
+
+        for(int i = 0; i < Math.min(moveCount, maxMoves) && !position.isGameOver(); i++){
+            Player mover = position.getSideToMove();
+            MoveStatistics statistics = positions
+                    .computeIfAbsent(OpeningBook.positionKey(position), key -> new HashMap<>())
+                    .computeIfAbsent(moves[i], cell -> new MoveStatistics());
+
+            statistics.games++;
+            if(winner == mover){
+                statistics.wins++;
+            }
+            else if(winner == Player.NONE){
+                statistics.draws++;
+            }
+
+            position.makeMove(moves[i]);
+        }
+    }
+
+
+    /**
+     * Returns the number of positions statistics have been collected for.
+     *
+     * @return the number of positions.
+     */
+    public synchronized int getPositionCount() {
+        return positions.size();
+    }
+
+
+    /**
+     * Writes the book, replacing the file if it exists.
+     *
+     * @param bookFile the file to write the book to.
+     * @param minGames the fewest games a move must have been played in to go in the book.
+     * @return the number of positions written to the book.
+     * @throws IOException if the file can't be written.
+     */
+    public synchronized int write(File bookFile, int minGames) throws IOException {
+        long[] keys = new long[positions.size()];
+        int[] cells = new int[positions.size()];
+        int[] games = new int[positions.size()];
+        int entryCount = 0;
+
+        for(Map.Entry<Long, Map<Integer, MoveStatistics>> position : positions.entrySet()){
+            int bestCell = OpeningBook.NO_MOVE;
+            MoveStatistics best = null;
+
+            for(Map.Entry<Integer, MoveStatistics> move : position.getValue().entrySet()){
+                MoveStatistics statistics = move.getValue();
+
+                if(statistics.games >= minGames && (best == null || statistics.isBetterThan(best))){
+                    best = statistics;
+                    bestCell = move.getKey();
+                }
+            }
+
+            if(best != null){
+                keys[entryCount] = position.getKey();
+                cells[entryCount] = bestCell;
+                games[entryCount] = best.games;
+                entryCount++;
+            }
+        }
+
+
+        //Sort the entries by key. Each key is paired with its index so the cells follow.
+        Integer[] order = new Integer[entryCount];
+        for(int i = 0; i < entryCount; i++){
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(bookFile)))){
+            output.writeInt(OpeningBook.MAGIC);
+            output.writeByte(OpeningBook.VERSION);
+            output.writeByte(rows);
+            output.writeByte(cols);
+            output.writeByte(winLength);
+            output.writeInt(0);
+            output.writeInt(entryCount);
+
+            for(int entry : order){
+                output.writeLong(keys[entry]);
+                output.writeInt(cells[entry]);
+                output.writeInt(games[entry]);
+            }
+        }
+
+        return entryCount;
+    }
+
+
+    /**
+     * The results of the games a move was played in.
+     */
+    private static final class MoveStatistics {
+        int games;
+        int wins;
+        int draws;
+
+
+        /**
+         * Compares scores without dividing, by cross multiplying the two fractions. Ties go to
+         * the move played more often.
+         */
+        boolean isBetterThan(MoveStatistics other){
+            long score = (2L * wins + draws) * other.games;
+            long otherScore = (2L * other.wins + other.draws) * games;
+
+            return score != otherScore ? score > otherScore : games > other.games;
+        }
+    }
+}
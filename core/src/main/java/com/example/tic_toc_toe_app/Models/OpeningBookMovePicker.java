@@ -0,0 +1,168 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * Wraps another {@link ComputerMoveGenerator ComputerMoveGenerator} and plays the move from an
+ * {@link OpeningBook OpeningBook} whenever the position is in the book, only asking the wrapped
+ * generator once the game has left the book. On big boards this skips the searches at the start
+ * of the game, which are the most expensive since the board is at its emptiest.
+ *
+ * The book is only read, so one book can be shared by any number of move pickers and threads.
+ */
+public class OpeningBookMovePicker implements ComputerMoveGenerator, SearchStatistics {
+    private final OpeningBook book;
+    private final ComputerMoveGenerator generator;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    //What happened on the most recent move
+    private boolean lookedUpLastMove = false;
+    private boolean hitLastMove = false;
+
+
+    /**
+     * Constructs a move picker that consults a book before the wrapped generator.
+     *
+     * @param book the opening book. Games of other shapes than the book's go straight to the
+     *             wrapped generator.
+     * @param generator the generator used when the position is not in the book.
+     */
+    public OpeningBookMovePicker(OpeningBook book, ComputerMoveGenerator generator) {
+        this.book = book;
+        this.generator = generator;
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, Player computer) {
+        return chooseMove(gameBoard, TicTocToeGame.DEFAULT_WIN_LENGTH, computer);
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, int winLength, Player computer) {
+        int rows = gameBoard.length;
+        int cols = gameBoard[0].length;
+
+        lookedUpLastMove = book.covers(rows, cols, winLength);
+        if(lookedUpLastMove){
+            int cell = book.lookup(OpeningBook.positionKey(gameBoard, computer));
+
+            if(isOnBoard(cell, rows * cols) && gameBoard[cell / cols][cell % cols] == null){
+                hits++;
+                hitLastMove = true;
+                return Move.of(cell / cols, cell % cols);
+            }
+        }
+
+        misses++;
+        hitLastMove = false;
+        return generator.chooseMove(gameBoard, winLength, computer);
+    }
+
+
+    @Override
+    public int chooseMove(SearchPosition position) {
+        lookedUpLastMove = !position.isGameOver()
+                && book.covers(position.getRows(), position.getColumns(), position.getWinLength());
+        if(lookedUpLastMove){
+            int cell = book.lookup(OpeningBook.positionKey(position));
+
+            if(isOnBoard(cell, position.getRows() * position.getColumns()) && position.isEmpty(cell)){
+                hits++;
+                hitLastMove = true;
+                return Move.of(cell / position.getColumns(), cell % position.getColumns());
+            }
+        }
+
+        misses++;
+        hitLastMove = false;
+        return generator.chooseMove(position);
+    }
+
+
+    /**
+     * Checks that a cell from the book is on the board. A damaged book could hold any number, so
+     * a move that isn't is left to the wrapped generator like one that isn't in the book.
+     */
+    private static boolean isOnBoard(int cell, int cells){
+        return cell >= 0 && cell < cells;
+    }
+
+
+    //Anything the book doesn't cover goes to the wrapped generator
+    @Override
+    public boolean canPlay(int rows, int cols, int winLength) {
+        return generator.canPlay(rows, cols, winLength);
+    }
+
+
+    @Override
+    public void shutdown() {
+        generator.shutdown();
+    }
+
+
+    /**
+     * Returns the search done by the wrapped generator for the most recent move, which is none
+     * if the move came from the book.
+     *
+     * @return the wrapped generator's count, or 0 if it doesn't keep one.
+     */
+    @Override
+    public long getNodesLastMove() {
+        if(hitLastMove || !(generator instanceof SearchStatistics)){
+            return 0;
+        }
+
+        return ((SearchStatistics) generator).getNodesLastMove();
+    }
+
+
+    /**
+     * Returns the cache hits for the most recent move: the book hit if the move came from the
+     * book, or else the wrapped generator's own cache hits.
+     *
+     * @return the number of cache hits for the last move.
+     */
+    @Override
+    public long getCacheHitsLastMove() {
+        if(hitLastMove){
+            return 1;
+        }
+
+        return generator instanceof SearchStatistics ? ((SearchStatistics) generator).getCacheHitsLastMove() : 0;
+    }
+
+
+    @Override
+    public long getCacheLookupsLastMove() {
+        long lookups = (lookedUpLastMove ? 1 : 0);
+        if(!hitLastMove && generator instanceof SearchStatistics){
+            lookups += ((SearchStatistics) generator).getCacheLookupsLastMove();
+        }
+
+        return lookups;
+    }
+
+
+    /**
+     * Returns the number of moves that were found in the book.
+     *
+     * @return the number of book moves played.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+
+    /**
+     * Returns the number of moves that were passed on to the wrapped generator.
+     *
+     * @return the number of moves not found in the book.
+     */
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * Implementation of the {@link ComputerMoveGenerator ComputerMoveGenerator interface} that plays
+ * perfectly without doing any search at runtime. The best move for every reachable 3x3 position
+ * is computed when the app is built (see the generateOptimalMoveTable task in
+ * core/optimal-moves.gradle), so choosing a move is a single array lookup.
+ */
+public class OptimalMoveTableMovePicker implements ComputerMoveGenerator {
+    private static final String TABLE_RESOURCE = "optimal_moves.bin";
+    private static final int TABLE_SIZE = 19683; //3^9
+    private static final int NO_MOVE = -1;
+
+
+    //Only the standard 3x3 game
+    @Override
+    public boolean canPlay(int rows, int cols, int winLength) {
+        return ThreeByThreeBitboard.isStandardGame(rows, cols, winLength);
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, int winLength, Player computer) {
+        ThreeByThreeBitboard.checkWinLength(winLength);
+
+        return chooseMove(gameBoard, computer);
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, Player computer) {
+        Player human = (computer == Player.X ? Player.O : Player.X);
+
+        int mine = ThreeByThreeBitboard.maskOf(gameBoard, computer);
+        int theirs = ThreeByThreeBitboard.maskOf(gameBoard, human);
+
+        if((mine | theirs) == ThreeByThreeBitboard.FULL_BOARD){
+            return Move.NONE;
+        }
+
+
+        int move = TableHolder.TABLE[stateIndex(mine, theirs)];
+        if(move == NO_MOVE){
+            throw new IllegalArgumentException("The board is not a position that can be reached in a running game.");
+        }
+
+        return Move.of(move / ThreeByThreeBitboard.BOARD_COLS, move % ThreeByThreeBitboard.BOARD_COLS);
+    }
+
+
+    /**
+     * Computes the index of a position in the move table. Each cell is a base 3 digit: 0 if
+     * empty, 1 if taken by the player to move and 2 if taken by their opponent.
+     *
+     * @param mine the cells taken by the player to move.
+     * @param theirs the cells taken by the other player.
+     * @return the index of the position in the move table.
+     */
+    private static int stateIndex(int mine, int theirs){
+        int index = 0;
+        int placeValue = 1;
+
+        for(int cell = 0; cell < ThreeByThreeBitboard.BOARD_SIZE; cell++){
+            if((mine & (1 << cell)) != 0){
+                index += placeValue;
+            }
+            else if((theirs & (1 << cell)) != 0){
+                index += 2 * placeValue;
+            }
+
+            placeValue *= 3;
+        }
+
+        return index;
+    }
+
+
+    /**
+     * Loads the move table the first time it is needed.
+     */
+    private static class TableHolder {
+        static final byte[] TABLE = loadTable();
+
+
+        private static byte[] loadTable(){
+            byte[] table = new byte[TABLE_SIZE];
+
+            try(InputStream input = OptimalMoveTableMovePicker.class.getResourceAsStream(TABLE_RESOURCE)){
+                if(input == null){
+                    throw new IllegalStateException(TABLE_RESOURCE + " is missing from the build.");
+                }
+
+                new DataInputStream(input).readFully(table);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read " + TABLE_RESOURCE, e);
+            }
+
+            return table;
+        }
+    }
+}
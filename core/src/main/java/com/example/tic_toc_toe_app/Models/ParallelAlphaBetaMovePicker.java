@@ -0,0 +1,575 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Implementation of the {@link AnytimeMoveGenerator AnytimeMoveGenerator interface} that runs
+ * the same iterative deepening alpha-beta search as
+ * {@link IterativeDeepeningMovePicker IterativeDeepeningMovePicker}, split over several
+ * threads. It is meant for mid-size boards, from 4x4 to about 7x7, where a full-width search is
+ * still worth doing but one core can't get deep enough in time.
+ *
+ * The work is split at the root, young brothers wait style: at each depth the best move of the
+ * last depth is searched first on the calling thread, which gives a good alpha bound. The other
+ * root moves are then handed out one at a time to the calling thread and the threads of a
+ * ForkJoinPool. Whenever a thread finds a better move, it raises the shared alpha, and every
+ * root move started after that is searched with the tighter bound.
+ *
+ * Each thread searches its own copy of the position. The threads share the root bookkeeping and
+ * a {@link TranspositionTable TranspositionTable}, which needs no locking, so a position one
+ * thread has searched, whether through another move order or at the last depth, is looked up
+ * instead of searched again by any of them, and its best move is tried first. Like the serial
+ * picker, it stops at the deadline, or when the calling thread is interrupted, and plays the
+ * best move of the deepest search that finished.
+ */
+public class ParallelAlphaBetaMovePicker implements AnytimeMoveGenerator, SearchStatistics {
+    private static final long DEFAULT_MILLIS_PER_MOVE = 1000;
+    private static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+    //How often the clock is checked, as a mask of each thread's node count
+    private static final int CLOCK_CHECK_MASK = 255;
+
+    private static final int WIN = IterativeDeepeningMovePicker.WIN;
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final long millisPerMove;
+
+    //Shared by every searcher, and kept from move to move while the board shape stays the same
+    private final TranspositionTable table;
+    private int tableRows = 0;
+    private int tableCols = 0;
+    private int tableWinLength = 0;
+
+    //Runs every searcher but the first, which runs on the calling thread. Null if there is only
+    //one thread.
+    private final ForkJoinPool pool;
+    private final Searcher[] searchers;
+
+    //Shared by the searchers while a root move list is being searched
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
+    private final AtomicInteger nextRootMove = new AtomicInteger();
+    private final Object bestLock = new Object();
+    private volatile int alpha;
+    private int bestIndex; //guarded by bestLock
+
+    private int depthLastMove = 0;
+    private long nodesLastMove = 0;
+    private long tableHitsLastMove = 0;
+    private long tableLookupsLastMove = 0;
+
+
+    /**
+     * Constructs a move picker that searches with one thread per available processor and thinks
+     * for one second per move when no deadline is given.
+     */
+    public ParallelAlphaBetaMovePicker() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_MILLIS_PER_MOVE);
+    }
+
+
+    /**
+     * Constructs a move picker with the specified number of threads and time budget for moves
+     * chosen without a deadline, and a 16 MB transposition table.
+     *
+     * @param threads the number of threads that search, including the calling thread.
+     * @param millisPerMove how long to search before choosing each move, in milliseconds.
+     */
+    public ParallelAlphaBetaMovePicker(int threads, long millisPerMove) {
+        this(threads, millisPerMove, DEFAULT_TABLE_MEGABYTES);
+    }
+
+
+    /**
+     * Constructs a move picker with the specified number of threads, time budget for moves
+     * chosen without a deadline, and transposition table size.
+     *
+     * @param threads the number of threads that search, including the calling thread.
+     * @param millisPerMove how long to search before choosing each move, in milliseconds.
+     * @param tableMegabytes the most memory the transposition table may use, in megabytes.
+     */
+    public ParallelAlphaBetaMovePicker(int threads, long millisPerMove, int tableMegabytes) {
+        if(threads < 1){
+            throw new IllegalArgumentException(String.format("Cannot search with %d threads.", threads));
+        }
+        if(millisPerMove < 1){
+            throw new IllegalArgumentException(String.format("%d ms is not a valid time budget.", millisPerMove));
+        }
+
+        this.millisPerMove = millisPerMove;
+        this.table = new TranspositionTable(tableMegabytes);
+        this.pool = (threads > 1 ? new ForkJoinPool(threads - 1) : null);
+
+        this.searchers = new Searcher[threads];
+        for(int i = 0; i < threads; i++){
+            searchers[i] = new Searcher();
+        }
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, Player computer) {
+        return chooseMove(gameBoard, TicTocToeGame.DEFAULT_WIN_LENGTH, computer);
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, int winLength, Player computer) {
+        return chooseMove(SearchPosition.fromBoard(gameBoard, winLength, computer));
+    }
+
+
+    @Override
+    public int chooseMove(SearchPosition position) {
+        return chooseMove(position, System.nanoTime() + millisPerMove * 1_000_000L);
+    }
+
+
+    @Override
+    public int chooseMove(SearchPosition position, long deadline) {
+        return search(position, deadline, Integer.MAX_VALUE);
+    }
+
+
+    /**
+     * Chooses a move by searching exactly the specified number of moves ahead, however long
+     * that takes. The amount of work is then the same however many threads there are, which
+     * makes it the fair way to measure how the search speeds up with more threads.
+     *
+     * @param position the current position. It is left as it was found.
+     * @param depth the number of moves ahead to search.
+     * @return the best move found, or Move.NONE if the game is over.
+     */
+    public int chooseMoveAtDepth(SearchPosition position, int depth) {
+        if(depth < 1){
+            throw new IllegalArgumentException(String.format("Cannot search to depth %d.", depth));
+        }
+
+        return search(position, Long.MAX_VALUE, depth);
+    }
+
+
+    private synchronized int search(SearchPosition position, long deadline, int maxDepth){
+        if(position.isGameOver()){
+            depthLastMove = 0;
+            nodesLastMove = 0;
+            tableHitsLastMove = 0;
+            tableLookupsLastMove = 0;
+            return Move.NONE;
+        }
+
+        //Keys don't include the board shape, so results for another shape are thrown away. The
+        //table starts out empty, so there is nothing to throw away before the first search.
+        if(position.getRows() != tableRows || position.getColumns() != tableCols
+                || position.getWinLength() != tableWinLength){
+            if(tableRows != 0){
+                table.clear();
+            }
+            tableRows = position.getRows();
+            tableCols = position.getColumns();
+            tableWinLength = position.getWinLength();
+        }
+        table.newSearch();
+
+        int cellCount = position.getRows() * position.getColumns();
+        boolean hasDeadline = (deadline != Long.MAX_VALUE);
+        for(Searcher searcher : searchers){
+            searcher.prepare(position, cellCount, hasDeadline, deadline);
+        }
+
+        stopped.set(false);
+
+
+        int[] rootMoves = new int[cellCount];
+        int rootMoveCount = IterativeDeepeningMovePicker.generateMoves(position, rootMoves);
+        int emptyCells = cellCount - position.getMoveCount();
+        int completedDepth = 0;
+
+        for(int depth = 1; depth <= Math.min(emptyCells, maxDepth); depth++){
+            int score = searchRoot(rootMoves, rootMoveCount, depth);
+            if(stopped.get()){
+                break;
+            }
+
+            completedDepth = depth;
+
+            //A forced win or loss has been found, so searching deeper won't change the move
+            if(Math.abs(score) > WIN - cellCount){
+                break;
+            }
+        }
+
+
+        long nodes = 0;
+        long tableHits = 0;
+        long tableLookups = 0;
+        for(Searcher searcher : searchers){
+            nodes += searcher.nodes;
+            tableHits += searcher.tableHits;
+            tableLookups += searcher.tableLookups;
+        }
+
+        depthLastMove = completedDepth;
+        nodesLastMove = nodes;
+        tableHitsLastMove = tableHits;
+        tableLookupsLastMove = tableLookups;
+
+        //The best move of the last finished depth is always moved to the front. If not even
+        //depth 1 finished, this is just the first candidate.
+        int cell = rootMoves[0];
+        return Move.of(cell / position.getColumns(), cell % position.getColumns());
+    }
+
+
+    /**
+     * Searches every root move to the specified depth, the first one on the calling thread and
+     * then the rest on every thread. If the search finishes, the best move is swapped to the
+     * front of the list so the next depth searches it first.
+     *
+     * @return the score of the best move, which is meaningless if the search was stopped.
+     */
+    private int searchRoot(int[] moves, int moveCount, int depth){
+        Searcher caller = searchers[0];
+
+        int firstScore = caller.searchRootMove(moves[0], depth, -INFINITY);
+        if(stopped.get()){
+            return 0;
+        }
+
+        alpha = firstScore;
+        bestIndex = 0;
+        nextRootMove.set(1);
+
+
+        //The young brothers, searched in parallel with the bound the eldest one set
+        List<Future<?>> helpers = new ArrayList<>();
+        if(moveCount > 2){
+            for(int i = 1; i < searchers.length; i++){
+                Searcher searcher = searchers[i];
+                helpers.add(pool.submit(() -> searcher.searchRootMoves(moves, moveCount, depth)));
+            }
+        }
+
+        caller.searchRootMoves(moves, moveCount, depth);
+        awaitHelpers(helpers);
+
+        if(stopped.get()){
+            return 0;
+        }
+
+
+        int best = bestIndex;
+        int bestMove = moves[best];
+        System.arraycopy(moves, 0, moves, 1, best);
+        moves[0] = bestMove;
+
+        return alpha;
+    }
+
+
+    /**
+     * Waits for the pool threads to finish their root moves. If the calling thread is
+     * interrupted, the search is stopped, and this still waits for them so that none is
+     * touching the shared state when the move is chosen. The thread is left interrupted.
+     */
+    private void awaitHelpers(List<Future<?>> helpers){
+        boolean interrupted = false;
+
+        for(Future<?> helper : helpers){
+            while(true){
+                try {
+                    helper.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    stopped.set(true);
+                } catch (ExecutionException e) {
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        }
+
+        if(interrupted){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Records the score of a root move if it beats the best one so far.
+     */
+    private void offerRootScore(int index, int score){
+        synchronized (bestLock){
+            if(score > alpha){
+                alpha = score;
+                bestIndex = index;
+            }
+        }
+    }
+
+
+    /**
+     * Returns the depth of the deepest search that finished while choosing the most recent move.
+     *
+     * @return the number of moves ahead that were searched.
+     */
+    public synchronized int getDepthLastMove() {
+        return depthLastMove;
+    }
+
+
+    @Override
+    public synchronized long getNodesLastMove() {
+        return nodesLastMove;
+    }
+
+
+    @Override
+    public synchronized long getCacheHitsLastMove() {
+        return tableHitsLastMove;
+    }
+
+
+    @Override
+    public synchronized long getCacheLookupsLastMove() {
+        return tableLookupsLastMove;
+    }
+
+
+    /**
+     * Forgets every position in the transposition table, so the next search starts from
+     * nothing, as it would on a new game. For benchmarks that search the same position again
+     * and again.
+     */
+    synchronized void clearTable() {
+        table.clear();
+    }
+
+
+    /**
+     * Stops the pool threads. The move picker can't be used after this is called.
+     */
+    @Override
+    public void shutdown() {
+        if(pool != null){
+            pool.shutdownNow();
+        }
+    }
+
+
+
+
+
+
+    /**
+     * Turns a score into the form stored in the table. Win scores count the moves from the root,
+     * but a stored position can be reached at any ply, so they are stored counting from the
+     * position itself.
+     */
+    private static int toTableScore(int score, int ply){
+        if(score > WIN / 2){
+            return score + ply;
+        }
+        if(score < -WIN / 2){
+            return score - ply;
+        }
+
+        return score;
+    }
+
+
+    private static int fromTableScore(int score, int ply){
+        if(score > WIN / 2){
+            return score - ply;
+        }
+        if(score < -WIN / 2){
+            return score + ply;
+        }
+
+        return score;
+    }
+
+
+
+
+
+
+    /****       Inner Classes       ****/
+
+
+    /**
+     * One thread's share of the search, with its own copy of the position and its own move
+     * lists, so it can search without touching anything another thread is using.
+     */
+    private final class Searcher {
+        private SearchPosition position;
+        private int[][] moveLists = new int[0][];
+        private boolean hasDeadline;
+        private long deadline;
+        private long nodes;
+        private long tableHits;
+        private long tableLookups;
+
+
+        void prepare(SearchPosition root, int cellCount, boolean hasDeadline, long deadline){
+            this.position = root.copy();
+            this.hasDeadline = hasDeadline;
+            this.deadline = deadline;
+            this.nodes = 0;
+            this.tableHits = 0;
+            this.tableLookups = 0;
+
+            if(moveLists.length != cellCount + 1 || moveLists[0].length != cellCount){
+                moveLists = new int[cellCount + 1][cellCount];
+            }
+        }
+
+
+        /**
+         * Takes root moves off the shared list until there are none left, searching each with
+         * the shared alpha as it stands when the move is started.
+         */
+        void searchRootMoves(int[] moves, int moveCount, int depth){
+            for(int i = nextRootMove.getAndIncrement(); i < moveCount; i = nextRootMove.getAndIncrement()){
+                int bound = alpha;
+                int score = searchRootMove(moves[i], depth, bound);
+
+                if(stopped.get()){
+                    return;
+                }
+                if(score > bound){
+                    offerRootScore(i, score);
+                }
+            }
+        }
+
+
+        /**
+         * Scores one root move, from the point of view of the player making it.
+         *
+         * @param bound the score the move has to beat to matter.
+         * @return the score of the move, exact if it is above the bound.
+         */
+        int searchRootMove(int move, int depth, int bound){
+            position.makeMove(move);
+            int score = -negamax(depth - 1, 1, -INFINITY, -bound);
+            position.unmakeMove();
+
+            return score;
+        }
+
+
+        /**
+         * Scores the position from the point of view of the player to move. The same search as
+         * {@link IterativeDeepeningMovePicker IterativeDeepeningMovePicker}'s, except that it
+         * stops when any thread stops, and looks positions up in the shared table first.
+         */
+        private int negamax(int depth, int ply, int alpha, int beta){
+            if(position.getWinner() != Player.NONE){
+                return -(WIN - ply);
+            }
+            if(position.isDraw()){
+                return 0;
+            }
+            if((++nodes & CLOCK_CHECK_MASK) == 0 && timeIsUp()){
+                stopped.set(true);
+                return 0;
+            }
+            if(depth == 0){
+                return IterativeDeepeningMovePicker.evaluate(position);
+            }
+
+
+            long key = position.getKey();
+            long entry = table.probe(key);
+            int tableCell = SearchPosition.NO_MOVE;
+
+            tableLookups++;
+            if(entry != TranspositionTable.MISS){
+                tableHits++;
+                tableCell = TranspositionTable.cellOf(entry);
+
+                if(TranspositionTable.depthOf(entry) >= depth){
+                    int score = fromTableScore(TranspositionTable.scoreOf(entry), ply);
+                    int bound = TranspositionTable.boundOf(entry);
+
+                    if(bound == TranspositionTable.EXACT
+                            || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                            || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)){
+                        return score;
+                    }
+                }
+            }
+
+
+            int[] moves = moveLists[ply];
+            int moveCount = IterativeDeepeningMovePicker.generateMoves(position, moves);
+            searchFirst(moves, moveCount, tableCell);
+
+            int originalAlpha = alpha;
+            int best = -INFINITY;
+            int bestCell = SearchPosition.NO_MOVE;
+
+            for(int i = 0; i < moveCount; i++){
+                position.makeMove(moves[i]);
+                int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+                position.unmakeMove();
+
+                if(stopped.get()){
+                    return 0;
+                }
+                if(score > best){
+                    best = score;
+                    bestCell = moves[i];
+                }
+                if(score > alpha){
+                    alpha = score;
+                }
+                if(alpha >= beta){
+                    break;
+                }
+            }
+
+
+            int bound = (best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                    : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT);
+            table.store(key, toTableScore(best, ply), bound, depth, bestCell);
+
+            return best;
+        }
+
+
+        /**
+         * Swaps the best move the table knows of to the front of the list, if it is there.
+         */
+        private void searchFirst(int[] moves, int moveCount, int cell){
+            if(cell == SearchPosition.NO_MOVE){
+                return;
+            }
+
+            for(int i = 1; i < moveCount; i++){
+                if(moves[i] == cell){
+                    moves[i] = moves[0];
+                    moves[0] = cell;
+                    return;
+                }
+            }
+        }
+
+
+        /**
+         * Checks if the search should stop. Only the calling thread can see its own interrupt,
+         * so the pool threads find out about it through the stopped flag.
+         */
+        private boolean timeIsUp(){
+            return stopped.get() || (hasDeadline && System.nanoTime() - deadline >= 0)
+                    || Thread.currentThread().isInterrupted();
+        }
+    }
+}
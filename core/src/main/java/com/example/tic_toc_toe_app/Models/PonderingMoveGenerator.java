@@ -0,0 +1,25 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * A {@link ComputerMoveGenerator ComputerMoveGenerator} that can use the time while its opponent
+ * is thinking. The game model tells it whenever it becomes the opponent's turn, and again when
+ * the game ends.
+ */
+public interface PonderingMoveGenerator extends ComputerMoveGenerator {
+    /**
+     * Called when it becomes the opponent's turn. The generator may start working out its
+     * replies to the opponent's possible moves in the background. This must return quickly.
+     *
+     * @param gameBoard the board as the opponent sees it. The generator may keep this array.
+     * @param winLength the number of symbols in a row needed to win.
+     * @param computer the player that the generator will be picking moves for.
+     */
+    void ponder(Player[][] gameBoard, int winLength, Player computer);
+
+
+    /**
+     * Stops any background work started by {@link #ponder ponder} and forgets its results.
+     */
+    void stopPondering();
+}
@@ -0,0 +1,451 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+
+/**
+ * Wraps another {@link ComputerMoveGenerator ComputerMoveGenerator} and works out its replies in
+ * advance. While the opponent is thinking, the wrapped generator is asked for its reply to each
+ * move the opponent could make, one position at a time on a background thread. The moves
+ * nearest the last two moves are pondered first, since that is where the opponent usually
+ * answers. When the opponent's move arrives, the reply is usually already waiting.
+ *
+ * Given a deadline, a reply that is still being pondered is waited for until the deadline, and
+ * one that isn't pondered is worked out with the deadline passed on to the wrapped generator if
+ * it is an {@link AnytimeMoveGenerator AnytimeMoveGenerator}.
+ *
+ * The replies are only kept for the current turn. All calls to the wrapped generator are made
+ * on the one background thread, so it does not need to be thread safe.
+ */
+public class PonderingMovePicker implements PonderingMoveGenerator, AnytimeMoveGenerator, SearchStatistics {
+    private static final int DEFAULT_MAX_POSITIONS = 64;
+    private static final long IDLE_SECONDS = 30;
+
+    private final ComputerMoveGenerator generator;
+    private final int maxPositions;
+    private final ExecutorService ponderingThread;
+
+    //The position being pondered, and the reply to each opponent move keyed by the cell
+    //(row * cols + col) the opponent goes in. Guarded by this.
+    private Player[][] ponderedBoard = null;
+    private int ponderedWinLength;
+    private Player ponderedFor;
+    private final Map<Integer, Future<Integer>> replies = new HashMap<>();
+
+    //The cells of the opponent's last move and of the reply to it, or -1 if they aren't known.
+    //Guarded by this.
+    private int lastOpponentMove = -1;
+    private int lastReply = -1;
+
+    private long hits = 0;
+    private long misses = 0;
+    private boolean hitLastMove = false;
+
+    //The search done by the wrapped generator for the last reply worked out from scratch.
+    //Written on the background thread.
+    private volatile long nodesLastMove = 0;
+
+
+    /**
+     * Constructs a pondering move picker that ponders up to 64 opponent moves per turn, which
+     * covers every move on boards up to 8x8.
+     *
+     * @param generator the generator whose replies are worked out in advance.
+     */
+    public PonderingMovePicker(ComputerMoveGenerator generator) {
+        this(generator, DEFAULT_MAX_POSITIONS);
+    }
+
+
+    /**
+     * Constructs a pondering move picker.
+     *
+     * @param generator the generator whose replies are worked out in advance.
+     * @param maxPositions the largest number of opponent moves to ponder each turn. The ones
+     *                     nearest the last moves are pondered.
+     */
+    public PonderingMovePicker(ComputerMoveGenerator generator, int maxPositions) {
+        if(maxPositions < 0){
+            throw new IllegalArgumentException(String.format("Cannot ponder %d positions.", maxPositions));
+        }
+
+        this.generator = generator;
+        this.maxPositions = maxPositions;
+        //The thread stops while there is nothing to ponder, so a picker that is dropped without
+        //being shut down doesn't keep it
+        ThreadPoolExecutor thread = new ThreadPoolExecutor(1, 1, IDLE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread ponderer = new Thread(runnable, "PonderingMovePicker");
+            ponderer.setDaemon(true);
+            return ponderer;
+        });
+        thread.allowCoreThreadTimeOut(true);
+        this.ponderingThread = thread;
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, Player computer) {
+        return chooseMove(gameBoard, TicTocToeGame.DEFAULT_WIN_LENGTH, computer);
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, int winLength, Player computer) {
+        int move = replyTo(gameBoard, winLength, computer,
+                () -> generator.chooseMove(gameBoard, winLength, computer), false, 0);
+
+        if(move == Move.NONE && Thread.currentThread().isInterrupted()){
+            throw new RuntimeException(new InterruptedException());
+        }
+        return move;
+    }
+
+
+    /**
+     * Chooses a move by the deadline. If the calling thread is interrupted, the search is
+     * cancelled and the first empty cell is returned.
+     */
+    @Override
+    public int chooseMove(SearchPosition position, long deadline) {
+        //The position belongs to the caller, but is searched on the background thread
+        SearchPosition copy = position.copy();
+        Callable<Integer> search = (generator instanceof AnytimeMoveGenerator
+                ? () -> ((AnytimeMoveGenerator) generator).chooseMove(copy, deadline)
+                : () -> generator.chooseMove(copy));
+        Player[][] gameBoard = position.toBoard();
+
+        int move = replyTo(gameBoard, position.getWinLength(), position.getSideToMove(), search, true, deadline);
+
+        return move != Move.NONE ? move : firstEmptyCell(gameBoard);
+    }
+
+
+    /**
+     * Returns the pondered reply to the opponent's move if there is one, waiting until the
+     * deadline for it to finish, or else runs the search on the background thread.
+     *
+     * @return the move, or Move.NONE if the calling thread was interrupted. The thread is left
+     * interrupted.
+     */
+    private int replyTo(Player[][] gameBoard, int winLength, Player computer, Callable<Integer> search,
+                        boolean hasDeadline, long deadline){
+        Future<Integer> reply;
+        boolean pondered;
+
+        synchronized (this){
+            int opponentMove = findOpponentMove(gameBoard, winLength, computer);
+            reply = (opponentMove == -1 ? null : replies.remove(opponentMove));
+            pondered = (reply != null);
+            stopPondering();
+            lastOpponentMove = opponentMove;
+
+            if(!pondered){
+                misses++;
+                hitLastMove = false;
+                reply = ponderingThread.submit(() -> searchAndCount(search));
+            }
+            else{
+                hits++;
+                hitLastMove = true;
+            }
+        }
+
+
+        try {
+            int move;
+
+            if(pondered && hasDeadline){
+                move = awaitPonderedReply(reply, search, deadline);
+            }
+            else{
+                move = reply.get();
+            }
+
+            synchronized (this){
+                lastReply = (move == Move.NONE ? -1 : Move.row(move) * gameBoard[0].length + Move.col(move));
+            }
+            return move;
+        } catch (InterruptedException e) {
+            reply.cancel(true);
+            Thread.currentThread().interrupt();
+            return Move.NONE;
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+
+    /**
+     * Waits until the deadline for a pondered reply. A pondered search doesn't know the
+     * deadline, so if it hasn't finished by then it is stopped and the search is run again with
+     * the deadline, which for an anytime generator returns a quick shallow answer.
+     */
+    private int awaitPonderedReply(Future<Integer> reply, Callable<Integer> search, long deadline)
+            throws InterruptedException, ExecutionException {
+        try {
+            return reply.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            reply.cancel(true);
+
+            Future<Integer> rushed;
+            synchronized (this){
+                hits--;
+                misses++;
+                hitLastMove = false;
+                rushed = ponderingThread.submit(() -> searchAndCount(search));
+            }
+
+            try {
+                return rushed.get();
+            } catch (InterruptedException interrupted) {
+                rushed.cancel(true);
+                throw interrupted;
+            }
+        }
+    }
+
+
+    /**
+     * Runs a search for a move that is needed now, and remembers how much it searched.
+     */
+    private int searchAndCount(Callable<Integer> search) throws Exception {
+        int move = search.call();
+
+        nodesLastMove = (generator instanceof SearchStatistics
+                ? ((SearchStatistics) generator).getNodesLastMove() : 0);
+        return move;
+    }
+
+
+    @Override
+    public boolean canPlay(int rows, int cols, int winLength) {
+        return generator.canPlay(rows, cols, winLength);
+    }
+
+
+    @Override
+    public synchronized void ponder(Player[][] gameBoard, int winLength, Player computer) {
+        stopPondering();
+
+        ponderedBoard = gameBoard;
+        ponderedWinLength = winLength;
+        ponderedFor = computer;
+
+        Player opponent = (computer == Player.X ? Player.O : Player.X);
+        int cols = gameBoard[0].length;
+        int[] cells = emptyCellsNearestFirst(gameBoard);
+
+        for(int i = 0; i < cells.length && i < maxPositions; i++){
+            int cell = cells[i];
+            Player[][] afterMove = copyWithMove(gameBoard, cell / cols, cell % cols, opponent);
+
+            replies.put(cell, ponderingThread.submit(() -> generator.chooseMove(afterMove, winLength, computer)));
+        }
+    }
+
+
+    /**
+     * Lists the empty cells, the ones nearest the last two moves first. Cells as near as each
+     * other to them are ordered by how near they are to any taken cell, and then row by row.
+     * Distances are in king moves, so the 8 cells around a cell are 1 away.
+     *
+     * @return the cells (row * cols + col), in the order they should be pondered.
+     */
+    private int[] emptyCellsNearestFirst(Player[][] gameBoard){
+        int rows = gameBoard.length;
+        int cols = gameBoard[0].length;
+        int far = Math.max(rows, cols);
+
+        //The last moves only count if they are on this board
+        int[] lastMoves = new int[2];
+        int lastMoveCount = 0;
+        for(int cell : new int[]{lastReply, lastOpponentMove}){
+            if(cell >= 0 && cell < rows * cols && gameBoard[cell / cols][cell % cols] != null){
+                lastMoves[lastMoveCount++] = cell;
+            }
+        }
+
+        int[] taken = new int[rows * cols];
+        int takenCount = 0;
+        for(int cell = 0; cell < rows * cols; cell++){
+            if(gameBoard[cell / cols][cell % cols] != null){
+                taken[takenCount++] = cell;
+            }
+        }
+
+
+        //Each empty cell packed with its distances above it, so sorting orders by distance and
+        //then by cell
+        long[] sorted = new long[rows * cols - takenCount];
+        int count = 0;
+        for(int cell = 0; cell < rows * cols; cell++){
+            if(gameBoard[cell / cols][cell % cols] != null){
+                continue;
+            }
+
+            int fromLastMoves = nearest(cell, cols, lastMoves, lastMoveCount, far);
+            int fromTaken = nearest(cell, cols, taken, takenCount, far);
+            sorted[count++] = ((long) (fromLastMoves * (far + 1) + fromTaken) << 32) | cell;
+        }
+        Arrays.sort(sorted);
+
+        int[] cells = new int[count];
+        for(int i = 0; i < count; i++){
+            cells[i] = (int) sorted[i];
+        }
+
+        return cells;
+    }
+
+
+    /**
+     * Returns the distance in king moves from a cell to the nearest of the specified cells, or
+     * far if there are none.
+     */
+    private static int nearest(int cell, int cols, int[] others, int count, int far){
+        int distance = far;
+
+        for(int i = 0; i < count; i++){
+            int rowDistance = Math.abs(cell / cols - others[i] / cols);
+            int colDistance = Math.abs(cell % cols - others[i] % cols);
+            distance = Math.min(distance, Math.max(rowDistance, colDistance));
+        }
+
+        return distance;
+    }
+
+
+    @Override
+    public synchronized void stopPondering() {
+        for(Future<Integer> reply : replies.values()){
+            reply.cancel(true);
+        }
+
+        replies.clear();
+        ponderedBoard = null;
+    }
+
+
+    /**
+     * Returns how many times a reply was ready or in progress when it was asked for.
+     *
+     * @return the number of moves answered from pondering.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+
+    /**
+     * Returns how many times a reply had to be worked out from scratch.
+     *
+     * @return the number of moves not answered from pondering.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+
+    /**
+     * Returns the search done while the computer's move was being waited for. A pondered reply
+     * was worked out while the opponent was thinking, so it counts as none.
+     *
+     * @return the wrapped generator's count for the last move, or 0 if it was pondered.
+     */
+    @Override
+    public synchronized long getNodesLastMove() {
+        return hitLastMove ? 0 : nodesLastMove;
+    }
+
+
+    @Override
+    public synchronized long getCacheHitsLastMove() {
+        return hitLastMove ? 1 : 0;
+    }
+
+
+    //The pondered replies are looked in once per move
+    @Override
+    public long getCacheLookupsLastMove() {
+        return 1;
+    }
+
+
+    /**
+     * Stops the background thread, and the wrapped generator's threads. The move picker can't be
+     * used after this is called.
+     */
+    @Override
+    public void shutdown() {
+        ponderingThread.shutdownNow();
+        generator.shutdown();
+    }
+
+
+    /**
+     * Checks if the specified board is the pondered board with exactly one opponent move added.
+     *
+     * @return the cell (row * cols + col) the opponent went in, or -1 if it isn't.
+     */
+    private int findOpponentMove(Player[][] gameBoard, int winLength, Player computer){
+        if(ponderedBoard == null || winLength != ponderedWinLength || computer != ponderedFor
+                || gameBoard.length != ponderedBoard.length || gameBoard[0].length != ponderedBoard[0].length){
+            return -1;
+        }
+
+
+        int cols = gameBoard[0].length;
+        int opponentMove = -1;
+
+        for(int i = 0; i < gameBoard.length; i++){
+            for(int j = 0; j < cols; j++){
+                if(gameBoard[i][j] == ponderedBoard[i][j]){
+                    continue;
+                }
+                if(opponentMove != -1 || ponderedBoard[i][j] != null || gameBoard[i][j] == computer){
+                    return -1;
+                }
+
+                opponentMove = i * cols + j;
+            }
+        }
+
+        return opponentMove;
+    }
+
+
+    private static int firstEmptyCell(Player[][] gameBoard){
+        for(int i = 0; i < gameBoard.length; i++){
+            for(int j = 0; j < gameBoard[i].length; j++){
+                if(gameBoard[i][j] == null){
+                    return Move.of(i, j);
+                }
+            }
+        }
+
+        return Move.NONE;
+    }
+
+
+    private static Player[][] copyWithMove(Player[][] gameBoard, int row, int col, Player player){
+        Player[][] copy = new Player[gameBoard.length][];
+
+        for(int i = 0; i < gameBoard.length; i++){
+            copy[i] = gameBoard[i].clone();
+        }
+        copy[row][col] = player;
+
+        return copy;
+    }
+}
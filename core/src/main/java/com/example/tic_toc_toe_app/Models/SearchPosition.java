@@ -0,0 +1,401 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * A mutable board position for search algorithms to play moves forward and back on, without
+ * copying the board at each step. Moves are cell numbers (row * number of columns + col).
+ * {@link #makeMove makeMove} and {@link #unmakeMove unmakeMove} keep the winner and the draw
+ * state up to date as they go, and the empty cells can be walked with
+ * {@link #nextEmptyCell nextEmptyCell}, so searching does not allocate anything. They also keep
+ * a 64 bit Zobrist key of the position up to date, for transposition tables.
+ *
+ * A search position is not thread safe. Each search thread should use its own
+ * {@link #copy copy}.
+ */
+public final class SearchPosition {
+    public static final int NO_MOVE = -1;
+
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+    private final int cellCount;
+
+    //One bit per cell, set if the player has gone there
+    private final long[] xBits;
+    private final long[] oBits;
+
+    //The cells taken so far, in the order they were taken
+    private final int[] moves;
+    private int moveCount = 0;
+
+    //The number of moves the position was set up with, which can't be unmade
+    private int fixedMoves = 0;
+
+    private Player sideToMove = Player.X;
+    private Player winner = Player.NONE;
+
+    //The XOR of the ZobristKeys of every taken cell, and of O_TO_MOVE when it is O's turn
+    private long key = 0;
+
+
+    /**
+     * Constructs an empty position with X to move.
+     *
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param winLength the number of symbols in a row needed to win.
+     */
+    public SearchPosition(int rows, int cols, int winLength) {
+        if(rows < 1 || cols < 1 || rows > TicTocToeGameModel.MAX_BOARD_DIMENSION || cols > TicTocToeGameModel.MAX_BOARD_DIMENSION){
+            throw new IllegalArgumentException(
+                    String.format("%dx%d is not a valid board size.", rows, cols));
+        }
+        if(winLength < 1 || winLength > Math.max(rows, cols)){
+            throw new IllegalArgumentException(
+                    String.format("Cannot win with %d in a row on a %dx%d board.", winLength, rows, cols));
+        }
+
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
+        this.cellCount = rows * cols;
+        this.xBits = new long[(cellCount + 63) >>> 6];
+        this.oBits = new long[(cellCount + 63) >>> 6];
+        this.moves = new int[cellCount];
+    }
+
+
+    /**
+     * Constructs a position from a board in the 2D array form. Since the order the moves were
+     * taken in is not known, the moves already on the board can't be unmade.
+     *
+     * @param gameBoard the board, with null for empty cells.
+     * @param winLength the number of symbols in a row needed to win.
+     * @param sideToMove the player whose turn it is.
+     * @return the new position.
+     */
+    public static SearchPosition fromBoard(Player[][] gameBoard, int winLength, Player sideToMove) {
+        SearchPosition position = new SearchPosition(gameBoard.length, gameBoard[0].length, winLength);
+
+        for(int i = 0; i < position.rows; i++){
+            for(int j = 0; j < position.cols; j++){
+                if(gameBoard[i][j] == Player.X || gameBoard[i][j] == Player.O){
+                    position.place(i * position.cols + j, gameBoard[i][j]);
+                }
+            }
+        }
+
+        position.finishSetup(sideToMove);
+        return position;
+    }
+
+
+    /**
+     * Constructs a position from a pair of bitsets laid out the same way as this class's own.
+     * The bitsets are copied.
+     *
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param winLength the number of symbols in a row needed to win.
+     * @param xBits the cells taken by X.
+     * @param oBits the cells taken by O.
+     * @param sideToMove the player whose turn it is.
+     * @return the new position.
+     */
+    static SearchPosition fromBits(int rows, int cols, int winLength, long[] xBits, long[] oBits, Player sideToMove) {
+        SearchPosition position = new SearchPosition(rows, cols, winLength);
+
+        for(int word = 0; word < position.xBits.length; word++){
+            for(long bits = xBits[word]; bits != 0; bits &= bits - 1){
+                position.place((word << 6) + Long.numberOfTrailingZeros(bits), Player.X);
+            }
+            for(long bits = oBits[word]; bits != 0; bits &= bits - 1){
+                position.place((word << 6) + Long.numberOfTrailingZeros(bits), Player.O);
+            }
+        }
+
+        position.finishSetup(sideToMove);
+        return position;
+    }
+
+
+    /**
+     * Marks the moves placed so far as ones that can't be unmade, and works out if somebody
+     * has already won.
+     *
+     * @param sideToMove the player whose turn it is.
+     */
+    private void finishSetup(Player sideToMove){
+        if(sideToMove != Player.X && sideToMove != Player.O){
+            throw new IllegalArgumentException(String.format("%s cannot be the side to move.", sideToMove));
+        }
+
+        this.sideToMove = sideToMove;
+        this.fixedMoves = moveCount;
+        if(sideToMove == Player.O){
+            key ^= ZobristKeys.O_TO_MOVE;
+        }
+
+        for(int i = 0; i < moveCount && winner == Player.NONE; i++){
+            Player owner = (isTaken(xBits, moves[i]) ? Player.X : Player.O);
+
+            if(WinLines.completesLine(bitsOf(owner), rows, cols, winLength, moves[i])){
+                winner = owner;
+            }
+        }
+    }
+
+
+    /**
+     * Makes a copy of this position, including the moves that can be unmade.
+     *
+     * @return the copy.
+     */
+    public SearchPosition copy() {
+        SearchPosition copy = new SearchPosition(rows, cols, winLength);
+
+        System.arraycopy(xBits, 0, copy.xBits, 0, xBits.length);
+        System.arraycopy(oBits, 0, copy.oBits, 0, oBits.length);
+        System.arraycopy(moves, 0, copy.moves, 0, moveCount);
+        copy.moveCount = moveCount;
+        copy.fixedMoves = fixedMoves;
+        copy.sideToMove = sideToMove;
+        copy.winner = winner;
+        copy.key = key;
+
+        return copy;
+    }
+
+
+    /**
+     * Puts the side to move's symbol in the specified cell, then passes the turn.
+     *
+     * @param cell the cell (row * number of columns + col) to go in.
+     * @throws IllegalStateException if the game is already over.
+     * @throws IllegalArgumentException if the cell is already taken.
+     */
+    public void makeMove(int cell) {
+        if(isGameOver()){
+            throw new IllegalStateException("Cannot make a move after the game is over.");
+        }
+        if(cell < 0 || cell >= cellCount){
+            throw new IndexOutOfBoundsException(String.format("Cell %d out of bounds for board size %d.", cell, cellCount));
+        }
+        if(!isEmpty(cell)){
+            throw new IllegalArgumentException(String.format("Cell %d is already taken.", cell));
+        }
+
+
+        Player mover = sideToMove;
+        place(cell, mover);
+
+        if(WinLines.completesLine(mover == Player.X ? xBits : oBits, rows, cols, winLength, cell)){
+            winner = mover;
+        }
+        sideToMove = (mover == Player.X ? Player.O : Player.X);
+        key ^= ZobristKeys.O_TO_MOVE;
+    }
+
+
+    /**
+     * Takes back the last move made with {@link #makeMove makeMove}.
+     *
+     * @throws IllegalStateException if there is no move to take back.
+     */
+    public void unmakeMove() {
+        if(moveCount == fixedMoves){
+            throw new IllegalStateException("There is no move to unmake.");
+        }
+
+
+        int cell = moves[--moveCount];
+        long bit = ~(1L << cell);
+        xBits[cell >>> 6] &= bit;
+        oBits[cell >>> 6] &= bit;
+
+        //A move can only be made while nobody has won, so there was no winner before this one
+        winner = Player.NONE;
+        sideToMove = (sideToMove == Player.X ? Player.O : Player.X);
+        key ^= ZobristKeys.cellKey(cell, sideToMove) ^ ZobristKeys.O_TO_MOVE;
+    }
+
+
+    /**
+     * Returns the first empty cell after the specified one. Starting from NO_MOVE and passing
+     * each result back in visits every empty cell in order:
+     * <pre>
+     * for(int cell = position.nextEmptyCell(SearchPosition.NO_MOVE); cell != SearchPosition.NO_MOVE;
+     *         cell = position.nextEmptyCell(cell))
+     * </pre>
+     *
+     * @param cell the cell to start after, or NO_MOVE to start at the beginning.
+     * @return the next empty cell, or NO_MOVE if there are no more.
+     */
+    public int nextEmptyCell(int cell) {
+        int next = cell + 1;
+        if(next >= cellCount){
+            return NO_MOVE;
+        }
+
+
+        int word = next >>> 6;
+        long empty = ~(xBits[word] | oBits[word]) & (-1L << next);
+
+        while(empty == 0){
+            if(++word == xBits.length){
+                return NO_MOVE;
+            }
+            empty = ~(xBits[word] | oBits[word]);
+        }
+
+
+        int found = (word << 6) + Long.numberOfTrailingZeros(empty);
+        return (found < cellCount ? found : NO_MOVE);
+    }
+
+
+    /**
+     * Checks if nobody has gone in the specified cell.
+     *
+     * @param cell the cell (row * number of columns + col) to check.
+     * @return true if the cell is empty.
+     */
+    public boolean isEmpty(int cell) {
+        return !isTaken(xBits, cell) && !isTaken(oBits, cell);
+    }
+
+
+    /**
+     * Returns the player who went in the specified cell.
+     *
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @return the player who went there, or null if the cell is empty.
+     */
+    public Player getValueAt(int row, int col) {
+        int cell = row * cols + col;
+        long bit = 1L << cell;
+
+        if((xBits[cell >>> 6] & bit) != 0){
+            return Player.X;
+        }
+        if((oBits[cell >>> 6] & bit) != 0){
+            return Player.O;
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Makes a copy of the board in the 2D array form, with null for empty cells.
+     *
+     * @return a copy of the board.
+     */
+    public Player[][] toBoard() {
+        Player[][] board = new Player[rows][cols];
+
+        for(int i = 0; i < rows; i++){
+            for(int j = 0; j < cols; j++){
+                board[i][j] = getValueAt(i, j);
+            }
+        }
+
+        return board;
+    }
+
+
+    /**
+     * Returns the Zobrist key of the position. It depends on which player has gone in each cell
+     * and whose turn it is, but not on the order the moves were made in, and it is kept up to
+     * date by every move, so this costs nothing. It is the same key
+     * {@link OpeningBook#positionKey(SearchPosition) OpeningBook.positionKey} returns.
+     *
+     * @return the position's key.
+     */
+    public long getKey() {
+        return key;
+    }
+
+
+    public Player getSideToMove() {
+        return sideToMove;
+    }
+
+
+    /**
+     * Returns the player who has won.
+     *
+     * @return the winner, or Player.NONE if nobody has won.
+     */
+    public Player getWinner() {
+        return winner;
+    }
+
+
+    public boolean isGameOver() {
+        return winner != Player.NONE || moveCount == cellCount;
+    }
+
+
+    public boolean isDraw() {
+        return winner == Player.NONE && moveCount == cellCount;
+    }
+
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+
+    /**
+     * Returns the last move made.
+     *
+     * @return the last cell taken, or NO_MOVE if no moves have been made since the position was
+     *         set up.
+     */
+    public int getLastMove() {
+        return (moveCount == fixedMoves ? NO_MOVE : moves[moveCount - 1]);
+    }
+
+
+    public int getRows() {
+        return rows;
+    }
+
+
+    public int getColumns() {
+        return cols;
+    }
+
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+
+    /**
+     * Returns the bitset of cells taken by the specified player. The array is not copied, so it
+     * must not be changed. This is package private for move generators that work on bitboards.
+     *
+     * @param player X or O.
+     * @return one bit per cell, set where the player has gone.
+     */
+    long[] bitsOf(Player player) {
+        return (player == Player.X ? xBits : oBits);
+    }
+
+
+    private static boolean isTaken(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+
+    private void place(int cell, Player player) {
+        long[] bits = (player == Player.X ? xBits : oBits);
+
+        bits[cell >>> 6] |= 1L << cell;
+        moves[moveCount++] = cell;
+        key ^= ZobristKeys.cellKey(cell, player);
+    }
+}
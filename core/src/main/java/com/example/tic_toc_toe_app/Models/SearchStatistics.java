@@ -0,0 +1,34 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * Implemented by {@link ComputerMoveGenerator ComputerMoveGenerators} that can say how much work
+ * went into the move they chose last. These are read by a {@link MetricsListener MetricsListener}
+ * straight after each move, on the thread that chose it, so they only need to describe the most
+ * recent move.
+ */
+public interface SearchStatistics {
+    /**
+     * Returns the number of positions searched, or playouts run, to choose the most recent move.
+     *
+     * @return the amount of search done for the last move.
+     */
+    long getNodesLastMove();
+
+
+    /**
+     * Returns the number of times a cache, such as a transposition table, an opening book or
+     * pondered replies, already had the answer while choosing the most recent move.
+     *
+     * @return the number of cache hits for the last move.
+     */
+    long getCacheHitsLastMove();
+
+
+    /**
+     * Returns the number of times a cache was looked in while choosing the most recent move.
+     *
+     * @return the number of cache lookups for the last move.
+     */
+    long getCacheLookupsLastMove();
+}
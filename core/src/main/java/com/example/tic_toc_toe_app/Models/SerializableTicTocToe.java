@@ -0,0 +1,26 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.io.Serializable;
+
+
+/**
+ * A version of the TicTocToe game model that is serializable. This is useful for saving and
+ * restoring the state of the game when an activity is destroyed and re-created.
+ */
+public interface SerializableTicTocToe extends TicTocToeGame, Serializable {
+    /**
+     * Encodes the full state of the game, including which computer move generator it uses, in a
+     * compact binary form. This is much smaller and faster than Java serialization.
+     *
+     * @return the encoded game state.
+     */
+    byte[] toByteArray();
+
+
+    /**
+     * Stops any threads the computer move generator runs. Call it once the model is no longer
+     * needed, for example when a restored copy has taken its place. The computer can't take
+     * turns after this.
+     */
+    void shutdown();
+}
@@ -0,0 +1,487 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.util.Arrays;
+
+
+/**
+ * A board for searching big k-in-a-row games that keeps its own evaluation up to date as moves
+ * are made and unmade, instead of rescanning the board for every position.
+ *
+ * The board is split into lines of winLength cells in every direction, the same lines a win can
+ * be made in. Each line only matters to a player while the other player has no symbol in it,
+ * so for each player this keeps a count of their open lines holding 1, 2, up to winLength of
+ * their symbols: the open twos, threes and fours of gomoku. A move only changes the lines
+ * through its cell, at most 4 * winLength of them, so making or unmaking a move costs about
+ * that many updates however big the board is, and scoring a position just reads the counts.
+ *
+ * It also counts the taken cells within two cells of every cell, so the cells worth trying can
+ * be found without looking around each one.
+ */
+public final class ThreatEvaluator {
+    //How far from a taken cell an empty cell is still worth trying
+    private static final int NEIGHBOURHOOD = 2;
+
+    //The most a line can score. Long lines are capped lower still, see lineScoreShiftCap.
+    private static final int MAX_LINE_SCORE_SHIFT = 24;
+
+    private static final int X = 0;
+    private static final int O = 1;
+    private static final byte EMPTY = -1;
+
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+
+    //The cells of each line, and the lines through each cell
+    private final int[][] lineCells;
+    private final int[][] linesThrough;
+
+    //The number of each player's symbols in each line, indexed [player][line]
+    private final int[][] lineCounts;
+
+    //The number of lines open to each player holding exactly n of their symbols, indexed
+    //[player][n]. Lines with nothing in them are open to both.
+    private final int[][] openLines;
+
+    //Score of an open line holding n symbols
+    private final int[] lineScores;
+
+    private final byte[] cells;
+    private final int[] takenNearby;
+    private final int[] moves;
+    private int moveCount = 0;
+    private int fixedMoves = 0;
+    private int sideToMove = X;
+
+
+    /**
+     * Constructs an empty board, with X to move.
+     *
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param winLength the number in a row needed to win.
+     * @throws IllegalArgumentException if the board size or win length is not possible.
+     */
+    public ThreatEvaluator(int rows, int cols, int winLength) {
+        if(rows < 1 || cols < 1 || winLength < 1 || winLength > Math.max(rows, cols)){
+            throw new IllegalArgumentException(String.format("A %dx%d board with %d in a row is not possible.", rows, cols, winLength));
+        }
+
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
+        this.cells = new byte[rows * cols];
+        this.takenNearby = new int[rows * cols];
+        this.moves = new int[rows * cols];
+        Arrays.fill(cells, EMPTY);
+
+        this.lineCells = buildLines(rows, cols, winLength);
+        this.linesThrough = indexLines(lineCells, rows * cols);
+        this.lineCounts = new int[2][lineCells.length];
+
+        this.openLines = new int[2][winLength + 1];
+        openLines[X][0] = lineCells.length;
+        openLines[O][0] = lineCells.length;
+
+        int shiftCap = lineScoreShiftCap(linesThrough);
+        this.lineScores = new int[winLength + 1];
+        for(int n = 1; n <= winLength; n++){
+            lineScores[n] = 1 << Math.min(2 * n, shiftCap);
+        }
+    }
+
+
+    /**
+     * Works out how big a line score can be so that {@link #threatScore threatScore}, which adds
+     * up a score for every line through a cell, can't overflow an int. A line adds at most one
+     * line score (an open line of the player's adds the player's score, and an empty line adds
+     * one and a half times the score of a single symbol, which is smaller), and a cell can be in
+     * up to 4 * winLength lines, so the cap drops as the lines get longer.
+     *
+     * @return the largest shift a line score may use.
+     */
+    private static int lineScoreShiftCap(int[][] linesThrough){
+        int mostLines = 1;
+        for(int[] lines : linesThrough){
+            mostLines = Math.max(mostLines, lines.length);
+        }
+
+        //The cell with the most lines, every one of them scoring 2^(shift), stays under 2^31
+        int linesShift = 32 - Integer.numberOfLeadingZeros(mostLines - 1);
+        return Math.min(MAX_LINE_SCORE_SHIFT, 30 - linesShift);
+    }
+
+
+    /**
+     * Builds a board holding the same position as a search position. The moves already made
+     * can't be unmade.
+     *
+     * @param position the position to copy.
+     * @return the new board.
+     */
+    public static ThreatEvaluator fromPosition(SearchPosition position) {
+        ThreatEvaluator board = new ThreatEvaluator(position.getRows(), position.getColumns(), position.getWinLength());
+
+        for(int row = 0; row < board.rows; row++){
+            for(int col = 0; col < board.cols; col++){
+                Player player = position.getValueAt(row, col);
+                if(player == Player.X || player == Player.O){
+                    board.place(row * board.cols + col, player == Player.X ? X : O);
+                }
+            }
+        }
+
+        board.fixedMoves = board.moveCount;
+        board.sideToMove = (position.getSideToMove() == Player.O ? O : X);
+        return board;
+    }
+
+
+    /**
+     * Lists the cells of every line of winLength cells on the board.
+     */
+    private static int[][] buildLines(int rows, int cols, int winLength){
+        int count = 0;
+        int[][] lines = new int[4 * rows * cols][];
+
+        for(int direction = 0; direction < WinLines.DIRECTIONS; direction++){
+            int rowStep = WinLines.ROW_STEPS[direction];
+            int colStep = WinLines.COL_STEPS[direction];
+
+            //A single cell is a line in every direction, but it only needs counting once
+            if(winLength == 1 && direction > 0){
+                break;
+            }
+
+            for(int row = 0; row < rows; row++){
+                for(int col = 0; col < cols; col++){
+                    if(!WinLines.fitsOnBoard(rows, cols, winLength, row, col, direction)){
+                        continue;
+                    }
+
+                    int[] line = new int[winLength];
+                    for(int k = 0; k < winLength; k++){
+                        line[k] = (row + rowStep * k) * cols + col + colStep * k;
+                    }
+                    lines[count++] = line;
+                }
+            }
+        }
+
+        return Arrays.copyOf(lines, count);
+    }
+
+
+    /**
+     * Lists the lines through each cell.
+     */
+    private static int[][] indexLines(int[][] lineCells, int cellCount){
+        int[] counts = new int[cellCount];
+        for(int[] line : lineCells){
+            for(int cell : line){
+                counts[cell]++;
+            }
+        }
+
+        int[][] linesThrough = new int[cellCount][];
+        for(int cell = 0; cell < cellCount; cell++){
+            linesThrough[cell] = new int[counts[cell]];
+            counts[cell] = 0;
+        }
+        for(int line = 0; line < lineCells.length; line++){
+            for(int cell : lineCells[line]){
+                linesThrough[cell][counts[cell]++] = line;
+            }
+        }
+
+        return linesThrough;
+    }
+
+
+    /**
+     * Puts the side to move's symbol in the specified cell, then passes the turn.
+     *
+     * @param cell the cell (row * number of columns + col) to go in.
+     * @throws IllegalStateException if the game is already over.
+     * @throws IllegalArgumentException if the cell is already taken.
+     */
+    public void makeMove(int cell) {
+        if(isGameOver()){
+            throw new IllegalStateException("Cannot move after the game is over.");
+        }
+        if(cells[cell] != EMPTY){
+            throw new IllegalArgumentException(String.format("Cell %d is already taken.", cell));
+        }
+
+        place(cell, sideToMove);
+        sideToMove = 1 - sideToMove;
+    }
+
+
+    /**
+     * Takes back the last move made with {@link #makeMove makeMove}.
+     *
+     * @throws IllegalStateException if there is no move to take back.
+     */
+    public void unmakeMove() {
+        if(moveCount == fixedMoves){
+            throw new IllegalStateException("There is no move to take back.");
+        }
+
+        sideToMove = 1 - sideToMove;
+        remove(moves[moveCount - 1], sideToMove);
+    }
+
+
+    private void place(int cell, int player){
+        int other = 1 - player;
+
+        for(int line : linesThrough[cell]){
+            int mine = lineCounts[player][line];
+            int theirs = lineCounts[other][line];
+
+            if(theirs == 0){
+                //Still open to this player, now with one more symbol in it
+                openLines[player][mine]--;
+                openLines[player][mine + 1]++;
+                if(mine == 0){
+                    openLines[other][0]--;
+                }
+            }
+            else if(mine == 0){
+                //Was open to the other player, and now it's blocked
+                openLines[other][theirs]--;
+            }
+
+            lineCounts[player][line] = mine + 1;
+        }
+
+        cells[cell] = (byte) player;
+        moves[moveCount++] = cell;
+        updateNearby(cell, 1);
+    }
+
+
+    private void remove(int cell, int player){
+        int other = 1 - player;
+
+        for(int line : linesThrough[cell]){
+            int mine = lineCounts[player][line] - 1;
+            int theirs = lineCounts[other][line];
+
+            if(theirs == 0){
+                openLines[player][mine + 1]--;
+                openLines[player][mine]++;
+                if(mine == 0){
+                    openLines[other][0]++;
+                }
+            }
+            else if(mine == 0){
+                openLines[other][theirs]++;
+            }
+
+            lineCounts[player][line] = mine;
+        }
+
+        cells[cell] = EMPTY;
+        moveCount--;
+        updateNearby(cell, -1);
+    }
+
+
+    private void updateNearby(int cell, int change){
+        int row = cell / cols;
+        int col = cell % cols;
+
+        for(int i = Math.max(0, row - NEIGHBOURHOOD); i <= Math.min(rows - 1, row + NEIGHBOURHOOD); i++){
+            for(int j = Math.max(0, col - NEIGHBOURHOOD); j <= Math.min(cols - 1, col + NEIGHBOURHOOD); j++){
+                takenNearby[i * cols + j] += change;
+            }
+        }
+    }
+
+
+    /**
+     * Scores the position from the point of view of the side to move: every open line is worth
+     * 4^(symbols in it) to the player it is open to. The counts are kept up to date by every
+     * move, so this only adds up winLength numbers.
+     *
+     * @return the score of the position.
+     */
+    public long evaluate() {
+        int me = sideToMove;
+        int them = 1 - sideToMove;
+        long score = 0;
+
+        for(int n = 1; n < winLength; n++){
+            score += (long) lineScores[n] * (openLines[me][n] - openLines[them][n]);
+        }
+
+        return score;
+    }
+
+
+    /**
+     * Scores how much going in an empty cell would matter to the side to move: how much it
+     * builds their own open lines, plus, at half weight, how much it blocks the other player's.
+     * Used to try the most threatening moves first and drop the rest.
+     *
+     * @param cell the empty cell to score.
+     * @return the threat score of the cell, higher for more urgent moves.
+     */
+    public int threatScore(int cell) {
+        int me = sideToMove;
+        int them = 1 - sideToMove;
+        int score = 0;
+
+        for(int line : linesThrough[cell]){
+            int mine = lineCounts[me][line];
+            int theirs = lineCounts[them][line];
+
+            if(theirs == 0){
+                score += lineScores[mine + 1];
+            }
+            if(mine == 0){
+                score += lineScores[theirs + 1] >> 1;
+            }
+        }
+
+        return score;
+    }
+
+
+    /**
+     * Returns the number of lines open to a player that hold exactly the specified number of
+     * their symbols. For example, in five in a row, the open fours of X are
+     * getOpenLines(Player.X, 4).
+     *
+     * @param player X or O.
+     * @param symbols the number of the player's symbols in the line, from 0 to winLength.
+     * @return the number of such lines.
+     */
+    public int getOpenLines(Player player, int symbols) {
+        if(symbols < 0 || symbols > winLength){
+            throw new IndexOutOfBoundsException(String.format("A line can't hold %d symbols.", symbols));
+        }
+
+        return openLines[player == Player.O ? O : X][symbols];
+    }
+
+
+    /**
+     * Finds the empty cells that would win on the spot, either for the side to move or for the
+     * other player, who must then be blocked there.
+     *
+     * @param forSideToMove true for the side to move's winning cells, false for the other
+     *                      player's.
+     * @param found filled with the cells, each listed once.
+     * @return the number of cells written.
+     */
+    public int findWinningCells(boolean forSideToMove, int[] found) {
+        int player = (forSideToMove ? sideToMove : 1 - sideToMove);
+        if(openLines[player][winLength - 1] == 0){
+            return 0;
+        }
+
+
+        int count = 0;
+        for(int line = 0; line < lineCells.length; line++){
+            if(lineCounts[player][line] != winLength - 1 || lineCounts[1 - player][line] != 0){
+                continue;
+            }
+
+            for(int cell : lineCells[line]){
+                if(cells[cell] == EMPTY && !contains(found, count, cell)){
+                    found[count++] = cell;
+                }
+            }
+        }
+
+        return count;
+    }
+
+
+    private static boolean contains(int[] cells, int count, int cell){
+        for(int i = 0; i < count; i++){
+            if(cells[i] == cell){
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Checks if an empty cell is worth trying: within two cells of a taken one.
+     *
+     * @param cell the cell to check.
+     * @return true if the cell is empty and has a taken cell nearby.
+     */
+    public boolean isCandidate(int cell) {
+        return cells[cell] == EMPTY && takenNearby[cell] > 0;
+    }
+
+
+    /**
+     * Checks if nobody has gone in a cell.
+     *
+     * @param cell the cell to check.
+     * @return true if the cell is empty.
+     */
+    public boolean isEmpty(int cell) {
+        return cells[cell] == EMPTY;
+    }
+
+
+    /**
+     * Returns the player who has won, if anyone.
+     *
+     * @return the winner, or NONE if nobody has won.
+     */
+    public Player getWinner() {
+        if(openLines[X][winLength] > 0){
+            return Player.X;
+        }
+        if(openLines[O][winLength] > 0){
+            return Player.O;
+        }
+
+        return Player.NONE;
+    }
+
+
+    public boolean isDraw() {
+        return moveCount == cells.length && getWinner() == Player.NONE;
+    }
+
+
+    public boolean isGameOver() {
+        return moveCount == cells.length || getWinner() != Player.NONE;
+    }
+
+
+    public Player getSideToMove() {
+        return sideToMove == X ? Player.X : Player.O;
+    }
+
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+
+    public int getRows() {
+        return rows;
+    }
+
+
+    public int getColumns() {
+        return cols;
+    }
+
+
+    public int getWinLength() {
+        return winLength;
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * Implementation of the {@link AnytimeMoveGenerator AnytimeMoveGenerator interface} for big
+ * k-in-a-row boards, such as gomoku on 15x15. It runs an iterative deepening negamax search with
+ * alpha-beta pruning on a {@link ThreatEvaluator ThreatEvaluator}, whose scores are kept up to
+ * date by every move, so no position is ever rescanned.
+ *
+ * Moves are chosen by threat level. If the side to move can win, that is the only move
+ * searched. If the other player could win next move, only the cells that block them are
+ * searched. Otherwise the empty cells near taken ones are ordered by how much they build the
+ * side to move's lines and block the other player's, and only the most threatening few are
+ * searched, which keeps the tree narrow enough to look several moves ahead on a big board.
+ */
+public class ThreatSearchMovePicker implements AnytimeMoveGenerator, SearchStatistics {
+    private static final long DEFAULT_MILLIS_PER_MOVE = 1000;
+
+    //How many of the most threatening moves are searched, at the root and below it
+    private static final int ROOT_MOVES = 20;
+    private static final int MOVES_PER_PLY = 10;
+
+    //How often the clock is checked, as a mask of the node count
+    private static final int CLOCK_CHECK_MASK = 255;
+
+    private static final int WIN = IterativeDeepeningMovePicker.WIN;
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final long millisPerMove;
+
+    //Move and threat score lists for each ply of the search, so generating moves doesn't
+    //allocate. Made again when the board size changes.
+    private int[][] moveLists = new int[0][];
+    private int[][] scoreLists = new int[0][];
+
+    private ThreatEvaluator board;
+    private long deadline;
+    private long nodes;
+    private boolean stopped;
+
+    private int depthLastMove = 0;
+    private long nodesLastMove = 0;
+
+
+    /**
+     * Constructs a move picker that thinks for one second per move when no deadline is given.
+     */
+    public ThreatSearchMovePicker() {
+        this(DEFAULT_MILLIS_PER_MOVE);
+    }
+
+
+    /**
+     * Constructs a move picker with the specified time budget for moves chosen without a
+     * deadline.
+     *
+     * @param millisPerMove how long to search before choosing each move, in milliseconds.
+     */
+    public ThreatSearchMovePicker(long millisPerMove) {
+        if(millisPerMove < 1){
+            throw new IllegalArgumentException(String.format("%d ms is not a valid time budget.", millisPerMove));
+        }
+
+        this.millisPerMove = millisPerMove;
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, Player computer) {
+        return chooseMove(gameBoard, TicTocToeGame.DEFAULT_WIN_LENGTH, computer);
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, int winLength, Player computer) {
+        return chooseMove(SearchPosition.fromBoard(gameBoard, winLength, computer));
+    }
+
+
+    @Override
+    public int chooseMove(SearchPosition position) {
+        return chooseMove(position, System.nanoTime() + millisPerMove * 1_000_000L);
+    }
+
+
+    @Override
+    public int chooseMove(SearchPosition position, long deadline) {
+        if(position.isGameOver()){
+            depthLastMove = 0;
+            nodesLastMove = 0;
+            return Move.NONE;
+        }
+
+        int cellCount = position.getRows() * position.getColumns();
+        if(moveLists.length != cellCount + 1 || moveLists[0].length != cellCount){
+            moveLists = new int[cellCount + 1][cellCount];
+            scoreLists = new int[cellCount + 1][cellCount];
+        }
+
+        this.board = ThreatEvaluator.fromPosition(position);
+        this.deadline = deadline;
+        this.nodes = 0;
+        this.stopped = false;
+
+
+        int[] rootMoves = moveLists[0];
+        int rootMoveCount = generateMoves(0, ROOT_MOVES);
+        int emptyCells = cellCount - position.getMoveCount();
+        int completedDepth = 0;
+
+        //With only one sensible move there is nothing to search
+        if(rootMoveCount > 1){
+            for(int depth = 1; depth <= emptyCells; depth++){
+                int score = searchRoot(rootMoves, rootMoveCount, depth);
+                if(stopped){
+                    break;
+                }
+
+                completedDepth = depth;
+
+                //A forced win or loss has been found, so searching deeper won't change the move
+                if(Math.abs(score) > WIN - cellCount){
+                    break;
+                }
+            }
+        }
+
+        depthLastMove = completedDepth;
+        nodesLastMove = nodes;
+        board = null;
+
+        int cell = rootMoves[0];
+        return Move.of(cell / position.getColumns(), cell % position.getColumns());
+    }
+
+
+    /**
+     * Returns the depth of the deepest search that finished while choosing the most recent move.
+     *
+     * @return the number of moves ahead that were searched, or 0 if the move was forced.
+     */
+    public int getDepthLastMove() {
+        return depthLastMove;
+    }
+
+
+    @Override
+    public long getNodesLastMove() {
+        return nodesLastMove;
+    }
+
+
+    //No transposition table, so nothing is ever looked up
+    @Override
+    public long getCacheHitsLastMove() {
+        return 0;
+    }
+
+
+    @Override
+    public long getCacheLookupsLastMove() {
+        return 0;
+    }
+
+
+    /**
+     * Searches every candidate move to the specified depth. If the search finishes, the best
+     * move is swapped to the front of the list so the next depth searches it first.
+     *
+     * @return the score of the best move, which is meaningless if the search was stopped.
+     */
+    private int searchRoot(int[] moves, int moveCount, int depth){
+        int alpha = -INFINITY;
+        int best = 0;
+
+        for(int i = 0; i < moveCount; i++){
+            board.makeMove(moves[i]);
+            int score = -negamax(depth - 1, 1, -INFINITY, -alpha);
+            board.unmakeMove();
+
+            if(stopped){
+                return 0;
+            }
+            if(score > alpha){
+                alpha = score;
+                best = i;
+            }
+        }
+
+
+        int bestMove = moves[best];
+        System.arraycopy(moves, 0, moves, 1, best);
+        moves[0] = bestMove;
+
+        return alpha;
+    }
+
+
+    /**
+     * Scores the position from the point of view of the player to move.
+     *
+     * @param depth the number of moves left to search.
+     * @param ply the number of moves made since the root.
+     * @param alpha the lowest score the player to move is already guaranteed.
+     * @param beta the highest score the other player will allow.
+     * @return the score of the position, exact if it falls strictly between alpha and beta.
+     */
+    private int negamax(int depth, int ply, int alpha, int beta){
+        //If the last move won, the player to move has lost
+        if(board.getWinner() != Player.NONE){
+            return -(WIN - ply);
+        }
+        if(board.isDraw()){
+            return 0;
+        }
+        if((++nodes & CLOCK_CHECK_MASK) == 0 && timeIsUp()){
+            stopped = true;
+            return 0;
+        }
+        if(depth == 0){
+            //Keep huge boards well away from the win scores
+            return (int) Math.max(-WIN / 2, Math.min(WIN / 2, board.evaluate()));
+        }
+
+
+        int[] moves = moveLists[ply];
+        int moveCount = generateMoves(ply, MOVES_PER_PLY);
+        int best = -INFINITY;
+
+        for(int i = 0; i < moveCount; i++){
+            board.makeMove(moves[i]);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            board.unmakeMove();
+
+            if(stopped){
+                return 0;
+            }
+            if(score > best){
+                best = score;
+            }
+            if(score > alpha){
+                alpha = score;
+            }
+            if(alpha >= beta){
+                break;
+            }
+        }
+
+        return best;
+    }
+
+
+    private boolean timeIsUp(){
+        return System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted();
+    }
+
+
+    /**
+     * Fills the move list of a ply with the moves worth searching, most threatening first: a
+     * winning move if there is one, else the cells that stop the other player winning if they
+     * threaten to, else the most threatening cells near taken ones.
+     *
+     * @param ply the ply whose lists to fill.
+     * @param limit the most moves to keep when nothing is forced.
+     * @return the number of moves written.
+     */
+    private int generateMoves(int ply, int limit){
+        int[] moves = moveLists[ply];
+        int[] scores = scoreLists[ply];
+
+        if(board.findWinningCells(true, moves) > 0){
+            return 1;
+        }
+
+        int count = board.findWinningCells(false, moves);
+        if(count > 0){
+            //Losing anyway if there is more than one, but block one of them
+            return count;
+        }
+
+
+        int cellCount = board.getRows() * board.getColumns();
+        for(int cell = 0; cell < cellCount; cell++){
+            if(board.isCandidate(cell)){
+                moves[count] = cell;
+                scores[count] = board.threatScore(cell);
+                count++;
+            }
+        }
+
+        if(count == 0 && board.getMoveCount() == 0){
+            //Empty board, so take the middle
+            moves[0] = (board.getRows() / 2) * board.getColumns() + board.getColumns() / 2;
+            return 1;
+        }
+        if(count == 0){
+            //Every cell near a taken one is full, so try the rest
+            for(int cell = 0; cell < cellCount; cell++){
+                if(board.isEmpty(cell)){
+                    moves[count] = cell;
+                    scores[count] = board.threatScore(cell);
+                    count++;
+                }
+            }
+        }
+
+
+        //Selection sort just far enough to find the best few
+        int kept = Math.min(count, limit);
+        for(int i = 0; i < kept; i++){
+            int best = i;
+            for(int j = i + 1; j < count; j++){
+                if(scores[j] > scores[best]){
+                    best = j;
+                }
+            }
+
+            int move = moves[best];
+            int score = scores[best];
+            moves[best] = moves[i];
+            scores[best] = scores[i];
+            moves[i] = move;
+            scores[i] = score;
+        }
+
+        return kept;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * Helpers for working with a 3x3 game board stored as one bitmask per player. Bit
+ * (row * 3 + col) of a player's mask is set if that player went in that cell.
+ */
+final class ThreeByThreeBitboard {
+    static final int BOARD_ROWS = 3;
+    static final int BOARD_COLS = 3;
+    static final int BOARD_SIZE = BOARD_ROWS * BOARD_COLS;
+    static final int FULL_BOARD = (1 << BOARD_SIZE) - 1;
+    static final int WIN_LENGTH = 3;
+
+    //Every row, column and diagonal on the board as a bitmask of the cells it covers.
+    static final int[] WIN_MASKS = {
+            0b000_000_111, 0b000_111_000, 0b111_000_000,        //rows
+            0b001_001_001, 0b010_010_010, 0b100_100_100,        //columns
+            0b100_010_001, 0b001_010_100                        //diagonals
+    };
+
+    //For each cell, the win masks that pass through it.
+    static final int[][] WIN_MASKS_BY_CELL = buildWinMasksByCell();
+
+
+    private ThreeByThreeBitboard(){}
+
+
+    /**
+     * Builds the lookup table of which win masks pass through each cell of the board.
+     *
+     * @return an array indexed by cell, containing the win masks that include that cell.
+     */
+    private static int[][] buildWinMasksByCell(){
+        int[][] table = new int[BOARD_SIZE][];
+
+        for(int cell = 0; cell < BOARD_SIZE; cell++){
+            int count = 0;
+            for(int mask : WIN_MASKS){
+                if((mask & (1 << cell)) != 0){
+                    count++;
+                }
+            }
+
+            table[cell] = new int[count];
+            count = 0;
+            for(int mask : WIN_MASKS){
+                if((mask & (1 << cell)) != 0){
+                    table[cell][count++] = mask;
+                }
+            }
+        }
+
+        return table;
+    }
+
+
+    /**
+     * Returns the bit that represents the specified cell.
+     *
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @return a mask with only the bit for that cell set.
+     */
+    static int cellBit(int row, int col){
+        return 1 << (row * BOARD_COLS + col);
+    }
+
+
+    /**
+     * Checks if the player owning the specified mask has a full line through the specified cell.
+     *
+     * @param playerMask the cells taken by the player.
+     * @param cell the index (row * 3 + col) of the cell the player just went in.
+     * @return true if the player has completed a line passing through that cell.
+     */
+    static boolean winsThrough(int playerMask, int cell){
+        for(int mask : WIN_MASKS_BY_CELL[cell]){
+            if((playerMask & mask) == mask){
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Checks if a game is the standard one: a 3x3 board with 3 in a row needed to win.
+     *
+     * @return true if the game is 3x3 with 3 in a row.
+     */
+    static boolean isStandardGame(int rows, int cols, int winLength){
+        return rows == BOARD_ROWS && cols == BOARD_COLS && winLength == WIN_LENGTH;
+    }
+
+
+    /**
+     * Checks that a game is played with the standard 3 in a row needed to win.
+     *
+     * @param winLength the number in a row needed to win.
+     * @throws IllegalArgumentException if the win length is not 3.
+     */
+    static void checkWinLength(int winLength){
+        if(winLength != WIN_LENGTH){
+            throw new IllegalArgumentException(
+                    String.format("Expected %d in a row to win but got %d.", WIN_LENGTH, winLength));
+        }
+    }
+
+
+    /**
+     * Collects the cells taken by the specified player on a 2D game board into a bitmask.
+     *
+     * @param gameBoard a 3x3 board where empty cells are null.
+     * @param player the player whose cells should be collected.
+     * @return the bitmask of cells taken by the player.
+     * @throws IllegalArgumentException if the board is not 3x3.
+     */
+    static int maskOf(Player[][] gameBoard, Player player){
+        if(gameBoard.length != BOARD_ROWS){
+            throw new IllegalArgumentException(
+                    String.format("Expected a board with %d rows but got %d.", BOARD_ROWS, gameBoard.length));
+        }
+
+        int mask = 0;
+
+        for(int i = 0; i < BOARD_ROWS; i++){
+            if(gameBoard[i].length != BOARD_COLS){
+                throw new IllegalArgumentException(
+                        String.format("Expected a board with %d columns but got %d.", BOARD_COLS, gameBoard[i].length));
+            }
+            for(int j = 0; j < BOARD_COLS; j++){
+                if(gameBoard[i][j] == player){
+                    mask |= cellBit(i, j);
+                }
+            }
+        }
+
+        return mask;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * A model for managing the backend of a tic toc toe game
+ */
+public interface TicTocToeGame {
+    public static final int HUMAN_OPPONENT = 0;
+    public static final int COMPUTER_OPPONENT = 1;
+
+    public static final int DEFAULT_BOARD_ROWS = 3;
+    public static final int DEFAULT_BOARD_COLS = 3;
+    public static final int DEFAULT_WIN_LENGTH = 3;
+
+
+    /**
+     * Starts a new game on the standard 3x3 board, where 3 in a row wins.
+     *
+     * @param opponentType the opponent that the game will be played against. 0 for a human
+     *                     opponent and 1 for a computer opponent.
+     */
+    void startNewGame(int opponentType);
+
+
+    /**
+     * Starts a new game on a board of the specified size.
+     *
+     * @param opponentType the opponent that the game will be played against. 0 for a human
+     *                     opponent and 1 for a computer opponent.
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param winLength the number of symbols in a row (across, down or diagonally) needed to win.
+     *
+     * @throws IllegalArgumentException if the board size or win length is not possible, or the
+     * opponent is the computer and it can't play a board of this shape.
+     */
+    void startNewGame(int opponentType, int rows, int cols, int winLength);
+
+
+    /**
+     * Simulates the player whose turn it currently is, taking a turn. In a player vs computer
+     * game, then this method will take the turn of the human player and the turn of the
+     * computer player should be handled by a call to {@link TicTocToeGame#takeComputerTurn
+     * takeComputerTurn}.
+     *
+     * @param row the row the player wants to go on.
+     * @param col the column the player wants to go on.
+     * @return true if the chosen move was legal, and false otherwise.
+     */
+    boolean takeTurn(int row, int col);
+
+
+    /**
+     * Simulates the computer turn in a player vs computer game. Throws an Exception in a
+     * player vs player game.
+     *
+     * @return the move taken by the computer packed with {@link Move#of Move.of}, or Move.NONE if
+     * the computer did not move.
+     *
+     * @throws RuntimeException if this method was called in a player vs player game.
+     */
+    int takeComputerTurn();
+
+
+    /**
+     * Simulates the computer turn in a player vs computer game, choosing the move by the
+     * specified deadline if the computer move generator is an
+     * {@link AnytimeMoveGenerator AnytimeMoveGenerator}. Other generators take as long as they
+     * take. If the calling thread is interrupted while the move is being chosen, no move is
+     * taken.
+     *
+     * @param deadline the value of System.nanoTime() by which the move should be chosen.
+     * @return the move taken by the computer packed with {@link Move#of Move.of}, or Move.NONE if
+     * the computer did not move.
+     *
+     * @throws RuntimeException if this method was called in a player vs player game.
+     */
+    int takeComputerTurn(long deadline);
+
+
+    /**
+     * Adds a listener to be told about every change to the game from now on.
+     *
+     * @param listener the listener to add.
+     */
+    void addGameChangeListener(GameChangeListener listener);
+
+
+    /**
+     * Removes a listener added with {@link #addGameChangeListener addGameChangeListener}.
+     *
+     * @param listener the listener to remove.
+     */
+    void removeGameChangeListener(GameChangeListener listener);
+
+
+    /**
+     * Gets the player whose turn it is.
+     *
+     * @return the player whose turn it is, or NONE if the game is over.
+     */
+    Player getCurrentPlayer();
+
+
+    /**
+     * Returns the winner of the game.
+     *
+     * @return the winner of the game or NONE if the game is still going or ended in a draw.
+     */
+    Player getWinner();
+
+
+    /**
+     * Returns true if the game is over and false otherwise.
+     *
+     * @return true if the game is over and false otherwise.
+     */
+    boolean isGameOver();
+
+
+    /**
+     * Returns the player who has gone in the specified spot on the board, or NONE if nobody
+     * has gone there.
+     *
+     * @param row the row the position is on.
+     * @param col the column the position is on.
+     * @return the value at that position.
+     */
+    Player getValueAtBoardPosition(int row, int col);
+
+
+    /**
+     * Returns the number of rows on the board of the current game.
+     *
+     * @return the number of rows on the board.
+     */
+    int getBoardRows();
+
+
+    /**
+     * Returns the number of columns on the board of the current game.
+     *
+     * @return the number of columns on the board.
+     */
+    int getBoardColumns();
+
+
+    /**
+     * Returns the number of symbols in a row needed to win the current game.
+     *
+     * @return the number in a row needed to win.
+     */
+    int getWinLength();
+
+
+    /**
+     * Returns a snapshot of the whole game. Unlike calling the other getters one after another,
+     * every value read from the snapshot belongs to the same moment in the game, even if another
+     * thread is making moves.
+     *
+     * @return the current state of the game.
+     */
+    GameState getState();
+}
@@ -0,0 +1,658 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Implementation of the {@link TicTocToeGame TicTocToeGame interface} that is also serializable
+ * for the purpose of saving the game state when the device is rotated.
+ *
+ * The whole game is kept in one immutable {@link GameState GameState} held by an atomic
+ * reference. Readers just read the current state and never block. Moves are made by building
+ * the next state from the one that was read and swapping it in with compare-and-set, starting
+ * over if another thread got there first. This lets the UI thread, the engine thread and any
+ * other observers share a model without locks. The computer move generator is not called under
+ * any lock either, so two computer turns should not be taken on the same model at once.
+ * {@link GameChangeListener GameChangeListeners} are told about each change by the thread that
+ * won the compare-and-set, after it has been made.
+ */
+public class TicTocToeGameModel implements SerializableTicTocToe {
+    private static final long serialVersionUID = 1L;
+
+    //The largest number of rows or columns a board can have, so each fits in a byte when the
+    //game is encoded.
+    public static final int MAX_BOARD_DIMENSION = 255;
+
+    //Layout of the encoded game state: a fixed header, 2 bits per cell, and then the cells in
+    //the order they were taken, 1 byte each, or 2 if the board has more than 256 cells
+    private static final int HEADER_ROWS = 0;
+    private static final int HEADER_COLS = 1;
+    private static final int HEADER_WIN_LENGTH = 2;
+    private static final int HEADER_FLAGS = 3;
+    private static final int HEADER_GENERATOR = 4;
+    private static final int HEADER_SIZE = 5;
+
+    private static final int FLAG_GAME_RUNNING = 1 << 4;
+    private static final int FLAG_COMPUTER_OPPONENT = 1 << 5;
+    private static final int FLAG_UNUSED = 0xC0;
+
+    private static final int CELL_EMPTY = 0;
+    private static final int CELL_X = 1;
+    private static final int CELL_O = 2;
+
+    private final AtomicReference<GameState> state = new AtomicReference<>(GameState.notStarted());
+    private transient ComputerMoveGenerator computerMoveGenerator;
+    private transient volatile GameRecorder recorder;
+    private transient volatile MetricsListener metricsListener;
+    private transient List<GameChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+    public TicTocToeGameModel(ComputerMoveGenerator computerMoveGenerator) {
+        this.computerMoveGenerator = computerMoveGenerator;
+    }
+
+
+    /**
+     * Sets the recorder told about every game this model finishes. Games that are abandoned by
+     * starting a new game are not recorded.
+     *
+     * @param recorder the recorder, or null to stop recording.
+     */
+    public void setRecorder(GameRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+
+    /**
+     * Sets the listener told how long every computer turn takes and about every game this model
+     * finishes.
+     *
+     * @param metricsListener the listener, or null to stop measuring.
+     */
+    public void setMetricsListener(MetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
+
+    @Override
+    public void addGameChangeListener(GameChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+
+    @Override
+    public void removeGameChangeListener(GameChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+
+    @Override
+    public void startNewGame(int opponentType) {
+        startNewGame(opponentType, DEFAULT_BOARD_ROWS, DEFAULT_BOARD_COLS, DEFAULT_WIN_LENGTH);
+    }
+
+
+    @Override
+    public void startNewGame(int opponentType, int rows, int cols, int winLength) {
+        GameState newGame = GameState.newGame(isComputerOpponent(opponentType), rows, cols, winLength);
+        if(newGame.isComputerOpponent() && !computerMoveGenerator.canPlay(rows, cols, winLength)){
+            throw new IllegalArgumentException(String.format("The computer can't play a %dx%d board with %d in a row.",
+                    rows, cols, winLength));
+        }
+
+        state.set(newGame);
+        for(GameChangeListener listener : changeListeners){
+            listener.gameStarted(newGame);
+        }
+
+        startPondering(newGame);
+    }
+
+
+    /**
+     * Checks if the opponent for the new game is the computer or a human, depending on the
+     * input. If the input attempts to select any other option, an exception is thrown.
+     *
+     * @param opponentType the desired type of opponent - computer or human.
+     * @return true if the opponent is the computer.
+     */
+    private static boolean isComputerOpponent(int opponentType){
+        if(opponentType == HUMAN_OPPONENT){
+            return false;
+        }
+        else if(opponentType == COMPUTER_OPPONENT){
+            return true;
+        }
+        else{
+            throw new IllegalArgumentException(
+                    String.format("%d is not a valid opponent code.", opponentType));
+        }
+    }
+
+
+    @Override
+    public boolean takeTurn(int row, int col) {
+        while(true){
+            GameState current = state.get();
+
+            if(current.isGameOver()){
+                return false;
+            }
+            if(current.isComputerOpponent() && current.getCurrentPlayer() != Player.X){
+                return false;
+            }
+            if(current.getValueAtBoardPosition(row, col) != null){ //if a player already went there
+                return false;
+            }
+
+
+            //Mark the chosen spot on the board with an X or O, and handle game over or next turn
+            GameState next = current.withMove(row, col);
+
+            if(state.compareAndSet(current, next)){
+                moveMade(next, row, col);
+                if(next.isGameOver()){
+                    gameFinished(next);
+                }
+                return true;
+            }
+        }
+    }
+
+
+    @Override
+    public int takeComputerTurn(){
+        return takeComputerTurn(false, 0);
+    }
+
+
+    @Override
+    public int takeComputerTurn(long deadline){
+        return takeComputerTurn(true, deadline);
+    }
+
+
+    private int takeComputerTurn(boolean hasDeadline, long deadline){
+        GameState current = state.get();
+
+        if(current.isGameOver()){
+            return Move.NONE;
+        }
+        if(!current.isComputerOpponent()){
+            throw new RuntimeException("Cannot take turn for computer in a player vs player game.");
+        }
+        if(current.getCurrentPlayer() != Player.O){ //computer is always O
+            return Move.NONE;
+        }
+
+
+        SearchPosition position = current.toSearchPosition(Player.O);
+        long start = System.nanoTime();
+        int move;
+        if(hasDeadline && computerMoveGenerator instanceof AnytimeMoveGenerator){
+            move = ((AnytimeMoveGenerator) computerMoveGenerator).chooseMove(position, deadline);
+        }
+        else{
+            move = computerMoveGenerator.chooseMove(position);
+        }
+
+        MetricsListener listener = metricsListener;
+        if(listener != null){
+            listener.computerTurnTaken(computerMoveGenerator, System.nanoTime() - start);
+        }
+
+        //The turn was cancelled, and the move may be a rushed one
+        if(Thread.currentThread().isInterrupted()){
+            return Move.NONE;
+        }
+
+        GameState next = current.withMove(Move.row(move), Move.col(move));
+
+        //If the game changed while the computer was thinking, for example because a new game
+        //was started, the move no longer applies.
+        if(!state.compareAndSet(current, next)){
+            return Move.NONE;
+        }
+
+
+        moveMade(next, Move.row(move), Move.col(move));
+        if(next.isGameOver()){
+            gameFinished(next);
+        }
+        else{
+            startPondering(next);
+        }
+
+        return move;
+    }
+
+
+    /**
+     * Tells the change listeners about a move, on the thread that made it.
+     *
+     * @param game the state straight after the move.
+     * @param row the row of the move.
+     * @param col the column of the move.
+     */
+    private void moveMade(GameState game, int row, int col){
+        Player player = game.getValueAtBoardPosition(row, col);
+
+        for(GameChangeListener listener : changeListeners){
+            listener.cellChanged(row, col, player);
+
+            if(game.isGameOver()){
+                listener.gameOver(game.getWinner());
+            }
+            else{
+                listener.turnChanged(game.getCurrentPlayer());
+            }
+        }
+    }
+
+
+    /**
+     * Called once by whichever thread made the move that ended a game.
+     *
+     * @param game the finished game.
+     */
+    private void gameFinished(GameState game){
+        stopPondering();
+
+        GameRecorder gameRecorder = recorder;
+        if(gameRecorder != null){
+            gameRecorder.gameFinished(game, game.isComputerOpponent() ? computerMoveGenerator : null);
+        }
+
+        MetricsListener listener = metricsListener;
+        if(listener != null){
+            listener.gameFinished(game);
+        }
+    }
+
+
+    /**
+     * Lets a {@link PonderingMoveGenerator PonderingMoveGenerator} start working out its replies
+     * while the human player is thinking.
+     *
+     * @param game the state in which it is the human's turn.
+     */
+    private void startPondering(GameState game){
+        if(game.isComputerOpponent() && computerMoveGenerator instanceof PonderingMoveGenerator){
+            ((PonderingMoveGenerator) computerMoveGenerator).ponder(copyBoard(game), game.getWinLength(), Player.O);
+        }
+    }
+
+
+    private void stopPondering(){
+        if(computerMoveGenerator instanceof PonderingMoveGenerator){
+            ((PonderingMoveGenerator) computerMoveGenerator).stopPondering();
+        }
+    }
+
+
+    /**
+     * Makes a copy of the game board in the 2D array form expected by the
+     * {@link ComputerMoveGenerator ComputerMoveGenerator}. Empty cells are null. This is package
+     * private so that it can be benchmarked.
+     *
+     * @return a copy of the game board.
+     */
+    Player[][] copyBoard(){
+        return copyBoard(state.get());
+    }
+
+
+    private static Player[][] copyBoard(GameState game){
+        int rows = game.getBoardRows();
+        int cols = game.getBoardColumns();
+        Player[][] copy = new Player[rows][cols];
+
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                copy[i][j] = game.cellValue(i * cols + j);
+            }
+        }
+
+        return copy;
+    }
+
+
+    @Override
+    public GameState getState() {
+        return state.get();
+    }
+
+
+    @Override
+    public Player getCurrentPlayer() {
+        return state.get().getCurrentPlayer();
+    }
+
+
+    @Override
+    public Player getWinner(){
+        return state.get().getWinner();
+    }
+
+
+    @Override
+    public boolean isGameOver() {
+        return state.get().isGameOver();
+    }
+
+
+    @Override
+    public Player getValueAtBoardPosition(int row, int col) {
+        return state.get().getValueAtBoardPosition(row, col);
+    }
+
+
+    @Override
+    public int getBoardRows() {
+        return state.get().getBoardRows();
+    }
+
+
+    @Override
+    public int getBoardColumns() {
+        return state.get().getBoardColumns();
+    }
+
+
+    @Override
+    public int getWinLength() {
+        return state.get().getWinLength();
+    }
+
+
+    /**
+     * Prints the game board to the console. This is just for testing.
+     */
+    void printGrid(){
+        GameState game = state.get();
+
+        for(int i = 0; i < game.getBoardRows(); i++){
+            System.out.print("|");
+            for(int j = 0; j < game.getBoardColumns(); j++){
+                Player value = game.getValueAtBoardPosition(i, j);
+                System.out.print((value == null ? " " : value) + "|");
+            }
+            System.out.println();
+        }
+    }
+
+
+    @Override
+    public byte[] toByteArray() {
+        GameState game = state.get();
+        int cells = game.getBoardRows() * game.getBoardColumns();
+        int moveWidth = moveWidth(cells);
+        int movesStart = HEADER_SIZE + (cells + 3) / 4;
+        byte[] bytes = new byte[movesStart + game.getMovesTaken() * moveWidth];
+
+        bytes[HEADER_ROWS] = (byte) game.getBoardRows();
+        bytes[HEADER_COLS] = (byte) game.getBoardColumns();
+        bytes[HEADER_WIN_LENGTH] = (byte) game.getWinLength();
+        bytes[HEADER_FLAGS] = (byte) (game.getCurrentPlayer().ordinal()
+                | (game.getWinner().ordinal() << 2)
+                | (game.isGameOver() ? 0 : FLAG_GAME_RUNNING)
+                | (game.isComputerOpponent() ? FLAG_COMPUTER_OPPONENT : 0));
+        bytes[HEADER_GENERATOR] = (byte) generatorId(computerMoveGenerator);
+
+
+        for(int cell = 0; cell < cells; cell++){
+            Player player = game.cellValue(cell);
+            int value;
+
+            if(player == Player.X){
+                value = CELL_X;
+            }
+            else if(player == Player.O){
+                value = CELL_O;
+            }
+            else{
+                value = CELL_EMPTY;
+            }
+
+            bytes[HEADER_SIZE + cell / 4] |= (byte) (value << ((cell % 4) * 2));
+        }
+
+        for(int i = 0; i < game.getMovesTaken(); i++){
+            int move = game.getMove(i);
+            int offset = movesStart + i * moveWidth;
+
+            bytes[offset] = (byte) move;
+            if(moveWidth == 2){
+                bytes[offset + 1] = (byte) (move >>> 8);
+            }
+        }
+
+        return bytes;
+    }
+
+
+    /**
+     * Returns the number of bytes needed to store one cell number of a board.
+     *
+     * @param cells the number of cells on the board.
+     * @return 1 if the board has at most 256 cells, otherwise 2.
+     */
+    static int moveWidth(int cells){
+        return cells <= 256 ? 1 : 2;
+    }
+
+
+    /**
+     * Returns the id a generator is saved under. Generators that aren't registered, like the
+     * ones that wrap another generator, are saved as NO_GENERATOR and restored as the default.
+     */
+    private static int generatorId(ComputerMoveGenerator generator){
+        MoveGeneratorRegistry registry = MoveGeneratorRegistry.defaultRegistry();
+
+        return registry.isRegistered(generator) ? registry.idOf(generator) : MoveGeneratorRegistry.NO_GENERATOR;
+    }
+
+
+    /**
+     * Creates the generator saved under an id, or the default generator if none was saved.
+     */
+    private static ComputerMoveGenerator createGenerator(MoveGeneratorRegistry registry, int id){
+        ComputerMoveGenerator generator = registry.create(id);
+
+        return generator != null ? generator : new MediumDifficultyMovePicker();
+    }
+
+
+    @Override
+    public void shutdown() {
+        computerMoveGenerator.shutdown();
+    }
+
+
+    /**
+     * Restores a game encoded by {@link #toByteArray toByteArray}, creating its computer move
+     * generator from the default {@link MoveGeneratorRegistry MoveGeneratorRegistry}. A game
+     * saved with a generator that isn't registered gets a MediumDifficultyMovePicker.
+     *
+     * @param bytes the encoded game state.
+     * @return a model in the same state as the one that was encoded.
+     * @throws IllegalArgumentException if the bytes are not a valid encoded game.
+     */
+    public static TicTocToeGameModel fromByteArray(byte[] bytes) {
+        return fromByteArray(bytes, MoveGeneratorRegistry.defaultRegistry());
+    }
+
+
+    /**
+     * Restores a game encoded by {@link #toByteArray toByteArray}, creating its computer move
+     * generator from the specified registry.
+     *
+     * @param bytes the encoded game state.
+     * @param registry the registry used to create the computer move generator.
+     * @return a model in the same state as the one that was encoded.
+     * @throws IllegalArgumentException if the bytes are not a valid encoded game, including if
+     * the turn, winner or game over flags don't match the moves.
+     */
+    public static TicTocToeGameModel fromByteArray(byte[] bytes, MoveGeneratorRegistry registry) {
+        if(bytes.length < HEADER_SIZE){
+            throw new IllegalArgumentException("Encoded game is too short.");
+        }
+
+        int rows = bytes[HEADER_ROWS] & 0xFF;
+        int cols = bytes[HEADER_COLS] & 0xFF;
+        int cells = rows * cols;
+        int movesStart = HEADER_SIZE + (cells + 3) / 4;
+        if(bytes.length < movesStart){
+            throw new IllegalArgumentException(String.format(
+                    "Encoded game has %d bytes, which is too short for a %dx%d board.", bytes.length, rows, cols));
+        }
+
+
+        int winLength = bytes[HEADER_WIN_LENGTH] & 0xFF;
+        GameState.checkBoardShape(rows, cols, winLength);
+
+        long[] xBoard = new long[GameState.wordsNeeded(cells)];
+        long[] oBoard = new long[GameState.wordsNeeded(cells)];
+        int movesTaken = 0;
+        for(int cell = 0; cell < cells; cell++){
+            int value = (bytes[HEADER_SIZE + cell / 4] >> ((cell % 4) * 2)) & 0b11;
+
+            if(value == CELL_X){
+                xBoard[cell >>> 6] |= 1L << cell;
+                movesTaken++;
+            }
+            else if(value == CELL_O){
+                oBoard[cell >>> 6] |= 1L << cell;
+                movesTaken++;
+            }
+            else if(value != CELL_EMPTY){
+                throw new IllegalArgumentException(String.format("Invalid value for cell %d.", cell));
+            }
+        }
+
+        int moveWidth = moveWidth(cells);
+        if(bytes.length != movesStart + movesTaken * moveWidth){
+            throw new IllegalArgumentException(String.format(
+                    "Encoded game has %d bytes, which is wrong for %d moves on a %dx%d board.",
+                    bytes.length, movesTaken, rows, cols));
+        }
+
+        int[] moveOrder = readMoveOrder(bytes, movesStart, moveWidth, movesTaken, xBoard, oBoard);
+
+
+        int flags = bytes[HEADER_FLAGS] & 0xFF;
+        if((flags & FLAG_UNUSED) != 0){
+            throw new IllegalArgumentException(String.format("Unknown flags 0x%02X.", flags & FLAG_UNUSED));
+        }
+
+        Player currentPlayer = playerFromOrdinal(flags & 0b11);
+        Player winner = playerFromOrdinal((flags >> 2) & 0b11);
+        boolean gameRunning = (flags & FLAG_GAME_RUNNING) != 0;
+        boolean computerOpponent = (flags & FLAG_COMPUTER_OPPONENT) != 0;
+
+        GameState game;
+        if(movesTaken == 0 && !gameRunning && currentPlayer == Player.NONE && winner == Player.NONE){
+            //Saved before any game was started
+            game = new GameState(rows, cols, winLength, xBoard, oBoard, moveOrder,
+                    Player.NONE, Player.NONE, false, computerOpponent);
+        }
+        else{
+            game = replay(rows, cols, winLength, moveOrder, computerOpponent);
+
+            if(currentPlayer != game.getCurrentPlayer() || winner != game.getWinner() || gameRunning == game.isGameOver()){
+                throw new IllegalArgumentException(String.format(
+                        "Encoded game says %s to move, %s won and the game is %s, but its moves say %s, %s and %s.",
+                        currentPlayer, winner, gameRunning ? "running" : "over",
+                        game.getCurrentPlayer(), game.getWinner(), game.isGameOver() ? "over" : "running"));
+            }
+        }
+
+        TicTocToeGameModel model = new TicTocToeGameModel(createGenerator(registry, bytes[HEADER_GENERATOR] & 0xFF));
+        model.state.set(game);
+
+        return model;
+    }
+
+
+    /**
+     * Plays the moves of a saved game from the start, which works out the turn, the winner and
+     * whether the game is over from the moves alone.
+     *
+     * @throws IllegalArgumentException if a move was made after the game ended.
+     */
+    private static GameState replay(int rows, int cols, int winLength, int[] moveOrder, boolean computerOpponent){
+        GameState game = GameState.newGame(computerOpponent, rows, cols, winLength);
+
+        for(int i = 0; i < moveOrder.length; i++){
+            if(game.isGameOver()){
+                throw new IllegalArgumentException(String.format("Move %d was made after the game ended.", i));
+            }
+
+            game = game.withMove(moveOrder[i] / cols, moveOrder[i] % cols);
+        }
+
+        return game;
+    }
+
+
+    /**
+     * Reads the order the cells were taken in, checking that X took the even numbered moves and
+     * O the odd ones, and that no cell was taken twice.
+     */
+    private static int[] readMoveOrder(byte[] bytes, int movesStart, int moveWidth, int movesTaken,
+                                       long[] xBoard, long[] oBoard){
+        int[] moveOrder = new int[movesTaken];
+        long[] seen = new long[xBoard.length];
+
+        for(int i = 0; i < movesTaken; i++){
+            int offset = movesStart + i * moveWidth;
+            int cell = bytes[offset] & 0xFF;
+            if(moveWidth == 2){
+                cell |= (bytes[offset + 1] & 0xFF) << 8;
+            }
+
+            long[] owner = i % 2 == 0 ? xBoard : oBoard;
+            long bit = 1L << cell;
+            if(cell >= xBoard.length * 64 || (owner[cell >>> 6] & bit) == 0 || (seen[cell >>> 6] & bit) != 0){
+                throw new IllegalArgumentException(String.format("Invalid cell %d for move %d.", cell, i));
+            }
+
+            seen[cell >>> 6] |= bit;
+            moveOrder[i] = cell;
+        }
+
+        return moveOrder;
+    }
+
+
+    private static Player playerFromOrdinal(int ordinal){
+        Player[] players = Player.values();
+
+        if(ordinal >= players.length){
+            throw new IllegalArgumentException(String.format("%d is not a valid player.", ordinal));
+        }
+
+        return players[ordinal];
+    }
+
+
+    private void writeObject(ObjectOutputStream output) throws IOException {
+        output.defaultWriteObject();
+
+
+        output.writeInt(generatorId(this.computerMoveGenerator));
+    }
+
+
+    private void readObject(ObjectInputStream input) throws ClassNotFoundException, IOException {
+        input.defaultReadObject();
+
+
+        this.computerMoveGenerator = createGenerator(MoveGeneratorRegistry.defaultRegistry(), input.readInt());
+        this.changeListeners = new CopyOnWriteArrayList<>();
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.tic_toc_toe_app.Models;
+
+import java.util.Arrays;
+
+
+/**
+ * A fixed-size table of search results, keyed by {@link SearchPosition#getKey position key},
+ * that any number of search threads can share without locking. Each entry is two longs in one
+ * long array: the data, which packs the score, bound, depth and best move, and the key XORed
+ * with the data. Entries are written and read with plain array accesses, so a thread can see
+ * half of an entry another thread is writing, but then the key it works out from the two longs
+ * won't match, and the entry is treated as a miss. Nothing is boxed or allocated after the table
+ * is made, and its size never changes.
+ *
+ * Each key has one slot. A new result replaces the one there if it was searched at least as
+ * deep, or if the old one was stored before the last call to {@link #newSearch newSearch}, so
+ * deep results from the current search are kept and stale ones are cleared out over time.
+ *
+ * {@link #probe probe} returns the packed data, which is read with the static getters:
+ * <pre>
+ * long entry = table.probe(position.getKey());
+ * if(entry != TranspositionTable.MISS &amp;&amp; TranspositionTable.depthOf(entry) &gt;= depth){
+ *     int score = TranspositionTable.scoreOf(entry);
+ * </pre>
+ */
+public final class TranspositionTable {
+    public static final long MISS = 0;
+
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+
+    public static final int MAX_MEGABYTES = 1024;
+
+    private static final int ENTRY_BYTES = 16;
+
+    //The data layout: the score in the low 32 bits, then the best cell plus 1, the depth, the
+    //bound and the generation. The top bit is always set, so stored data is never MISS.
+    private static final int MOVE_SHIFT = 32;
+    private static final int DEPTH_SHIFT = 48;
+    private static final int BOUND_SHIFT = 56;
+    private static final int GENERATION_SHIFT = 58;
+    private static final long MOVE_MASK = 0xFFFF;
+    private static final int MAX_DEPTH = 0xFF;
+    private static final int GENERATION_MASK = 0x1F;
+    private static final long STORED = 1L << 63;
+
+    //Two longs per entry: the key XOR the data, then the data
+    private final long[] entries;
+    private final int indexMask;
+
+    //Only written between searches. Read by every searcher, and a stale value only makes the
+    //replacement choice a little worse.
+    private int generation = 0;
+
+
+    /**
+     * Constructs an empty table that uses at most the specified amount of memory. The number
+     * of entries is the biggest power of two that fits.
+     *
+     * @param megabytes the most memory the table may use, from 1 to MAX_MEGABYTES.
+     */
+    public TranspositionTable(int megabytes) {
+        if(megabytes < 1 || megabytes > MAX_MEGABYTES){
+            throw new IllegalArgumentException(String.format("%d MB is not a valid table size.", megabytes));
+        }
+
+        int entryCount = Integer.highestOneBit((int) ((long) megabytes * 1024 * 1024 / ENTRY_BYTES));
+        this.entries = new long[entryCount * 2];
+        this.indexMask = entryCount - 1;
+    }
+
+
+    /**
+     * Looks up the result stored for a position.
+     *
+     * @param key the position's key.
+     * @return the entry's packed data, or MISS if nothing is stored for the position.
+     */
+    public long probe(long key) {
+        int slot = slotOf(key);
+        long data = entries[slot + 1];
+
+        return ((entries[slot] ^ data) == key ? data : MISS);
+    }
+
+
+    /**
+     * Stores the result of searching a position, unless the slot holds a deeper result from the
+     * current search.
+     *
+     * @param key the position's key.
+     * @param score the position's score, or a bound on it.
+     * @param bound EXACT, LOWER_BOUND if the real score is at least the score, or UPPER_BOUND if
+     *              it is at most the score.
+     * @param depth the number of moves ahead that were searched. Anything past 255 is stored as
+     *              255.
+     * @param cell the best cell found, or SearchPosition.NO_MOVE if there is none.
+     */
+    public void store(long key, int score, int bound, int depth, int cell) {
+        int slot = slotOf(key);
+        long old = entries[slot + 1];
+        int currentGeneration = generation;
+
+        if(old != MISS && depth < depthOf(old) && generationOf(old) == currentGeneration){
+            return;
+        }
+
+
+        long data = STORED
+                | ((long) currentGeneration << GENERATION_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT)
+                | ((long) (cell + 1) << MOVE_SHIFT)
+                | (score & 0xFFFFFFFFL);
+
+        entries[slot] = key ^ data;
+        entries[slot + 1] = data;
+    }
+
+
+    /**
+     * Marks the results stored so far as old, so the next search can replace them whatever
+     * their depth. They can still be looked up until they are replaced. Call it before each
+     * search, not during one.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+
+    /**
+     * Empties the table. Call it between searches, not during one.
+     */
+    public void clear() {
+        Arrays.fill(entries, 0);
+    }
+
+
+    /**
+     * Returns the number of entries the table can hold.
+     *
+     * @return the number of slots.
+     */
+    public int getCapacity() {
+        return entries.length / 2;
+    }
+
+
+    /**
+     * Returns the first long of the slot a key maps to, which is the key XOR the data of
+     * whatever is stored there. Together with {@link #setCheck setCheck}, this lets tests put
+     * together the half written slot a reader can see while another thread stores a result.
+     *
+     * @param key a key that maps to the slot.
+     * @return the slot's first long.
+     */
+    long getCheck(long key) {
+        return entries[slotOf(key)];
+    }
+
+
+    /**
+     * Overwrites the first long of the slot a key maps to, leaving its data alone.
+     *
+     * @param key a key that maps to the slot.
+     * @param check the new first long.
+     */
+    void setCheck(long key, long check) {
+        entries[slotOf(key)] = check;
+    }
+
+
+    private int slotOf(long key) {
+        return ((int) key & indexMask) << 1;
+    }
+
+
+    public static int scoreOf(long entry) {
+        return (int) entry;
+    }
+
+
+    /**
+     * Returns the best cell stored in an entry.
+     *
+     * @param entry the data returned by {@link #probe probe}.
+     * @return the cell, or SearchPosition.NO_MOVE if there is none.
+     */
+    public static int cellOf(long entry) {
+        return (int) ((entry >>> MOVE_SHIFT) & MOVE_MASK) - 1;
+    }
+
+
+    public static int depthOf(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+
+    public static int boundOf(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 3;
+    }
+
+
+    private static int generationOf(long entry) {
+        return (int) (entry >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+}
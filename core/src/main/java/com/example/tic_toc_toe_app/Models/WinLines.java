@@ -0,0 +1,146 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * The directions a winning line can run in, and the checks for a line through a cell that was
+ * just taken, shared by every board representation that needs them.
+ *
+ * A move can only complete lines that pass through its cell, so a win is found by walking both
+ * ways from the cell in each direction and counting the player's cells. Each walk stops after
+ * winLength - 1 cells, so the cost does not depend on the board size.
+ */
+final class WinLines {
+    //The four directions a line can run in: across, down, down-right and down-left.
+    static final int[] ROW_STEPS = {0, 1, 1, 1};
+    static final int[] COL_STEPS = {1, 0, 1, -1};
+    static final int DIRECTIONS = 4;
+
+
+    private WinLines(){}
+
+
+    /**
+     * Checks if a line of the specified length, starting at the specified cell and running in
+     * the specified direction, stays on the board.
+     *
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param length the number of cells in the line.
+     * @param row the row the line starts at.
+     * @param col the column the line starts at.
+     * @param direction the index of the direction in ROW_STEPS and COL_STEPS.
+     * @return true if every cell of the line is on the board.
+     */
+    static boolean fitsOnBoard(int rows, int cols, int length, int row, int col, int direction){
+        int endRow = row + ROW_STEPS[direction] * (length - 1);
+        int endCol = col + COL_STEPS[direction] * (length - 1);
+
+        return endRow >= 0 && endRow < rows && endCol >= 0 && endCol < cols;
+    }
+
+
+    /**
+     * Checks if the specified cell is part of a line of at least winLength cells in a player's
+     * bitset, with bit (row * cols + col) set for each cell the player has.
+     *
+     * @param bits the cells taken by the player.
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param winLength the number in a row needed to win.
+     * @param cell the cell that was just taken.
+     * @return true if the cell completes a line.
+     */
+    static boolean completesLine(long[] bits, int rows, int cols, int winLength, int cell){
+        int row = cell / cols;
+        int col = cell % cols;
+
+        for(int direction = 0; direction < DIRECTIONS; direction++){
+            int inARow = 1
+                    + countInARow(bits, rows, cols, winLength, row, col, ROW_STEPS[direction], COL_STEPS[direction])
+                    + countInARow(bits, rows, cols, winLength, row, col, -ROW_STEPS[direction], -COL_STEPS[direction]);
+
+            if(inARow >= winLength){
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Checks if the specified cell is part of a line of at least winLength cells holding the
+     * same value as it, on a board with one value per cell.
+     *
+     * @param cells the value of each cell (row * cols + col).
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param winLength the number in a row needed to win.
+     * @param cell the cell that was just taken.
+     * @return true if the cell completes a line.
+     */
+    static boolean completesLine(byte[] cells, int rows, int cols, int winLength, int cell){
+        byte player = cells[cell];
+        int row = cell / cols;
+        int col = cell % cols;
+
+        for(int direction = 0; direction < DIRECTIONS; direction++){
+            int inARow = 1
+                    + countInARow(cells, player, rows, cols, winLength, row, col, ROW_STEPS[direction], COL_STEPS[direction])
+                    + countInARow(cells, player, rows, cols, winLength, row, col, -ROW_STEPS[direction], -COL_STEPS[direction]);
+
+            if(inARow >= winLength){
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Counts how many cells in a row, starting next to the specified cell and moving in the
+     * specified direction, are set in the bitset. Stops after winLength - 1 cells since there
+     * is no need to look any further.
+     */
+    private static int countInARow(long[] bits, int rows, int cols, int winLength, int row, int col,
+                                   int rowStep, int colStep){
+        int count = 0;
+        int r = row + rowStep;
+        int c = col + colStep;
+
+        while(count < winLength - 1 && r >= 0 && r < rows && c >= 0 && c < cols){
+            int cell = r * cols + c;
+            if((bits[cell >>> 6] & (1L << cell)) == 0){
+                break;
+            }
+
+            count++;
+            r += rowStep;
+            c += colStep;
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Counts how many cells in a row, starting next to the specified cell and moving in the
+     * specified direction, hold the player's value. Stops after winLength - 1 cells.
+     */
+    private static int countInARow(byte[] cells, byte player, int rows, int cols, int winLength, int row, int col,
+                                   int rowStep, int colStep){
+        int count = 0;
+        int r = row + rowStep;
+        int c = col + colStep;
+
+        while(count < winLength - 1 && r >= 0 && r < rows && c >= 0 && c < cols
+                && cells[r * cols + c] == player){
+            count++;
+            r += rowStep;
+            c += colStep;
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.tic_toc_toe_app.Models;
+
+
+/**
+ * The random looking numbers that position keys are made of. A position's key is the XOR of
+ * {@link #cellKey cellKey} for every taken cell, and of O_TO_MOVE if it is O's turn, so a move
+ * changes the key by two XORs and making it again takes them back. Used by
+ * {@link SearchPosition SearchPosition}, which keeps its key up to date as moves are made, and by
+ * {@link OpeningBook OpeningBook}, which stores positions under their keys.
+ */
+final class ZobristKeys {
+    //Mixed into the key when O is to move
+    static final long O_TO_MOVE = cellKey(-1, Player.O);
+
+
+    private ZobristKeys() {
+    }
+
+
+    /**
+     * Returns the number mixed into a key for a player's symbol in a cell. This is the
+     * SplitMix64 finaliser, so it is the same in every run and needs no table, and books written
+     * before stay readable. It must never be changed.
+     *
+     * @param cell the cell (row * number of columns + col).
+     * @param player X or O.
+     * @return the cell's key.
+     */
+    static long cellKey(int cell, Player player) {
+        long z = ((long) cell << 1 | (player == Player.O ? 1 : 0)) * 0x9E3779B97F4A7C15L;
+
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
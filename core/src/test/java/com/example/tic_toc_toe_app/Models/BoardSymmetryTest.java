@@ -0,0 +1,123 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BoardSymmetry}.
+ */
+public class BoardSymmetryTest {
+    @Test
+    public void movesMapForwardAndBackToTheSameCell() {
+        for(int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++){
+            for(int cell = 0; cell < 9; cell++){
+                int transformed = BoardSymmetry.transformCell(cell, symmetry);
+
+                assertEquals(cell, BoardSymmetry.inverseTransformCell(transformed, symmetry));
+            }
+        }
+    }
+
+
+    @Test
+    public void movesMapForwardAndBackOnLargerBoards() {
+        int size = 15;
+
+        for(int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++){
+            int inverse = BoardSymmetry.inverse(symmetry);
+
+            for(int row = 0; row < size; row++){
+                for(int col = 0; col < size; col++){
+                    int transformed = BoardSymmetry.transformCell(row, col, size, symmetry);
+                    int back = BoardSymmetry.transformCell(transformed / size, transformed % size, size, inverse);
+
+                    assertEquals(row * size + col, back);
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void everySymmetryIsADistinctPermutation() {
+        Set<String> seen = new HashSet<>();
+
+        for(int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++){
+            StringBuilder permutation = new StringBuilder();
+            Set<Integer> targets = new HashSet<>();
+
+            for(int cell = 0; cell < 9; cell++){
+                int transformed = BoardSymmetry.transformCell(cell, symmetry);
+                targets.add(transformed);
+                permutation.append(transformed);
+            }
+
+            assertEquals(9, targets.size());
+            assertTrue(seen.add(permutation.toString()));
+        }
+    }
+
+
+    @Test
+    public void symmetricPositionsShareACanonicalKey() {
+        //X in the top left corner, O in the center, from X's point of view
+        int mine = 0b000_000_001;
+        int theirs = 0b000_010_000;
+        int key = BoardSymmetry.canonicalKey(mine, theirs);
+
+        for(int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++){
+            assertEquals(key, BoardSymmetry.canonicalKey(
+                    BoardSymmetry.transformMask(mine, symmetry),
+                    BoardSymmetry.transformMask(theirs, symmetry)));
+        }
+    }
+
+
+    @Test
+    public void canonicalizationShrinksTheReachablePositionsByNearlyEightTimes() {
+        Set<Integer> positions = new HashSet<>();
+        Set<Integer> canonicalPositions = new HashSet<>();
+
+        collectPositions(0, 0, positions, canonicalPositions);
+
+        assertEquals(5478, positions.size());
+        assertEquals(765, canonicalPositions.size());
+    }
+
+
+    /**
+     * Walks every position reachable from the specified one, recording each position's key and
+     * canonical key. Positions are stored from the point of view of the player to move.
+     */
+    private void collectPositions(int mine, int theirs, Set<Integer> positions, Set<Integer> canonicalPositions){
+        if(!positions.add((mine << 9) | theirs)){
+            return;
+        }
+        canonicalPositions.add(BoardSymmetry.canonicalKey(mine, theirs));
+
+        if(hasWin(theirs)){
+            return;
+        }
+
+        for(int cell = 0; cell < 9; cell++){
+            if(((mine | theirs) & (1 << cell)) == 0){
+                collectPositions(theirs, mine | (1 << cell), positions, canonicalPositions);
+            }
+        }
+    }
+
+
+    private boolean hasWin(int mask){
+        for(int line : ThreeByThreeBitboard.WIN_MASKS){
+            if((mask & line) == line){
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
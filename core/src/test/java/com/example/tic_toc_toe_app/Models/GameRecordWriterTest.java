@@ -0,0 +1,220 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static com.example.tic_toc_toe_app.Models.TestGames.play;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link GameRecordWriter} and {@link GameRecordReader}.
+ */
+public class GameRecordWriterTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+
+    @Test
+    public void gamesAreReadBackAsTheyWereWritten() throws IOException {
+        File log = folder.newFile();
+        GameState won = play(3, 3, 3, 0, 3, 1, 4, 2);
+        GameState drawn = play(3, 3, 3, 0, 4, 8, 2, 6, 3, 5, 7, 1);
+
+        try(GameRecordWriter writer = new GameRecordWriter(log)){
+            writer.gameFinished(won, new HardDifficultyMovePicker());
+            writer.gameFinished(drawn, null);
+        }
+
+        try(GameRecordReader reader = new GameRecordReader(log)){
+            assertEquals(3, reader.getBoardRows());
+            assertEquals(3, reader.getBoardColumns());
+            assertEquals(3, reader.getWinLength());
+            assertEquals(2, reader.getGameCount());
+
+            assertGame(reader, 0, won);
+            assertEquals(MoveGeneratorRegistry.NO_GENERATOR, reader.getXGenerator(0));
+            assertEquals(MoveGeneratorRegistry.HARD, reader.getOGenerator(0));
+
+            assertGame(reader, 1, drawn);
+            assertEquals(MoveGeneratorRegistry.NO_GENERATOR, reader.getOGenerator(1));
+        }
+    }
+
+
+    @Test
+    public void gamesOnBigBoardsUseTwoBytesPerMove() throws IOException {
+        File log = folder.newFile();
+        GameState game = play(20, 20, 5, 399, 0, 398, 1, 397, 2, 396, 3, 395);
+
+        try(GameRecordWriter writer = openLog(log, 20, 20, 5)){
+            writer.setXGenerator(MoveGeneratorRegistry.MONTE_CARLO);
+            writer.gameFinished(game, null);
+        }
+
+        try(GameRecordReader reader = new GameRecordReader(log)){
+            assertEquals(1, reader.getGameCount());
+            assertEquals(MoveGeneratorRegistry.MONTE_CARLO, reader.getXGenerator(0));
+            assertGame(reader, 0, game);
+        }
+    }
+
+
+    @Test
+    public void fullBoardOfTwoFiftySixCellsKeepsItsMoveCount() throws IOException {
+        File log = folder.newFile();
+
+        //X and O take pairs of rows in stripes, so the board fills without a line of 16
+        int[] cells = new int[256];
+        int xMoves = 0;
+        int oMoves = 0;
+        for(int cell = 0; cell < 256; cell++){
+            if((cell % 16 + cell / 32) % 2 == 0){
+                cells[2 * xMoves++] = cell;
+            }
+            else{
+                cells[2 * oMoves++ + 1] = cell;
+            }
+        }
+        GameState game = play(16, 16, 16, cells);
+        assertTrue(game.isGameOver());
+        assertEquals(256, game.getMovesTaken());
+
+        try(GameRecordWriter writer = openLog(log, 16, 16, 16)){
+            writer.gameFinished(game, null);
+        }
+
+        try(GameRecordReader reader = new GameRecordReader(log)){
+            assertEquals(256, reader.getMoveCount(0));
+            assertGame(reader, 0, game);
+        }
+    }
+
+
+    @Test
+    public void reopeningALogAppendsToIt() throws IOException {
+        File log = folder.newFile();
+        GameState first = play(3, 3, 3, 0, 3, 1, 4, 2);
+        GameState second = play(3, 3, 3, 4, 0, 2, 6, 3, 5, 1, 7, 8);
+
+        try(GameRecordWriter writer = new GameRecordWriter(log)){
+            writer.gameFinished(first, null);
+        }
+        try(GameRecordWriter writer = new GameRecordWriter(log)){
+            writer.gameFinished(second, null);
+        }
+
+        try(GameRecordReader reader = new GameRecordReader(log)){
+            assertEquals(2, reader.getGameCount());
+            assertGame(reader, 0, first);
+            assertGame(reader, 1, second);
+        }
+    }
+
+
+    @Test
+    public void halfWrittenRecordIsDroppedWhenTheLogIsReopened() throws IOException {
+        File log = folder.newFile();
+        GameState first = play(3, 3, 3, 0, 3, 1, 4, 2);
+        GameState second = play(3, 3, 3, 4, 0, 2, 6, 3, 5, 1, 7, 8);
+
+        try(GameRecordWriter writer = new GameRecordWriter(log)){
+            writer.gameFinished(first, null);
+        }
+        long wholeLength = log.length();
+
+        //As if the process died part way through writing the next record
+        try(RandomAccessFile file = new RandomAccessFile(log, "rw")){
+            file.seek(wholeLength);
+            file.write(new byte[]{1, 0, 0, 5, 0, 3});
+        }
+
+        try(GameRecordReader reader = new GameRecordReader(log)){
+            assertEquals(1, reader.getGameCount());
+        }
+
+        try(GameRecordWriter writer = new GameRecordWriter(log)){
+            assertEquals(wholeLength, log.length());
+            writer.gameFinished(second, null);
+        }
+
+        try(GameRecordReader reader = new GameRecordReader(log)){
+            assertEquals(2, reader.getGameCount());
+            assertGame(reader, 0, first);
+            assertGame(reader, 1, second);
+        }
+    }
+
+
+    @Test
+    public void recordsAreWrittenWhenTheBufferFills() throws IOException {
+        File log = folder.newFile();
+        GameState game = play(3, 3, 3, 0, 3, 1, 4, 2);
+        int recordSize = GameRecordWriter.recordSize(9, 1);
+
+        try(GameRecordWriter writer = openLog(log, 3, 3, 3, 2 * recordSize)){
+            writer.gameFinished(game, null);
+            writer.gameFinished(game, null);
+            assertEquals(GameRecordWriter.HEADER_SIZE, log.length());
+
+            //No room for a third, so the first two are written
+            writer.gameFinished(game, null);
+            assertEquals(GameRecordWriter.HEADER_SIZE + 2 * recordSize, log.length());
+
+            writer.flush();
+            assertEquals(GameRecordWriter.HEADER_SIZE + 3 * recordSize, log.length());
+        }
+    }
+
+
+    @Test(expected = IOException.class)
+    public void logOfAnotherBoardIsRefused() throws IOException {
+        File log = folder.newFile();
+        new GameRecordWriter(log).close();
+
+        openLog(log, 4, 4, 3).close();
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void gameOfAnotherBoardIsRefused() throws IOException {
+        try(GameRecordWriter writer = new GameRecordWriter(folder.newFile())){
+            writer.gameFinished(play(4, 4, 3, 0), null);
+        }
+    }
+
+
+    @Test(expected = IOException.class)
+    public void fileThatIsNotALogIsRefused() throws IOException {
+        File log = folder.newFile();
+        try(RandomAccessFile file = new RandomAccessFile(log, "rw")){
+            file.write(new byte[GameRecordWriter.HEADER_SIZE]);
+        }
+
+        new GameRecordReader(log).close();
+    }
+
+
+    private static GameRecordWriter openLog(File log, int rows, int cols, int winLength) throws IOException {
+        return openLog(log, rows, cols, winLength, 64 * 1024);
+    }
+
+
+    private static GameRecordWriter openLog(File log, int rows, int cols, int winLength, int bufferSize) throws IOException {
+        return new GameRecordWriter(log, rows, cols, winLength, MoveGeneratorRegistry.defaultRegistry(), bufferSize);
+    }
+
+
+    private static void assertGame(GameRecordReader reader, int index, GameState game){
+        assertEquals(game.getWinner(), reader.getWinner(index));
+        assertEquals(game.getMovesTaken(), reader.getMoveCount(index));
+
+        for(int i = 0; i < game.getMovesTaken(); i++){
+            assertEquals(game.getMove(i), reader.getMove(index, i));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static com.example.tic_toc_toe_app.Models.TestGames.play;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link GameState}.
+ */
+public class GameStateTest {
+    @Test
+    public void everyStateKeepsItsOwnMoves() {
+        GameState start = play(GameState.newGame(false, 20, 20, 5), 0, 1, 2);
+        GameState first = play(start, 3, 4, 5);
+
+        //Two different games going on from the same state
+        GameState second = play(start, 6, 7);
+        GameState third = play(start, 8);
+
+        assertMoves(start, 0, 1, 2);
+        assertMoves(first, 0, 1, 2, 3, 4, 5);
+        assertMoves(second, 0, 1, 2, 6, 7);
+        assertMoves(third, 0, 1, 2, 8);
+
+        //Going on from an earlier state of a game leaves the later states alone
+        GameState branch = play(first, 9);
+        assertMoves(play(second, 10), 0, 1, 2, 6, 7, 10);
+        assertMoves(branch, 0, 1, 2, 3, 4, 5, 9);
+        assertMoves(first, 0, 1, 2, 3, 4, 5);
+    }
+
+
+    @Test
+    public void longGameKeepsEveryMove() {
+        GameState game = GameState.newGame(false, 1, 255, 255);
+        for(int cell = 0; cell < 255; cell++){
+            assertFalse(game.isGameOver());
+            game = game.withMove(0, cell);
+        }
+
+        assertTrue(game.isGameOver());
+        assertEquals(255, game.getMovesTaken());
+        for(int i = 0; i < 255; i++){
+            assertEquals(i, game.getMove(i));
+        }
+    }
+
+
+    @Test
+    public void movesNotTakenYetAreOutOfBounds() {
+        GameState parent = play(GameState.newGame(false, 3, 3, 3), 4);
+        play(parent, 0);
+
+        try {
+            parent.getMove(1);
+            fail("A move the state hasn't taken should be out of bounds.");
+        } catch (IndexOutOfBoundsException e) {
+            //Expected
+        }
+    }
+
+
+    @Test
+    public void serializedStateHoldsOnlyItsOwnMoves() throws IOException, ClassNotFoundException {
+        GameState parent = play(GameState.newGame(true, 9, 9, 4), 40, 41, 30);
+        play(parent, 50, 60, 70);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(ObjectOutputStream objects = new ObjectOutputStream(out)){
+            objects.writeObject(parent);
+        }
+
+        GameState read;
+        try(ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))){
+            read = (GameState) objects.readObject();
+        }
+
+        assertMoves(read, 40, 41, 30);
+        assertEquals(Player.O, read.getCurrentPlayer());
+        assertTrue(read.isComputerOpponent());
+        assertEquals(Player.X, read.getValueAtBoardPosition(3, 3));
+
+        //The read state can go on like any other
+        assertMoves(play(read, 0), 40, 41, 30, 0);
+    }
+
+
+    private static void assertMoves(GameState game, int... cells){
+        assertEquals(cells.length, game.getMovesTaken());
+
+        for(int i = 0; i < cells.length; i++){
+            assertEquals(cells[i], game.getMove(i));
+        }
+    }
+}
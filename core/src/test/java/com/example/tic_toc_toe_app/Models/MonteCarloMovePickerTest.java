@@ -0,0 +1,68 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link MonteCarloMovePicker}.
+ */
+public class MonteCarloMovePickerTest {
+    private static final int MAX_NODES = 500;
+
+    private final MonteCarloMovePicker picker = new MonteCarloMovePicker(2, 100, new Random(7), MAX_NODES);
+
+
+    @After
+    public void shutdown() {
+        picker.shutdown();
+    }
+
+
+    @Test
+    public void treesStopGrowingAtTheirLimit() {
+        Player[][] board = new Player[9][9];
+        Random random = new Random(3);
+
+        for(int turn = 0; turn < 4; turn++){
+            int move = picker.chooseMove(board, 5, Player.O);
+            assertNull(board[Move.row(move)][Move.col(move)]);
+            board[Move.row(move)][Move.col(move)] = Player.O;
+
+            //Far more playouts than the trees have room for
+            assertTrue(picker.getPlayoutsLastMove() > MAX_NODES);
+            assertTrue(picker.getTreeNodesLastMove() <= MAX_NODES);
+
+            int reply;
+            do {
+                reply = random.nextInt(81);
+            } while(board[reply / 9][reply % 9] != null);
+            board[reply / 9][reply % 9] = Player.X;
+        }
+
+        assertEquals(1, picker.getCacheHitsLastMove());
+    }
+
+
+    @Test
+    public void winIsTakenWithAFullTree() {
+        //X has four in a row with both ends open, so O has already lost unless it can win now
+        Player[][] board = new Player[7][7];
+        for(int col = 1; col <= 4; col++){
+            board[3][col] = Player.X;
+            board[5][col - 1] = Player.O;
+        }
+
+        assertEquals(Move.of(5, 4), picker.chooseMove(board, 5, Player.O));
+        assertEquals(MAX_NODES, picker.getTreeNodesLastMove());
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyTreeIsRefused() {
+        new MonteCarloMovePicker(1, 100, new Random(), 0);
+    }
+}
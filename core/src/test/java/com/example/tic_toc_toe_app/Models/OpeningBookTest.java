@@ -0,0 +1,163 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static com.example.tic_toc_toe_app.Models.TestGames.play;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link OpeningBook}, the {@link OpeningBookBuilder} that makes it and the
+ * {@link OpeningBookMovePicker} that plays from it.
+ */
+public class OpeningBookTest {
+    //Plays the bottom right corner whenever it is asked
+    private static final ComputerMoveGenerator CORNER = (gameBoard, player) -> Move.of(2, 2);
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+
+    @Test
+    public void bestScoringMovesAreLookedUp() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(3, 3, 3, 2);
+        //The middle wins twice and draws once, the corner loses twice
+        builder.gameFinished(play(3, 3, 3, 4, 0, 1, 3, 7), null);
+        builder.gameFinished(play(3, 3, 3, 4, 0, 2, 6, 3, 1, 5), null);
+        builder.gameFinished(play(3, 3, 3, 4, 1, 0, 8, 2, 6, 7, 3, 5), null);
+        builder.gameFinished(play(3, 3, 3, 0, 4, 1, 2, 3, 6), null);
+        builder.gameFinished(play(3, 3, 3, 0, 4, 8, 2, 3, 6), null);
+
+        try(OpeningBook book = writeBook(builder, 1)){
+            assertTrue(book.covers(3, 3, 3));
+            assertFalse(book.covers(4, 4, 3));
+
+            SearchPosition position = new SearchPosition(3, 3, 3);
+            assertEquals(4, book.lookup(OpeningBook.positionKey(position)));
+            assertEquals(3, book.getGames(OpeningBook.positionKey(position)));
+
+            //O's best reply to the middle drew its one game, where the corner lost two
+            position.makeMove(4);
+            assertEquals(1, book.lookup(OpeningBook.positionKey(position)));
+            assertEquals(1, book.getGames(OpeningBook.positionKey(position)));
+
+            //Only the first two moves of each game were collected
+            position.makeMove(0);
+            assertEquals(OpeningBook.NO_MOVE, book.lookup(OpeningBook.positionKey(position)));
+            assertEquals(0, book.getGames(OpeningBook.positionKey(position)));
+        }
+    }
+
+
+    @Test
+    public void movesPlayedInTooFewGamesAreLeftOut() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(3, 3, 3, 2);
+        builder.gameFinished(play(3, 3, 3, 4, 0, 1, 3, 7), null);
+        builder.gameFinished(play(3, 3, 3, 4, 0, 2, 6, 3, 1, 5), null);
+        builder.gameFinished(play(3, 3, 3, 4, 1, 0, 8, 2, 6, 7, 3, 5), null);
+
+        try(OpeningBook book = writeBook(builder, 3)){
+            assertEquals(1, book.getPositionCount());
+
+            SearchPosition position = new SearchPosition(3, 3, 3);
+            assertEquals(4, book.lookup(OpeningBook.positionKey(position)));
+            position.makeMove(4);
+            assertEquals(OpeningBook.NO_MOVE, book.lookup(OpeningBook.positionKey(position)));
+        }
+    }
+
+
+    @Test
+    public void gamesAreAddedFromARecordLog() throws IOException {
+        File log = folder.newFile();
+        try(GameRecordWriter writer = new GameRecordWriter(log)){
+            writer.gameFinished(play(3, 3, 3, 4, 0, 1, 3, 7), null);
+            writer.gameFinished(play(3, 3, 3, 4, 0, 2, 6, 3, 1, 5), null);
+        }
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(3, 3, 3, 4);
+        try(GameRecordReader reader = new GameRecordReader(log)){
+            builder.addGames(reader);
+        }
+
+        try(OpeningBook book = writeBook(builder, 1)){
+            assertEquals(builder.getPositionCount(), book.getPositionCount());
+
+            SearchPosition position = new SearchPosition(3, 3, 3);
+            position.makeMove(4);
+            assertEquals(0, book.lookup(OpeningBook.positionKey(position)));
+            assertEquals(2, book.getGames(OpeningBook.positionKey(position)));
+        }
+    }
+
+
+    @Test
+    public void boardAndPositionKeysAgree() {
+        SearchPosition position = new SearchPosition(4, 5, 3);
+        Player[][] board = new Player[4][5];
+
+        for(int cell : new int[]{7, 12, 0, 19, 3}){
+            assertEquals(OpeningBook.positionKey(position), OpeningBook.positionKey(board, position.getSideToMove()));
+
+            board[cell / 5][cell % 5] = position.getSideToMove();
+            position.makeMove(cell);
+        }
+        assertEquals(OpeningBook.positionKey(position), OpeningBook.positionKey(board, Player.O));
+    }
+
+
+    @Test
+    public void bookMovesArePlayedUntilTheGameLeavesTheBook() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(3, 3, 3, 1);
+        builder.gameFinished(play(3, 3, 3, 4, 0, 1, 3, 7), null);
+
+        try(OpeningBook book = writeBook(builder, 1)){
+            OpeningBookMovePicker picker = new OpeningBookMovePicker(book, CORNER);
+
+            assertEquals(Move.of(1, 1), picker.chooseMove(new SearchPosition(3, 3, 3)));
+            assertEquals(Move.of(1, 1), picker.chooseMove(new Player[3][3], 3, Player.X));
+            assertEquals(2, picker.getHits());
+
+            SearchPosition position = new SearchPosition(3, 3, 3);
+            position.makeMove(0);
+            assertEquals(Move.of(2, 2), picker.chooseMove(position));
+            assertEquals(1, picker.getMisses());
+        }
+    }
+
+
+    @Test
+    public void bookMovesOffTheBoardGoToTheWrappedGenerator() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(3, 3, 3, 1);
+        builder.gameFinished(play(3, 3, 3, 4, 0, 1, 3, 7), null);
+        File bookFile = folder.newFile();
+        builder.write(bookFile, 1);
+
+        //Damage the only entry's cell
+        try(RandomAccessFile file = new RandomAccessFile(bookFile, "rw")){
+            file.seek(OpeningBook.HEADER_SIZE + OpeningBook.ENTRY_CELL);
+            file.writeInt(9);
+        }
+
+        try(OpeningBook book = new OpeningBook(bookFile)){
+            OpeningBookMovePicker picker = new OpeningBookMovePicker(book, CORNER);
+
+            assertEquals(Move.of(2, 2), picker.chooseMove(new SearchPosition(3, 3, 3)));
+            assertEquals(Move.of(2, 2), picker.chooseMove(new Player[3][3], 3, Player.X));
+            assertEquals(0, picker.getHits());
+        }
+    }
+
+
+    private OpeningBook writeBook(OpeningBookBuilder builder, int minGames) throws IOException {
+        File bookFile = folder.newFile();
+        builder.write(bookFile, minGames);
+
+        return new OpeningBook(bookFile);
+    }
+}
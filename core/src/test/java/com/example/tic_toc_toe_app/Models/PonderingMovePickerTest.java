@@ -0,0 +1,121 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PonderingMovePicker}.
+ */
+public class PonderingMovePickerTest {
+    private final FirstEmptyCell generator = new FirstEmptyCell();
+    private final PonderingMovePicker picker = new PonderingMovePicker(generator, 8);
+
+
+    @After
+    public void shutdown() {
+        picker.shutdown();
+    }
+
+
+    @Test
+    public void movesNearTheLastMovesArePonderedFirst() {
+        Player[][] board = new Player[9][9];
+        board[4][4] = Player.X;
+
+        //The reply goes in the top left corner
+        int reply = picker.chooseMove(board, 5, Player.O);
+        assertEquals(Move.of(0, 0), reply);
+        board[0][0] = Player.O;
+        picker.ponder(copy(board), 5, Player.O);
+
+        //Next to the reply is pondered, even though most of the board comes first row by row
+        board[1][1] = Player.X;
+        picker.chooseMove(board, 5, Player.O);
+        assertEquals(1, picker.getHits());
+
+        board[0][1] = Player.O;
+        picker.ponder(copy(board), 5, Player.O);
+
+        //Far from both last moves isn't
+        board[8][8] = Player.X;
+        picker.chooseMove(board, 5, Player.O);
+        assertEquals(1, picker.getHits());
+        assertEquals(2, picker.getMisses());
+    }
+
+
+    @Test
+    public void deadlineIsPassedToTheWrappedGenerator() {
+        Player[][] board = new Player[5][5];
+        board[2][2] = Player.X;
+        long deadline = System.nanoTime() + 1_000_000_000L;
+
+        int move = picker.chooseMove(SearchPosition.fromBoard(board, 4, Player.O), deadline);
+
+        assertEquals(Move.of(0, 0), move);
+        assertEquals(deadline, generator.lastDeadline);
+    }
+
+
+    @Test
+    public void ponderedReplyIsUsedWithADeadline() {
+        Player[][] board = new Player[5][5];
+        board[2][2] = Player.X;
+        board[0][0] = Player.O;
+        picker.ponder(copy(board), 4, Player.O);
+
+        board[1][1] = Player.X;
+        int move = picker.chooseMove(SearchPosition.fromBoard(board, 4, Player.O), System.nanoTime() + 1_000_000_000L);
+
+        assertEquals(Move.of(0, 1), move);
+        assertEquals(1, picker.getHits());
+        assertEquals(0, generator.lastDeadline);
+    }
+
+
+    private static Player[][] copy(Player[][] board){
+        Player[][] copy = new Player[board.length][];
+
+        for(int i = 0; i < board.length; i++){
+            copy[i] = board[i].clone();
+        }
+
+        return copy;
+    }
+
+
+
+    /****       Inner Classes       ****/
+
+    /**
+     * Always picks the first empty cell, row by row, and remembers the last deadline it was
+     * given.
+     */
+    private static class FirstEmptyCell implements AnytimeMoveGenerator {
+        private volatile long lastDeadline = 0;
+
+
+        @Override
+        public int chooseMove(Player[][] gameBoard, Player whoseTurnToTake) {
+            for(int i = 0; i < gameBoard.length; i++){
+                for(int j = 0; j < gameBoard[i].length; j++){
+                    if(gameBoard[i][j] == null){
+                        return Move.of(i, j);
+                    }
+                }
+            }
+
+            return Move.NONE;
+        }
+
+
+        @Override
+        public int chooseMove(SearchPosition position, long deadline) {
+            lastDeadline = deadline;
+
+            return chooseMove(position.toBoard(), position.getSideToMove());
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SearchPosition}.
+ */
+public class SearchPositionTest {
+    @Test
+    public void unmakingMovesRestoresEveryPositionOnTheWay() {
+        int[][] shapes = {{3, 3, 3}, {4, 7, 4}, {9, 9, 5}, {1, 70, 5}, {15, 15, 5}};
+        Random random = new Random(3);
+
+        for(int[] shape : shapes){
+            for(int game = 0; game < 20; game++){
+                SearchPosition position = new SearchPosition(shape[0], shape[1], shape[2]);
+                Player[][][] boards = new Player[shape[0] * shape[1] + 1][][];
+                Player[] sides = new Player[boards.length];
+
+                while(!position.isGameOver()){
+                    boards[position.getMoveCount()] = position.toBoard();
+                    sides[position.getMoveCount()] = position.getSideToMove();
+
+                    int cell = randomEmptyCell(position, random);
+                    position.makeMove(cell);
+
+                    assertEquals(cell, position.getLastMove());
+                    assertNotEquals(sides[position.getMoveCount() - 1], position.getSideToMove());
+                }
+
+                while(position.getMoveCount() > 0){
+                    position.unmakeMove();
+
+                    assertArrayEquals(boards[position.getMoveCount()], position.toBoard());
+                    assertEquals(sides[position.getMoveCount()], position.getSideToMove());
+                    assertEquals(Player.NONE, position.getWinner());
+                }
+                assertEquals(SearchPosition.NO_MOVE, position.getLastMove());
+            }
+        }
+    }
+
+
+    @Test
+    public void winsAreFoundInEveryDirection() {
+        //X's cells for a win across, down, down-right and down-left on a 5x5 board, with O
+        //going along the bottom row
+        int[][] wins = {{6, 7, 8}, {2, 7, 12}, {0, 6, 12}, {4, 8, 12}};
+
+        for(int[] win : wins){
+            SearchPosition position = new SearchPosition(5, 5, 3);
+
+            for(int i = 0; i < win.length; i++){
+                assertEquals(Player.NONE, position.getWinner());
+                position.makeMove(win[i]);
+                if(i < win.length - 1){
+                    position.makeMove(20 + 2 * i);
+                }
+            }
+
+            assertEquals(Player.X, position.getWinner());
+            assertTrue(position.isGameOver());
+            assertFalse(position.isDraw());
+        }
+    }
+
+
+    @Test
+    public void fullBoardWithoutALineIsADraw() {
+        SearchPosition position = new SearchPosition(3, 3, 3);
+        for(int cell : new int[]{0, 4, 8, 2, 6, 3, 5, 7, 1}){
+            position.makeMove(cell);
+        }
+
+        assertTrue(position.isDraw());
+        assertEquals(SearchPosition.NO_MOVE, position.nextEmptyCell(SearchPosition.NO_MOVE));
+    }
+
+
+    @Test
+    public void nextEmptyCellVisitsEveryEmptyCellInOrder() {
+        SearchPosition position = new SearchPosition(10, 13, 5);
+        Random random = new Random(5);
+        for(int i = 0; i < 40; i++){
+            position.makeMove(randomEmptyCell(position, random));
+        }
+
+        int expected = -1;
+        for(int cell = position.nextEmptyCell(SearchPosition.NO_MOVE); cell != SearchPosition.NO_MOVE;
+                cell = position.nextEmptyCell(cell)){
+            do {
+                expected++;
+            } while(!position.isEmpty(expected));
+
+            assertEquals(expected, cell);
+        }
+
+        for(expected++; expected < 130; expected++){
+            assertFalse(position.isEmpty(expected));
+        }
+    }
+
+
+    @Test
+    public void boardMovesCantBeUnmade() {
+        Player[][] board = new Player[4][4];
+        board[1][1] = Player.X;
+        board[2][2] = Player.O;
+        SearchPosition position = SearchPosition.fromBoard(board, 3, Player.X);
+
+        assertEquals(SearchPosition.NO_MOVE, position.getLastMove());
+        position.makeMove(0);
+        position.unmakeMove();
+
+        try {
+            position.unmakeMove();
+            fail("The board's moves should not be unmade.");
+        } catch (IllegalStateException e) {
+            //Expected
+        }
+        assertArrayEquals(board, position.toBoard());
+    }
+
+
+    @Test
+    public void copyKeepsItsOwnMovesToUnmake() {
+        SearchPosition position = new SearchPosition(4, 4, 4);
+        position.makeMove(5);
+        position.makeMove(10);
+
+        SearchPosition copy = position.copy();
+        copy.makeMove(0);
+        copy.unmakeMove();
+        copy.unmakeMove();
+
+        assertEquals(2, position.getMoveCount());
+        assertEquals(Player.O, position.getValueAt(2, 2));
+        assertNull(copy.getValueAt(2, 2));
+        assertEquals(Player.O, copy.getSideToMove());
+    }
+
+
+    @Test
+    public void illegalMovesAreRefused() {
+        SearchPosition position = new SearchPosition(3, 3, 3);
+        position.makeMove(4);
+
+        try {
+            position.makeMove(4);
+            fail("A taken cell should be refused.");
+        } catch (IllegalArgumentException e) {
+            //Expected
+        }
+        try {
+            position.makeMove(9);
+            fail("A cell off the board should be refused.");
+        } catch (IndexOutOfBoundsException e) {
+            //Expected
+        }
+
+        for(int cell : new int[]{0, 1, 8, 7}){
+            position.makeMove(cell);
+        }
+        try {
+            position.makeMove(3);
+            fail("A move after the game is over should be refused.");
+        } catch (IllegalStateException e) {
+            //Expected
+        }
+    }
+
+
+    @Test
+    public void keyMatchesAKeyWorkedOutFromScratch() {
+        int[][] shapes = {{3, 3, 3}, {6, 11, 4}, {15, 15, 5}};
+        Random random = new Random(11);
+
+        for(int[] shape : shapes){
+            for(int game = 0; game < 20; game++){
+                SearchPosition position = new SearchPosition(shape[0], shape[1], shape[2]);
+                long[] keys = new long[shape[0] * shape[1] + 1];
+
+                while(!position.isGameOver()){
+                    assertEquals(scratchKey(position), position.getKey());
+                    keys[position.getMoveCount()] = position.getKey();
+                    position.makeMove(randomEmptyCell(position, random));
+                }
+                assertEquals(scratchKey(position), position.getKey());
+
+                //Every way of getting the same position gives the same key
+                Player[][] board = position.toBoard();
+                assertEquals(position.getKey(), position.copy().getKey());
+                assertEquals(position.getKey(), SearchPosition.fromBoard(board, shape[2], position.getSideToMove()).getKey());
+                assertEquals(position.getKey(), OpeningBook.positionKey(board, position.getSideToMove()));
+
+                while(position.getMoveCount() > 0){
+                    position.unmakeMove();
+                    assertEquals(keys[position.getMoveCount()], position.getKey());
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void keyDependsOnThePositionNotTheMoveOrder() {
+        SearchPosition first = new SearchPosition(5, 5, 4);
+        SearchPosition second = new SearchPosition(5, 5, 4);
+        for(int cell : new int[]{12, 6, 18, 0}){
+            first.makeMove(cell);
+        }
+        for(int cell : new int[]{18, 0, 12, 6}){
+            second.makeMove(cell);
+        }
+
+        assertEquals(first.getKey(), second.getKey());
+
+        //The same cells with the other player to move, or with the players swapped, differ
+        Player[][] board = first.toBoard();
+        assertNotEquals(first.getKey(), SearchPosition.fromBoard(board, 4, Player.O).getKey());
+        for(Player[] row : board){
+            for(int col = 0; col < row.length; col++){
+                row[col] = (row[col] == Player.X ? Player.O : row[col] == Player.O ? Player.X : null);
+            }
+        }
+        assertNotEquals(first.getKey(), SearchPosition.fromBoard(board, 4, Player.X).getKey());
+    }
+
+
+    /**
+     * Works out a position's key from its cells, the way {@link ZobristKeys ZobristKeys}
+     * describes.
+     */
+    private static long scratchKey(SearchPosition position){
+        long key = (position.getSideToMove() == Player.O ? ZobristKeys.O_TO_MOVE : 0);
+
+        for(int row = 0; row < position.getRows(); row++){
+            for(int col = 0; col < position.getColumns(); col++){
+                Player player = position.getValueAt(row, col);
+                if(player != null){
+                    key ^= ZobristKeys.cellKey(row * position.getColumns() + col, player);
+                }
+            }
+        }
+
+        return key;
+    }
+
+
+    private static int randomEmptyCell(SearchPosition position, Random random){
+        int cell;
+        do {
+            cell = random.nextInt(position.getRows() * position.getColumns());
+        } while(!position.isEmpty(cell));
+
+        return cell;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.tic_toc_toe_app.Models;
+
+import static org.junit.Assert.*;
+
+/**
+ * Plays the games the tests are set up with. Cells are numbered row * columns + col, and the
+ * players take them in turn, X first.
+ */
+final class TestGames {
+    private TestGames(){}
+
+
+    /**
+     * Plays a game between two people from the start.
+     *
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param winLength the number of symbols in a row needed to win.
+     * @param cells the cells taken, in order.
+     * @return the state after the last move.
+     */
+    static GameState play(int rows, int cols, int winLength, int... cells){
+        return play(GameState.newGame(false, rows, cols, winLength), cells);
+    }
+
+
+    /**
+     * Carries on a game from the specified state.
+     *
+     * @param game the state to carry on from.
+     * @param cells the cells taken, in order.
+     * @return the state after the last move.
+     */
+    static GameState play(GameState game, int... cells){
+        for(int cell : cells){
+            game = game.withMove(cell / game.getBoardColumns(), cell % game.getBoardColumns());
+        }
+
+        return game;
+    }
+
+
+    /**
+     * Plays a game between two people through a model, checking every move is taken.
+     *
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     * @param winLength the number of symbols in a row needed to win.
+     * @param cells the cells taken, in order.
+     * @return the model after the last move.
+     */
+    static TicTocToeGameModel playModel(int rows, int cols, int winLength, int... cells){
+        TicTocToeGameModel model = new TicTocToeGameModel(new MediumDifficultyMovePicker());
+        model.startNewGame(TicTocToeGame.HUMAN_OPPONENT, rows, cols, winLength);
+
+        for(int cell : cells){
+            assertTrue(model.takeTurn(cell / cols, cell % cols));
+        }
+
+        return model;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ThreatEvaluator}.
+ */
+public class ThreatEvaluatorTest {
+    private static final int[] ROW_STEPS = {0, 1, 1, 1};
+    private static final int[] COL_STEPS = {1, 0, 1, -1};
+
+    private static final int EMPTY = 0;
+    private static final int X = 1;
+    private static final int O = 2;
+
+
+    @Test
+    public void countsMatchARescanAsMovesAreMadeAndUnmade() {
+        int[][] shapes = {{3, 3, 3}, {4, 4, 1}, {5, 9, 4}, {8, 6, 5}, {15, 15, 5}};
+        Random random = new Random(7);
+
+        for(int[] shape : shapes){
+            for(int game = 0; game < 20; game++){
+                playRandomGame(shape[0], shape[1], shape[2], random);
+            }
+        }
+    }
+
+
+    @Test
+    public void threatScoreDoesNotOverflowOnLongLines() {
+        //Every line through the middle cell is X's, with 31 of the 32 in a row needed, and O
+        //is spread out where it can't get in the way
+        int size = 64;
+        int winLength = 32;
+        int middle = 32 * size + 32;
+        ThreatEvaluator board = new ThreatEvaluator(size, size, winLength);
+
+        int nextO = 0;
+        for(int direction = 0; direction < 4; direction++){
+            for(int distance = -31; distance <= 31; distance++){
+                int row = 32 + ROW_STEPS[direction] * distance;
+                int col = 32 + COL_STEPS[direction] * distance;
+                if(distance == 0 || row < 0 || row >= size || col < 0 || col >= size){
+                    continue;
+                }
+
+                board.makeMove(row * size + col);
+                nextO = nextOffLines(nextO, size);
+                board.makeMove(nextO++);
+            }
+        }
+
+        int score = board.threatScore(middle);
+        assertTrue(score > 0);
+        assertTrue(score > board.threatScore(0));
+        assertEquals(Player.NONE, board.getWinner());
+    }
+
+
+    /**
+     * Finds the next cell, from the specified one on, that only has even coordinates, so no two
+     * of them are next to each other, and that is on none of the lines through the middle.
+     */
+    private static int nextOffLines(int cell, int size){
+        while(true){
+            int row = cell / size;
+            int col = cell % size;
+            if(row % 2 == 0 && col % 2 == 0 && row != 32 && col != 32 && row - col != 0 && row + col != 64){
+                return cell;
+            }
+            cell++;
+        }
+    }
+
+
+    private static void playRandomGame(int rows, int cols, int winLength, Random random){
+        ThreatEvaluator board = new ThreatEvaluator(rows, cols, winLength);
+        int[] cells = new int[rows * cols];
+        int[] moves = new int[rows * cols];
+        int moveCount = 0;
+
+        assertMatchesRescan(board, cells, rows, cols, winLength);
+        while(!board.isGameOver()){
+            int cell;
+            do {
+                cell = random.nextInt(cells.length);
+            } while(cells[cell] != EMPTY);
+
+            cells[cell] = (board.getSideToMove() == Player.X ? X : O);
+            board.makeMove(cell);
+            moves[moveCount++] = cell;
+
+            assertMatchesRescan(board, cells, rows, cols, winLength);
+        }
+
+        while(moveCount > 0){
+            board.unmakeMove();
+            cells[moves[--moveCount]] = EMPTY;
+
+            assertMatchesRescan(board, cells, rows, cols, winLength);
+        }
+    }
+
+
+    /**
+     * Counts every line, the taken cells and the winner from scratch, and checks the board
+     * agrees.
+     */
+    private static void assertMatchesRescan(ThreatEvaluator board, int[] cells, int rows, int cols, int winLength){
+        int[][] openLines = new int[3][winLength + 1];
+        boolean[] won = new boolean[3];
+
+        //A single cell is only one line, not one in every direction
+        int directions = (winLength == 1 ? 1 : 4);
+        for(int direction = 0; direction < directions; direction++){
+            for(int row = 0; row < rows; row++){
+                for(int col = 0; col < cols; col++){
+                    int endRow = row + ROW_STEPS[direction] * (winLength - 1);
+                    int endCol = col + COL_STEPS[direction] * (winLength - 1);
+                    if(endRow >= rows || endCol < 0 || endCol >= cols){
+                        continue;
+                    }
+
+                    int[] counts = new int[3];
+                    for(int k = 0; k < winLength; k++){
+                        counts[cells[(row + ROW_STEPS[direction] * k) * cols + col + COL_STEPS[direction] * k]]++;
+                    }
+
+                    if(counts[O] == 0){
+                        openLines[X][counts[X]]++;
+                    }
+                    if(counts[X] == 0){
+                        openLines[O][counts[O]]++;
+                    }
+                    won[X] |= counts[X] == winLength;
+                    won[O] |= counts[O] == winLength;
+                }
+            }
+        }
+
+        for(int n = 0; n <= winLength; n++){
+            assertEquals(openLines[X][n], board.getOpenLines(Player.X, n));
+            assertEquals(openLines[O][n], board.getOpenLines(Player.O, n));
+        }
+        assertEquals(won[X] ? Player.X : won[O] ? Player.O : Player.NONE, board.getWinner());
+
+        for(int cell = 0; cell < cells.length; cell++){
+            assertEquals(cells[cell] == EMPTY, board.isEmpty(cell));
+            assertEquals(cells[cell] == EMPTY && hasTakenCellNearby(cells, cell, rows, cols), board.isCandidate(cell));
+        }
+    }
+
+
+    private static boolean hasTakenCellNearby(int[] cells, int cell, int rows, int cols){
+        for(int row = cell / cols - 2; row <= cell / cols + 2; row++){
+            for(int col = cell % cols - 2; col <= cell % cols + 2; col++){
+                if(row >= 0 && row < rows && col >= 0 && col < cols && cells[row * cols + col] != EMPTY){
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+}
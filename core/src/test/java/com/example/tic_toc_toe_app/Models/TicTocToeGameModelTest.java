@@ -0,0 +1,220 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.tic_toc_toe_app.Models.TestGames.playModel;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the binary form of {@link TicTocToeGameModel}.
+ */
+public class TicTocToeGameModelTest {
+    //Where the flags and the cells start in the encoded form
+    private static final int FLAGS = 3;
+    private static final int CELLS = 5;
+
+
+    @Test
+    public void wonGameOnAThreeByThreeBoardRoundTrips() {
+        TicTocToeGameModel model = playModel(3, 3, 3, 0, 3, 1, 4, 2);
+
+        assertEquals(Player.X, model.getWinner());
+        assertRoundTrips(model);
+    }
+
+
+    @Test
+    public void drawnGameOnAThreeByThreeBoardRoundTrips() {
+        TicTocToeGameModel model = playModel(3, 3, 3, 0, 4, 8, 2, 6, 3, 5, 7, 1);
+
+        assertTrue(model.isGameOver());
+        assertEquals(Player.NONE, model.getWinner());
+        assertRoundTrips(model);
+    }
+
+
+    @Test
+    public void wonGameOnAFifteenByFifteenBoardRoundTrips() {
+        //X makes five in a row along row 7 while O fills row 8
+        int[] moves = new int[9];
+        for(int i = 0; i < moves.length; i++){
+            moves[i] = (i % 2 == 0 ? 7 : 8) * 15 + i / 2;
+        }
+        TicTocToeGameModel model = playModel(15, 15, 5, moves);
+
+        assertEquals(Player.X, model.getWinner());
+        assertRoundTrips(model);
+    }
+
+
+    @Test
+    public void drawnGameOnAFifteenByFifteenBoardRoundTrips() {
+        //X takes the cells where (col + 2 * row) % 4 < 2, which leaves no line longer than two
+        //for either player, and the board has one more of those cells than the others
+        List<Integer> xCells = new ArrayList<>();
+        List<Integer> oCells = new ArrayList<>();
+        for(int cell = 0; cell < 15 * 15; cell++){
+            (((cell % 15) + 2 * (cell / 15)) % 4 < 2 ? xCells : oCells).add(cell);
+        }
+
+        int[] moves = new int[15 * 15];
+        for(int i = 0; i < moves.length; i++){
+            moves[i] = (i % 2 == 0 ? xCells : oCells).get(i / 2);
+        }
+        TicTocToeGameModel model = playModel(15, 15, 5, moves);
+
+        assertTrue(model.isGameOver());
+        assertEquals(Player.NONE, model.getWinner());
+        assertRoundTrips(model);
+    }
+
+
+    @Test
+    public void runningGameOnABoardWithTwoByteMovesRoundTrips() {
+        TicTocToeGameModel model = playModel(20, 20, 5, 0, 399, 210, 189, 257);
+
+        assertFalse(model.isGameOver());
+        assertRoundTrips(model);
+    }
+
+
+    @Test
+    public void gameThatWasNeverStartedRoundTrips() {
+        assertRoundTrips(new TicTocToeGameModel(new MediumDifficultyMovePicker()));
+    }
+
+
+    @Test
+    public void javaSerializationRoundTrips() throws IOException, ClassNotFoundException {
+        TicTocToeGameModel model = playModel(15, 15, 5, 112, 113, 97);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(ObjectOutputStream objects = new ObjectOutputStream(out)){
+            objects.writeObject(model);
+        }
+        try(ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))){
+            TicTocToeGameModel restored = (TicTocToeGameModel) objects.readObject();
+
+            assertArrayEquals(model.toByteArray(), restored.toByteArray());
+        }
+    }
+
+
+    @Test
+    public void unregisteredGeneratorIsRestoredAsTheDefault() {
+        PonderingMovePicker pondering = new PonderingMovePicker(new HardDifficultyMovePicker());
+        TicTocToeGameModel model = new TicTocToeGameModel(pondering);
+        model.startNewGame(TicTocToeGame.COMPUTER_OPPONENT);
+        model.takeTurn(1, 1);
+        model.takeComputerTurn();
+
+        TicTocToeGameModel restored = TicTocToeGameModel.fromByteArray(model.toByteArray());
+        model.shutdown();
+
+        assertEquals(Player.X, restored.getCurrentPlayer());
+        int cell = 0;
+        while(restored.getValueAtBoardPosition(cell / 3, cell % 3) != null){
+            cell++;
+        }
+        assertTrue(restored.takeTurn(cell / 3, cell % 3));
+        assertNotEquals(Move.NONE, restored.takeComputerTurn());
+    }
+
+
+    @Test
+    public void flagsThatDisagreeWithTheMovesAreRejected() {
+        byte[] running = playModel(3, 3, 3, 0, 4).toByteArray();
+        byte[] won = playModel(3, 3, 3, 0, 3, 1, 4, 2).toByteArray();
+
+        //O to move when it is X's turn
+        assertRejected(withFlags(running, (running[FLAGS] & ~0b11) | Player.O.ordinal()));
+        //A winner in a running game
+        assertRejected(withFlags(running, running[FLAGS] | (Player.O.ordinal() << 2)));
+        //A won game that is still running
+        assertRejected(withFlags(won, won[FLAGS] | (1 << 4)));
+        //A won game without its winner
+        assertRejected(withFlags(won, won[FLAGS] & ~0b1100));
+        //Flag bits that mean nothing
+        assertRejected(withFlags(running, running[FLAGS] | 0x80));
+    }
+
+
+    @Test
+    public void movesAfterTheGameEndedAreRejected() {
+        byte[] won = playModel(3, 3, 3, 0, 3, 1, 4, 2).toByteArray();
+
+        //O goes in the bottom right corner after X has won
+        byte[] extended = Arrays.copyOf(won, won.length + 1);
+        extended[CELLS + 2] |= 2;
+        extended[extended.length - 1] = 8;
+
+        assertRejected(extended);
+    }
+
+
+    @Test
+    public void cellsThatDisagreeWithTheMovesAreRejected() {
+        byte[] running = playModel(3, 3, 3, 0, 4).toByteArray();
+
+        //X's first move is in the top right corner in the cells, but the top left in the moves
+        byte[] moved = running.clone();
+        moved[CELLS] = (byte) ((moved[CELLS] & ~0b11) | (1 << 4));
+
+        assertRejected(moved);
+        assertRejected(Arrays.copyOf(running, running.length - 1));
+    }
+
+
+    private static void assertRoundTrips(TicTocToeGameModel model){
+        byte[] bytes = model.toByteArray();
+        TicTocToeGameModel restored = TicTocToeGameModel.fromByteArray(bytes);
+        GameState expected = model.getState();
+        GameState actual = restored.getState();
+
+        assertEquals(expected.getBoardRows(), actual.getBoardRows());
+        assertEquals(expected.getBoardColumns(), actual.getBoardColumns());
+        assertEquals(expected.getWinLength(), actual.getWinLength());
+        assertEquals(expected.getCurrentPlayer(), actual.getCurrentPlayer());
+        assertEquals(expected.getWinner(), actual.getWinner());
+        assertEquals(expected.isGameOver(), actual.isGameOver());
+        assertEquals(expected.isComputerOpponent(), actual.isComputerOpponent());
+        assertEquals(expected.getMovesTaken(), actual.getMovesTaken());
+
+        for(int i = 0; i < expected.getMovesTaken(); i++){
+            assertEquals(expected.getMove(i), actual.getMove(i));
+        }
+        for(int row = 0; row < expected.getBoardRows(); row++){
+            for(int col = 0; col < expected.getBoardColumns(); col++){
+                assertEquals(expected.getValueAtBoardPosition(row, col), actual.getValueAtBoardPosition(row, col));
+            }
+        }
+
+        assertArrayEquals(bytes, restored.toByteArray());
+    }
+
+
+    private static byte[] withFlags(byte[] bytes, int flags){
+        byte[] changed = bytes.clone();
+        changed[FLAGS] = (byte) flags;
+        return changed;
+    }
+
+
+    private static void assertRejected(byte[] bytes){
+        try {
+            TicTocToeGameModel.fromByteArray(bytes);
+            fail("The bytes should have been rejected.");
+        } catch (IllegalArgumentException e) {
+            //Expected
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.tic_toc_toe_app.Models;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TranspositionTable}.
+ */
+public class TranspositionTableTest {
+    @Test
+    public void storedResultIsProbed() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x123456789ABCDEF0L;
+
+        assertEquals(TranspositionTable.MISS, table.probe(key));
+        table.store(key, -1_000_003, TranspositionTable.UPPER_BOUND, 12, 65024);
+
+        long entry = table.probe(key);
+        assertNotEquals(TranspositionTable.MISS, entry);
+        assertEquals(-1_000_003, TranspositionTable.scoreOf(entry));
+        assertEquals(TranspositionTable.UPPER_BOUND, TranspositionTable.boundOf(entry));
+        assertEquals(12, TranspositionTable.depthOf(entry));
+        assertEquals(65024, TranspositionTable.cellOf(entry));
+    }
+
+
+    @Test
+    public void entryWithoutAMoveOrPastTheLargestDepthIsProbed() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(7, 0, TranspositionTable.EXACT, 300, SearchPosition.NO_MOVE);
+
+        long entry = table.probe(7);
+        assertEquals(0, TranspositionTable.scoreOf(entry));
+        assertEquals(TranspositionTable.EXACT, TranspositionTable.boundOf(entry));
+        assertEquals(255, TranspositionTable.depthOf(entry));
+        assertEquals(SearchPosition.NO_MOVE, TranspositionTable.cellOf(entry));
+    }
+
+
+    @Test
+    public void keyInTheSameSlotIsAMiss() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(42, 5, TranspositionTable.EXACT, 3, 1);
+
+        assertEquals(TranspositionTable.MISS, table.probe(42 + table.getCapacity()));
+        assertNotEquals(TranspositionTable.MISS, table.probe(42));
+    }
+
+
+    @Test
+    public void deeperResultIsKeptUntilTheNextSearch() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(42, 5, TranspositionTable.EXACT, 6, 1);
+
+        table.store(42, 9, TranspositionTable.EXACT, 2, 3);
+        assertEquals(6, TranspositionTable.depthOf(table.probe(42)));
+
+        table.store(42, 9, TranspositionTable.EXACT, 6, 3);
+        assertEquals(3, TranspositionTable.cellOf(table.probe(42)));
+
+        table.newSearch();
+        table.store(42 + table.getCapacity(), 1, TranspositionTable.LOWER_BOUND, 1, 0);
+        assertEquals(TranspositionTable.MISS, table.probe(42));
+        assertEquals(1, TranspositionTable.depthOf(table.probe(42 + table.getCapacity())));
+    }
+
+
+    @Test
+    public void clearEmptiesTheTable() {
+        TranspositionTable table = new TranspositionTable(1);
+        for(long key = 1; key <= 100; key++){
+            table.store(key * 0x9E3779B97F4A7C15L, (int) key, TranspositionTable.EXACT, 1, 0);
+        }
+
+        table.clear();
+
+        for(long key = 1; key <= 100; key++){
+            assertEquals(TranspositionTable.MISS, table.probe(key * 0x9E3779B97F4A7C15L));
+        }
+    }
+
+
+    @Test
+    public void capacityIsTheLargestPowerOfTwoThatFits() {
+        assertEquals(65536, new TranspositionTable(1).getCapacity());
+        assertEquals(131072, new TranspositionTable(3).getCapacity());
+    }
+
+
+    @Test
+    public void sizeOutOfRangeIsRefused() {
+        for(int megabytes : new int[]{0, TranspositionTable.MAX_MEGABYTES + 1}){
+            try {
+                new TranspositionTable(megabytes);
+                fail(String.format("%d MB should be refused.", megabytes));
+            } catch (IllegalArgumentException e) {
+                //Expected
+            }
+        }
+    }
+
+
+    @Test
+    public void tornEntryIsAMiss() {
+        TranspositionTable table = new TranspositionTable(1);
+        long first = 42;
+        long second = 42 + table.getCapacity();
+
+        //Half of one entry and half of another in the same slot, as a reader could see while
+        //two threads write there at once
+        table.store(first, 1, TranspositionTable.EXACT, 4, 1);
+        long firstCheck = table.getCheck(first);
+        table.newSearch();
+        table.store(second, 2, TranspositionTable.EXACT, 4, 2);
+        assertNotEquals(TranspositionTable.MISS, table.probe(second));
+        table.setCheck(second, firstCheck);
+
+        assertEquals(TranspositionTable.MISS, table.probe(first));
+        assertEquals(TranspositionTable.MISS, table.probe(second));
+    }
+
+
+    @Test
+    public void threadsWritingTheSameSlotsNeverGiveAWrongHit() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        int capacity = table.getCapacity();
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong wrongHits = new AtomicLong();
+
+        //Every thread stores each key with its own score, in a handful of slots shared by many
+        //keys, and checks any hit has the score of the key it asked for
+        Thread[] threads = new Thread[4];
+        for(int t = 0; t < threads.length; t++){
+            threads[t] = new Thread(() -> {
+                long n = 0;
+                while(!stop.get()){
+                    long key = (n % 8) + capacity * (n % 61);
+                    table.store(key, scoreFor(key), TranspositionTable.EXACT, (int) (n % 20), 0);
+
+                    long probed = (n * 7 % 8) + capacity * (n * 13 % 61);
+                    long entry = table.probe(probed);
+                    if(entry != TranspositionTable.MISS && TranspositionTable.scoreOf(entry) != scoreFor(probed)){
+                        wrongHits.incrementAndGet();
+                    }
+                    n++;
+                }
+            });
+            threads[t].start();
+        }
+
+        Thread.sleep(300);
+        stop.set(true);
+        for(Thread thread : threads){
+            thread.join();
+        }
+
+        assertEquals(0, wrongHits.get());
+    }
+
+
+    private static int scoreFor(long key){
+        return (int) (key * 31 + (key >>> 32));
+    }}
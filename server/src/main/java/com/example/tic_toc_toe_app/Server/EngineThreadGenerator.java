@@ -0,0 +1,82 @@
+package com.example.tic_toc_toe_app.Server;
+
+import com.example.tic_toc_toe_app.Models.ComputerMoveGenerator;
+import com.example.tic_toc_toe_app.Models.Player;
+import com.example.tic_toc_toe_app.Models.SearchPosition;
+import com.example.tic_toc_toe_app.Models.SearchStatistics;
+import com.example.tic_toc_toe_app.Simulator.GeneratorFactory;
+
+import java.util.Random;
+
+
+/**
+ * A {@link ComputerMoveGenerator ComputerMoveGenerator} that passes each call on to a generator
+ * owned by the calling thread. One instance is shared by every session on the server, so the
+ * number of real generators, and the memory held by their tables, grows with the number of
+ * engine threads rather than with the number of sessions, and no generator is ever used by two
+ * threads at once. Search statistics are also those of the calling thread's generator, so they
+ * describe the last move that thread chose.
+ */
+class EngineThreadGenerator implements ComputerMoveGenerator, SearchStatistics {
+    private final ThreadLocal<ComputerMoveGenerator> generators;
+
+    //Answers canPlay for the selector thread, which never chooses moves. Never asked for one.
+    private final ComputerMoveGenerator sample;
+
+
+    /**
+     * Constructs a generator that creates a generator with the specified factory the first time
+     * each thread uses it.
+     *
+     * @param factory creates the generator for each engine thread.
+     */
+    EngineThreadGenerator(GeneratorFactory factory) {
+        this.generators = ThreadLocal.withInitial(() -> factory.create(new Random()));
+        this.sample = factory.create(new Random());
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, Player whoseTurnToTake) {
+        return generators.get().chooseMove(gameBoard, whoseTurnToTake);
+    }
+
+
+    @Override
+    public int chooseMove(Player[][] gameBoard, int winLength, Player whoseTurnToTake) {
+        return generators.get().chooseMove(gameBoard, winLength, whoseTurnToTake);
+    }
+
+
+    @Override
+    public int chooseMove(SearchPosition position) {
+        return generators.get().chooseMove(position);
+    }
+
+
+    @Override
+    public boolean canPlay(int rows, int cols, int winLength) {
+        return sample.canPlay(rows, cols, winLength);
+    }
+
+
+    @Override
+    public long getNodesLastMove() {
+        ComputerMoveGenerator generator = generators.get();
+        return generator instanceof SearchStatistics ? ((SearchStatistics) generator).getNodesLastMove() : 0;
+    }
+
+
+    @Override
+    public long getCacheHitsLastMove() {
+        ComputerMoveGenerator generator = generators.get();
+        return generator instanceof SearchStatistics ? ((SearchStatistics) generator).getCacheHitsLastMove() : 0;
+    }
+
+
+    @Override
+    public long getCacheLookupsLastMove() {
+        ComputerMoveGenerator generator = generators.get();
+        return generator instanceof SearchStatistics ? ((SearchStatistics) generator).getCacheLookupsLastMove() : 0;
+    }
+}
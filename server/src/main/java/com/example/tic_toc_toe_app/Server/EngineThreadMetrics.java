@@ -0,0 +1,73 @@
+package com.example.tic_toc_toe_app.Server;
+
+import com.example.tic_toc_toe_app.Models.ComputerMoveGenerator;
+import com.example.tic_toc_toe_app.Models.GameState;
+import com.example.tic_toc_toe_app.Models.GeneratorMetrics;
+import com.example.tic_toc_toe_app.Models.MetricsListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * A {@link MetricsListener MetricsListener} that records into metrics owned by the calling
+ * thread. One instance is shared by every session on the server, like
+ * {@link EngineThreadGenerator EngineThreadGenerator}, but the engine threads and the selector
+ * thread each record into their own {@link GeneratorMetrics GeneratorMetrics}, so they never
+ * wait on each other's lock. {@link #total total} adds them up.
+ */
+class EngineThreadMetrics implements MetricsListener {
+    private final String name;
+    private final ThreadLocal<GeneratorMetrics> metrics;
+
+    //Every thread's metrics. Guarded by itself.
+    private final List<GeneratorMetrics> allThreads = new ArrayList<>();
+
+
+    /**
+     * Constructs metrics for a generator, split by thread.
+     *
+     * @param name the name of the generator being measured, used in reports.
+     */
+    EngineThreadMetrics(String name) {
+        this.name = name;
+        this.metrics = ThreadLocal.withInitial(() -> {
+            GeneratorMetrics threadMetrics = new GeneratorMetrics(name);
+            synchronized (allThreads){
+                allThreads.add(threadMetrics);
+            }
+            return threadMetrics;
+        });
+    }
+
+
+    @Override
+    public void computerTurnTaken(ComputerMoveGenerator generator, long nanos) {
+        metrics.get().computerTurnTaken(generator, nanos);
+    }
+
+
+    @Override
+    public void gameFinished(GameState game) {
+        metrics.get().gameFinished(game);
+    }
+
+
+    /**
+     * Adds up what every thread has recorded so far. Threads can carry on recording while this
+     * runs.
+     *
+     * @return the metrics of all threads together.
+     */
+    GeneratorMetrics total() {
+        GeneratorMetrics total = new GeneratorMetrics(name);
+
+        synchronized (allThreads){
+            for(GeneratorMetrics threadMetrics : allThreads){
+                total.merge(threadMetrics);
+            }
+        }
+
+        return total;
+    }
+}
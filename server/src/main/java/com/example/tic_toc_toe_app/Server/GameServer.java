@@ -0,0 +1,528 @@
+package com.example.tic_toc_toe_app.Server;
+
+import com.example.tic_toc_toe_app.Models.EngineMetrics;
+import com.example.tic_toc_toe_app.Models.GameState;
+import com.example.tic_toc_toe_app.Models.Move;
+import com.example.tic_toc_toe_app.Models.Player;
+import com.example.tic_toc_toe_app.Simulator.GeneratorFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Headless server that hosts many games at once for remote clients, speaking the binary
+ * {@link Protocol Protocol}. A single selector thread does all the socket reading and writing
+ * and applies the clients' moves, so thousands of mostly idle sessions cost one thread. Computer
+ * turns run on a fixed pool of engine threads. At most (engine threads + engine queue) computer
+ * turns are handed to the pool at once, and any more wait their turn on the selector thread, so
+ * a burst of moves can't pile up unbounded work. A turn keeps its place until its engine thread
+ * is done with it, even if it was cancelled by a new game, so restarting games can't get round
+ * the limit either. Every computer turn and finished game is
+ * counted in the server's {@link EngineMetrics EngineMetrics}, which are printed when the
+ * server shuts down. Each thread counts its own, and they are added up when they are read.
+ *
+ * Usage: GameServer [--port N] [--engine-threads N] [--engine-queue N] [--generator NAME]
+ */
+public class GameServer {
+    private int port = 7777;
+    private int engineThreads = Runtime.getRuntime().availableProcessors();
+    private int engineQueue = 64;
+    private String generatorName = "medium";
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private ExecutorService enginePool;
+    private Executor engine;
+    private EngineThreadGenerator generator;
+    private volatile EngineThreadMetrics generatorMetrics;
+    private volatile boolean running = false;
+
+    //Computer turns finished by the engine threads, waiting to be sent by the selector thread
+    private final Queue<EngineResult> finishedTurns = new ConcurrentLinkedQueue<>();
+
+    //Computer turns waiting for room on the engine pool. Only used by the selector thread.
+    private final Queue<Session> waitingForEngine = new ArrayDeque<>();
+    private int enginesBusy = 0;
+
+    //Computer turns the engine threads are done with since the selector thread last looked
+    private final AtomicInteger enginesFreed = new AtomicInteger();
+
+    private volatile int sessionCount = 0;
+
+
+    public static void main(String[] args) throws IOException {
+        GameServer server = new GameServer();
+
+        try {
+            server.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: GameServer [--port N] [--engine-threads N] [--engine-queue N] [--generator NAME]");
+            System.err.println("Generator names: medium, hard, table, mcts:<milliseconds per move>, deepening:<milliseconds per move>, "
+                    + "parallel:<threads>:<milliseconds per move>, threats:<milliseconds per move>");
+            System.exit(1);
+        }
+
+        server.start();
+        System.out.printf("Listening on port %d with %d engine threads (%s)%n",
+                server.getPort(), server.engineThreads, server.generatorName);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.getMetrics().print(System.out)));
+        server.run();
+    }
+
+
+    /**
+     * Reads the command line options into this server's settings.
+     *
+     * @param args the command line arguments.
+     * @throws IllegalArgumentException if an option is unknown or its value is invalid.
+     */
+    void parseArguments(String[] args) {
+        for(int i = 0; i < args.length; i += 2){
+            if(i + 1 >= args.length){
+                throw new IllegalArgumentException(String.format("Missing value for %s.", args[i]));
+            }
+
+            String value = args[i + 1];
+            switch(args[i]){
+                case "--port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "--engine-threads":
+                    engineThreads = Integer.parseInt(value);
+                    break;
+                case "--engine-queue":
+                    engineQueue = Integer.parseInt(value);
+                    break;
+                case "--generator":
+                    generatorName = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("Unknown option %s.", args[i]));
+            }
+        }
+
+        if(engineThreads < 1 || engineQueue < 0){
+            throw new IllegalArgumentException("There must be at least 1 engine thread and the queue can't be negative.");
+        }
+
+        //Fail now rather than on the first computer turn
+        GeneratorFactory.forName(generatorName);
+    }
+
+
+    /**
+     * Opens the listening socket and starts the engine threads. If the port is 0, a free port
+     * is picked, which can be read with {@link #getPort getPort}.
+     */
+    void start() throws IOException {
+        generator = new EngineThreadGenerator(GeneratorFactory.forName(generatorName));
+        generatorMetrics = new EngineThreadMetrics(generatorName);
+        enginePool = Executors.newFixedThreadPool(engineThreads, runnable -> {
+            Thread thread = new Thread(runnable, "GameServerEngine");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        //Gives a turn's place back only once its engine thread is done with it. A cancelled
+        //turn's future completes straight away, but its task is still queued or running.
+        engine = task -> enginePool.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                enginesFreed.incrementAndGet();
+                selector.wakeup();
+            }
+        });
+
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        running = true;
+    }
+
+
+    /**
+     * Runs the selector loop on the calling thread until {@link #stop stop} is called.
+     */
+    void run() throws IOException {
+        try {
+            while(running){
+                selector.select();
+
+                sendFinishedTurns();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while(keys.hasNext()){
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    //The session may have been dropped while sending finished turns
+                    if(!key.isValid()){
+                        continue;
+                    }
+
+                    try {
+                        if(key.isAcceptable()){
+                            accept();
+                        }
+                        else{
+                            if(key.isWritable()){
+                                write(key);
+                            }
+                            if(key.isValid() && key.isReadable()){
+                                read(key);
+                            }
+                        }
+                    } catch (IOException e) {
+                        //Drop the session, but keep listening if an accept failed
+                        if(key.attachment() != null){
+                            close(key);
+                        }
+                    }
+                }
+            }
+        } finally {
+            for(SelectionKey key : selector.keys()){
+                key.channel().close();
+            }
+            selector.close();
+            enginePool.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Stops the selector loop. Safe to call from any thread.
+     */
+    void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+
+    /**
+     * Adds up the metrics of the computer turns and games played on this server so far. Safe to
+     * call from any thread.
+     *
+     * @return the server's metrics.
+     */
+    EngineMetrics getMetrics() {
+        EngineMetrics metrics = new EngineMetrics();
+        EngineThreadMetrics threadMetrics = generatorMetrics;
+
+        if(threadMetrics != null){
+            metrics.forGenerator(generatorName).merge(threadMetrics.total());
+        }
+        return metrics;
+    }
+
+
+    int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+
+    int getSessionCount() {
+        return sessionCount;
+    }
+
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+
+        while((channel = serverChannel.accept()) != null){
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            channel.register(selector, SelectionKey.OP_READ, new Session(channel, generator, engine, generatorMetrics));
+            sessionCount++;
+        }
+    }
+
+
+    private void close(SelectionKey key) {
+        if(!key.isValid()){
+            return;
+        }
+
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            //Nothing more to do with it
+        }
+        sessionCount--;
+    }
+
+
+    private void read(SelectionKey key) throws IOException {
+        Session session = (Session) key.attachment();
+
+        if(session.channel.read(session.input) == -1){
+            close(key);
+            return;
+        }
+
+        handleMessages(key, session);
+    }
+
+
+    /**
+     * Handles every complete message in the session's input buffer, as long as there is room
+     * to reply. Anything left over stays in the buffer for later.
+     */
+    private void handleMessages(SelectionKey key, Session session) throws IOException {
+        ByteBuffer input = session.input;
+        input.flip();
+
+        while(input.hasRemaining() && session.output.remaining() >= Protocol.MAX_MESSAGE_SIZE){
+            int size = Protocol.messageSize(input.get(input.position()));
+            if(size == -1){
+                close(key);
+                return;
+            }
+            if(input.remaining() < size){
+                break;
+            }
+
+            byte type = input.get();
+            if(type == Protocol.NEW_GAME){
+                newGame(session, input.get() & 0xFF, input.get() & 0xFF, input.get() & 0xFF, input.get() & 0xFF);
+            }
+            else if(type == Protocol.MOVE){
+                move(session, input.get() & 0xFF, input.get() & 0xFF);
+            }
+            else{
+                //A server to client message
+                input.position(input.position() + size - 1);
+                Protocol.writeError(session.output, Protocol.ERROR_BAD_MESSAGE);
+            }
+        }
+
+        input.compact();
+        flush(key, session);
+    }
+
+
+    private void newGame(Session session, int rows, int cols, int winLength, int opponentType) {
+        try {
+            //Cancels any computer turn still running for the old game
+            session.game.startNewGame(opponentType, rows, cols, winLength);
+        } catch (IllegalArgumentException e) {
+            Protocol.writeError(session.output, Protocol.ERROR_BAD_BOARD);
+            return;
+        }
+
+        session.gameNumber++;
+        session.gameStarted = true;
+        session.engineFailed = false;
+        Protocol.writeGameStarted(session.output, session.model.getState());
+    }
+
+
+    private void move(Session session, int row, int col) {
+        if(!session.gameStarted){
+            Protocol.writeError(session.output, Protocol.ERROR_NO_GAME);
+            return;
+        }
+
+
+        Player mover = session.model.getCurrentPlayer();
+        boolean moveWasLegal;
+
+        try {
+            moveWasLegal = session.model.takeTurn(row, col);
+        } catch (IndexOutOfBoundsException e) {
+            moveWasLegal = false;
+        }
+
+        if(!moveWasLegal){
+            Protocol.writeError(session.output, Protocol.ERROR_ILLEGAL_MOVE);
+            return;
+        }
+
+
+        Protocol.writeMoveMade(session.output, mover, row, col, session.model.getState());
+
+        if(session.computerToMove()){
+            requestComputerTurn(session);
+        }
+    }
+
+
+    /**
+     * Hands the session's computer turn to the engine pool, or queues it if the pool is full.
+     * A session only has one computer turn in flight at a time.
+     */
+    private void requestComputerTurn(Session session) {
+        if(session.engineBusy){
+            return;
+        }
+
+        session.engineBusy = true;
+        if(enginesBusy < engineThreads + engineQueue){
+            submitComputerTurn(session);
+        }
+        else{
+            waitingForEngine.add(session);
+        }
+    }
+
+
+    /**
+     * Starts the session's computer turn on the engine pool. The result is queued for the
+     * selector thread when the turn finishes, fails or is cancelled by a new game. The turn's
+     * place on the pool is only given back when the engine thread has finished with it, which
+     * for a cancelled turn may be a moment after its result.
+     */
+    private void submitComputerTurn(Session session) {
+        final int game = session.gameNumber;
+
+        enginesBusy++;
+        session.game.takeComputerTurnAsync().whenComplete((move, error) -> {
+            int taken = (error == null ? move : Move.NONE);
+            boolean failed = (error != null && !(error instanceof CancellationException));
+
+            finishedTurns.add(new EngineResult(session, game, taken, failed, session.model.getState()));
+            selector.wakeup();
+        });
+    }
+
+
+    /**
+     * Sends the computer turns finished by the engine threads, and gives the places on the
+     * engine pool they are done with to waiting sessions.
+     */
+    private void sendFinishedTurns() {
+        EngineResult result;
+
+        while((result = finishedTurns.poll()) != null){
+            Session session = result.session;
+            SelectionKey key = session.channel.keyFor(selector);
+
+            session.engineBusy = false;
+
+            if(key == null || !key.isValid()){
+                continue;
+            }
+
+
+            if((result.move != Move.NONE || result.failed) && result.game == session.gameNumber){
+                if(session.output.remaining() < Protocol.MAX_MESSAGE_SIZE){
+                    //The client isn't reading its replies
+                    close(key);
+                    continue;
+                }
+
+                if(result.failed){
+                    //Asking again would only fail again, so the client has to start a new game
+                    session.engineFailed = true;
+                    Protocol.writeError(session.output, Protocol.ERROR_BAD_BOARD);
+                }
+                else{
+                    Protocol.writeMoveMade(session.output, Player.O, Move.row(result.move), Move.col(result.move), result.after);
+                }
+            }
+
+            //A new game may have been started and moved in while the engine was busy
+            if(session.computerToMove()){
+                requestComputerTurn(session);
+            }
+
+            try {
+                flush(key, session);
+            } catch (IOException e) {
+                //Drop the session, but keep sending the other results
+                close(key);
+            }
+        }
+
+        startWaitingTurns();
+    }
+
+
+    /**
+     * Hands waiting computer turns to the engine pool while it has room. Sessions that have
+     * closed, or no longer need a computer turn, are skipped.
+     */
+    private void startWaitingTurns() {
+        enginesBusy -= enginesFreed.getAndSet(0);
+
+        while(enginesBusy < engineThreads + engineQueue && !waitingForEngine.isEmpty()){
+            Session waiting = waitingForEngine.poll();
+            SelectionKey key = waiting.channel.keyFor(selector);
+
+            if(key != null && key.isValid() && waiting.computerToMove()){
+                submitComputerTurn(waiting);
+            }
+            else{
+                waiting.engineBusy = false;
+            }
+        }
+    }
+
+
+    private void write(SelectionKey key) throws IOException {
+        Session session = (Session) key.attachment();
+
+        flush(key, session);
+
+        //Messages may have been left unread while there was no room to reply
+        if(key.isValid() && session.input.position() > 0){
+            handleMessages(key, session);
+        }
+    }
+
+
+    /**
+     * Writes as much of the session's output as the socket will take, and only asks to be told
+     * when the socket is writable if some is left over.
+     */
+    private void flush(SelectionKey key, Session session) throws IOException {
+        ByteBuffer output = session.output;
+
+        output.flip();
+        session.channel.write(output);
+        output.compact();
+
+        key.interestOps(output.position() > 0 ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+
+    /**
+     * A computer turn that has finished on an engine thread.
+     */
+    private static final class EngineResult {
+        final Session session;
+        final int game;
+        final int move;
+        final boolean failed;
+        final GameState after;
+
+        EngineResult(Session session, int game, int move, boolean failed, GameState after) {
+            this.session = session;
+            this.game = game;
+            this.move = move;
+            this.failed = failed;
+            this.after = after;
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package com.example.tic_toc_toe_app.Server;
+
+import com.example.tic_toc_toe_app.Models.LatencyHistogram;
+import com.example.tic_toc_toe_app.Models.Player;
+import com.example.tic_toc_toe_app.Models.TicTocToeGame;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+
+/**
+ * Opens many sessions to a {@link GameServer GameServer} and has each one play game after game
+ * against the computer, taking random legal moves. All the sessions are driven from one selector
+ * thread. After every session has connected, it measures for a fixed time how many sessions stay
+ * open, how many computer replies arrive per second, and how long each reply takes from sending
+ * a move until the computer's answer arrives.
+ *
+ * If no port is given, a server is started in this process on a free port, using the
+ * --engine-threads and --generator options.
+ *
+ * Usage: LoadGenerator [--host NAME] [--port N] [--sessions N] [--seconds N] [--think-ms N]
+ *                      [--board ROWS,COLS,WIN_LENGTH] [--seed N] [--engine-threads N]
+ *                      [--generator NAME]
+ */
+public class LoadGenerator {
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private String host = "localhost";
+    private int port = 0;
+    private int sessions = 1000;
+    private int seconds = 10;
+    private long thinkNanos = 0;
+    private int rows = 3;
+    private int cols = 3;
+    private int winLength = 3;
+    private long seed = 1;
+    private String[] serverArgs = {};
+
+    private Selector selector;
+    private Random random;
+
+    //Sessions that are waiting to take their next move, soonest first
+    private final PriorityQueue<Client> thinking = new PriorityQueue<>(
+            (a, b) -> Long.compare(a.moveAt, b.moveAt));
+
+    private boolean measuring = false;
+    private final LatencyHistogram replyLatency = new LatencyHistogram();
+    private long repliesReceived = 0;
+    private long gamesFinished = 0;
+    private long errors = 0;
+    private int connected = 0;
+
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadGenerator generator = new LoadGenerator();
+
+        try {
+            generator.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LoadGenerator [--host NAME] [--port N] [--sessions N] [--seconds N] [--think-ms N] "
+                    + "[--board ROWS,COLS,WIN_LENGTH] [--seed N] [--engine-threads N] [--generator NAME]");
+            System.exit(1);
+        }
+
+        generator.run();
+    }
+
+
+    /**
+     * Reads the command line options into this load generator's settings.
+     *
+     * @param args the command line arguments.
+     * @throws IllegalArgumentException if an option is unknown or its value is invalid.
+     */
+    void parseArguments(String[] args) {
+        StringBuilder forServer = new StringBuilder();
+
+        for(int i = 0; i < args.length; i += 2){
+            if(i + 1 >= args.length){
+                throw new IllegalArgumentException(String.format("Missing value for %s.", args[i]));
+            }
+
+            String value = args[i + 1];
+            switch(args[i]){
+                case "--host":
+                    host = value;
+                    break;
+                case "--port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "--sessions":
+                    sessions = Integer.parseInt(value);
+                    break;
+                case "--seconds":
+                    seconds = Integer.parseInt(value);
+                    break;
+                case "--think-ms":
+                    thinkNanos = Long.parseLong(value) * 1_000_000;
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--board":
+                    String[] shape = value.split(",");
+                    if(shape.length != 3){
+                        throw new IllegalArgumentException(String.format("%s is not ROWS,COLS,WIN_LENGTH.", value));
+                    }
+                    rows = Integer.parseInt(shape[0].trim());
+                    cols = Integer.parseInt(shape[1].trim());
+                    winLength = Integer.parseInt(shape[2].trim());
+                    break;
+                case "--engine-threads":
+                case "--generator":
+                    forServer.append(args[i]).append(' ').append(value).append(' ');
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("Unknown option %s.", args[i]));
+            }
+        }
+
+        if(sessions < 1 || seconds < 1){
+            throw new IllegalArgumentException("The number of sessions and seconds must be at least 1.");
+        }
+        if(thinkNanos < 0){
+            throw new IllegalArgumentException(String.format("%d ms is not a valid think time.", thinkNanos / 1_000_000));
+        }
+
+        serverArgs = forServer.toString().trim().isEmpty() ? new String[0] : forServer.toString().trim().split(" ");
+    }
+
+
+    /**
+     * Connects all the sessions, plays for the set time and prints the results.
+     */
+    void run() throws IOException, InterruptedException {
+        GameServer server = null;
+        Thread serverThread = null;
+
+        if(port == 0){
+            server = new GameServer();
+            server.parseArguments(concat(serverArgs, "--port", "0"));
+            server.start();
+            port = server.getPort();
+
+            GameServer embedded = server;
+            serverThread = new Thread(() -> {
+                try {
+                    embedded.run();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }, "GameServer");
+            serverThread.start();
+        }
+
+
+        random = new Random(seed);
+        selector = Selector.open();
+        for(int i = 0; i < sessions; i++){
+            SocketChannel channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            channel.connect(new InetSocketAddress(host, port));
+            channel.register(selector, SelectionKey.OP_CONNECT, new Client(channel, rows * cols));
+        }
+
+        System.out.printf("Connecting %,d sessions to %s:%d, %dx%d board, %d in a row%n",
+                sessions, host, port, rows, cols, winLength);
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while(connected < sessions && System.nanoTime() < deadline){
+            poll(System.nanoTime() + 10_000_000);
+        }
+        System.out.printf("%,d sessions connected%n", connected);
+
+
+        measuring = true;
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        while(System.nanoTime() < end){
+            poll(end);
+        }
+        long elapsed = System.nanoTime() - start;
+        measuring = false;
+
+
+        printResults(elapsed, server);
+
+        for(SelectionKey key : selector.keys()){
+            key.channel().close();
+        }
+        selector.close();
+
+        if(server != null){
+            server.stop();
+            serverThread.join();
+        }
+    }
+
+
+    /**
+     * Handles everything that is ready on the sockets, and moves for sessions that are done
+     * thinking, waiting no later than the specified time.
+     *
+     * @param until the System.nanoTime() to stop waiting at.
+     */
+    private void poll(long until) throws IOException {
+        long now = System.nanoTime();
+        while(!thinking.isEmpty() && thinking.peek().moveAt <= now){
+            sendMove(thinking.poll());
+        }
+
+        long wakeAt = (thinking.isEmpty() ? until : Math.min(until, thinking.peek().moveAt));
+        long waitMillis = Math.max(1, (wakeAt - now) / 1_000_000);
+        selector.select(waitMillis);
+
+
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while(keys.hasNext()){
+            SelectionKey key = keys.next();
+            keys.remove();
+            Client client = (Client) key.attachment();
+
+            try {
+                if(key.isConnectable()){
+                    client.channel.finishConnect();
+                    client.connected = true;
+                    connected++;
+                    key.interestOps(SelectionKey.OP_READ);
+                    startGame(client);
+                }
+                else if(key.isReadable()){
+                    read(key, client);
+                }
+            } catch (IOException e) {
+                drop(key, client);
+            }
+        }
+    }
+
+
+    private void read(SelectionKey key, Client client) throws IOException {
+        ByteBuffer input = client.input;
+
+        if(client.channel.read(input) == -1){
+            drop(key, client);
+            return;
+        }
+
+
+        input.flip();
+        while(input.hasRemaining()){
+            int size = Protocol.messageSize(input.get(input.position()));
+            if(size == -1){
+                throw new IOException("Unknown message from server.");
+            }
+            if(input.remaining() < size){
+                break;
+            }
+
+            byte type = input.get();
+            if(type == Protocol.GAME_STARTED){
+                input.position(input.position() + size - 1);
+                client.clearBoard();
+                think(client);
+            }
+            else if(type == Protocol.MOVE_MADE){
+                int player = input.get();
+                int row = input.get() & 0xFF;
+                int col = input.get() & 0xFF;
+                int status = input.get() & 0xFF;
+                moveMade(client, player, row, col, status);
+            }
+            else{
+                input.position(input.position() + size - 1);
+                if(measuring){
+                    errors++;
+                }
+                startGame(client);
+            }
+        }
+        input.compact();
+    }
+
+
+    private void drop(SelectionKey key, Client client) throws IOException {
+        key.cancel();
+        client.channel.close();
+
+        if(client.connected){
+            client.connected = false;
+            connected--;
+        }
+    }
+
+
+    private void moveMade(Client client, int player, int row, int col, int status) throws IOException {
+        client.taken[row * cols + col] = true;
+
+        boolean gameOver = (status & Protocol.STATUS_GAME_OVER) != 0;
+        boolean reply = (player == Player.O.ordinal());
+
+        //The client's own move only gets an answer of its own when it ends the game
+        if(reply || gameOver){
+            if(measuring){
+                replyLatency.record(System.nanoTime() - client.moveSentAt);
+                repliesReceived++;
+            }
+        }
+
+        if(gameOver){
+            if(measuring){
+                gamesFinished++;
+            }
+            startGame(client);
+        }
+        else if(reply){
+            think(client);
+        }
+    }
+
+
+    private void startGame(Client client) throws IOException {
+        client.output.clear();
+        Protocol.writeNewGame(client.output, rows, cols, winLength, TicTocToeGame.COMPUTER_OPPONENT);
+        send(client);
+    }
+
+
+    /**
+     * Waits the think time before the client's next move, or moves at once if there is none.
+     */
+    private void think(Client client) throws IOException {
+        if(thinkNanos == 0){
+            sendMove(client);
+            return;
+        }
+
+        client.moveAt = System.nanoTime() + thinkNanos;
+        thinking.add(client);
+    }
+
+
+    private void sendMove(Client client) throws IOException {
+        if(!client.channel.isOpen()){
+            return;
+        }
+
+        int empty = 0;
+        for(boolean cellTaken : client.taken){
+            if(!cellTaken){
+                empty++;
+            }
+        }
+
+        //Find the chosen empty cell
+        int choice = random.nextInt(empty);
+        int cell = -1;
+        while(choice >= 0){
+            cell++;
+            if(!client.taken[cell]){
+                choice--;
+            }
+        }
+
+
+        client.output.clear();
+        Protocol.writeMove(client.output, cell / cols, cell % cols);
+        client.moveSentAt = System.nanoTime();
+        send(client);
+    }
+
+
+    private void send(Client client) throws IOException {
+        client.output.flip();
+        while(client.output.hasRemaining()){
+            if(client.channel.write(client.output) == 0){
+                //The messages are tiny, so a full socket means the server has stopped reading
+                throw new IOException("Server is not reading.");
+            }
+        }
+    }
+
+
+    private void printResults(long elapsedNanos, GameServer server) {
+        double secondsTaken = elapsedNanos / 1e9;
+
+        System.out.printf("Sessions held: %,d of %,d%s%n", connected, sessions,
+                server == null ? "" : String.format(" (server sees %,d)", server.getSessionCount()));
+        System.out.printf("Replies: %,d (%,.0f moves/sec), games finished: %,d, errors: %,d%n",
+                repliesReceived, repliesReceived / secondsTaken, gamesFinished, errors);
+
+        StringBuilder line = new StringBuilder("Reply latency (ns):");
+        for(double percentile : PERCENTILES){
+            line.append(String.format(" p%s=%,d", formatPercentile(percentile), replyLatency.getPercentile(percentile)));
+        }
+        line.append(String.format(" max=%,d", replyLatency.getMax()));
+
+        System.out.println(line);
+
+        //The embedded server's own view of the engine, including the time spent searching
+        if(server != null){
+            server.getMetrics().print(System.out);
+        }
+    }
+
+
+    private static String formatPercentile(double percentile) {
+        String text = Double.toString(percentile * 100);
+
+        return text.endsWith(".0") ? text.substring(0, text.length() - 2) : text;
+    }
+
+
+    private static String[] concat(String[] args, String... more) {
+        String[] all = new String[args.length + more.length];
+
+        System.arraycopy(args, 0, all, 0, args.length);
+        System.arraycopy(more, 0, all, args.length, more.length);
+        return all;
+    }
+
+
+    /**
+     * One session held by the load generator.
+     */
+    private static final class Client {
+        final SocketChannel channel;
+        final ByteBuffer input = ByteBuffer.allocate(256);
+        final ByteBuffer output = ByteBuffer.allocate(Protocol.MAX_MESSAGE_SIZE);
+        final boolean[] taken;
+        boolean connected = false;
+        long moveSentAt;
+        long moveAt;
+
+        Client(SocketChannel channel, int cells) {
+            this.channel = channel;
+            this.taken = new boolean[cells];
+        }
+
+        void clearBoard() {
+            Arrays.fill(taken, false);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.tic_toc_toe_app.Server;
+
+import com.example.tic_toc_toe_app.Models.GameState;
+import com.example.tic_toc_toe_app.Models.Player;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * The binary protocol spoken between the {@link GameServer GameServer} and its clients. Every
+ * message is a type byte followed by a fixed number of unsigned byte fields, so a message can
+ * be read as soon as its type byte and that many more bytes have arrived, with no length
+ * prefix. Rows and columns are 0 based.
+ *
+ * Client to server:
+ * <pre>
+ * NEW_GAME    rows cols winLength opponent   start a game (opponent is a TicTocToeGame code)
+ * MOVE        row col                        take a turn in the current game
+ * </pre>
+ * Server to client:
+ * <pre>
+ * GAME_STARTED rows cols winLength           the game was started, X to move
+ * MOVE_MADE    player row col status         a move was made by the client or the computer
+ * ERROR        code                          the last request was refused
+ * </pre>
+ * ERROR BAD_BOARD is sent when a NEW_GAME asks for a board the computer can't play, and also
+ * if the computer fails to choose a move during a game. The game can't go on after that, so
+ * the client should start a new one.
+ *
+ * The status byte of MOVE_MADE holds the player to move in bits 0-1 and the winner in bits 2-3
+ * (both as {@link Player Player} ordinals), and STATUS_GAME_OVER once the game has ended.
+ */
+final class Protocol {
+    static final byte NEW_GAME = 0x01;
+    static final byte MOVE = 0x02;
+
+    static final byte GAME_STARTED = (byte) 0x81;
+    static final byte MOVE_MADE = (byte) 0x82;
+    static final byte ERROR = (byte) 0xFF;
+
+    static final int STATUS_GAME_OVER = 1 << 4;
+
+    static final int ERROR_BAD_MESSAGE = 1;
+    static final int ERROR_NO_GAME = 2;
+    static final int ERROR_ILLEGAL_MOVE = 3;
+    static final int ERROR_BAD_BOARD = 4;
+
+    //The longest message in either direction
+    static final int MAX_MESSAGE_SIZE = 5;
+
+
+    private Protocol() {
+    }
+
+
+    /**
+     * Returns the size of a message, including its type byte.
+     *
+     * @param type the type byte of the message.
+     * @return the number of bytes in the message, or -1 if the type is unknown.
+     */
+    static int messageSize(byte type) {
+        switch(type){
+            case NEW_GAME:
+            case MOVE_MADE:
+                return 5;
+            case MOVE:
+                return 3;
+            case GAME_STARTED:
+                return 4;
+            case ERROR:
+                return 2;
+            default:
+                return -1;
+        }
+    }
+
+
+    static void writeNewGame(ByteBuffer buffer, int rows, int cols, int winLength, int opponentType) {
+        buffer.put(NEW_GAME).put((byte) rows).put((byte) cols).put((byte) winLength).put((byte) opponentType);
+    }
+
+
+    static void writeMove(ByteBuffer buffer, int row, int col) {
+        buffer.put(MOVE).put((byte) row).put((byte) col);
+    }
+
+
+    static void writeGameStarted(ByteBuffer buffer, GameState game) {
+        buffer.put(GAME_STARTED)
+                .put((byte) game.getBoardRows())
+                .put((byte) game.getBoardColumns())
+                .put((byte) game.getWinLength());
+    }
+
+
+    static void writeMoveMade(ByteBuffer buffer, Player player, int row, int col, GameState after) {
+        buffer.put(MOVE_MADE)
+                .put((byte) player.ordinal())
+                .put((byte) row)
+                .put((byte) col)
+                .put((byte) status(after));
+    }
+
+
+    static void writeError(ByteBuffer buffer, int code) {
+        buffer.put(ERROR).put((byte) code);
+    }
+
+
+    /**
+     * Packs the turn, winner and game over flag of a game into a status byte.
+     *
+     * @param game the game.
+     * @return the status byte of a MOVE_MADE message.
+     */
+    static int status(GameState game) {
+        return game.getCurrentPlayer().ordinal()
+                | (game.getWinner().ordinal() << 2)
+                | (game.isGameOver() ? STATUS_GAME_OVER : 0);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.tic_toc_toe_app.Server;
+
+import com.example.tic_toc_toe_app.Models.AsyncTicTocToeGame;
+import com.example.tic_toc_toe_app.Models.ComputerMoveGenerator;
+import com.example.tic_toc_toe_app.Models.GameState;
+import com.example.tic_toc_toe_app.Models.MetricsListener;
+import com.example.tic_toc_toe_app.Models.Player;
+import com.example.tic_toc_toe_app.Models.TicTocToeGameModel;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.Executor;
+
+
+/**
+ * One client connection to the {@link GameServer GameServer} and the game it is playing. Apart
+ * from the model, which is thread safe, a session is only touched by the server's selector
+ * thread.
+ */
+final class Session {
+    private static final int INPUT_BUFFER_SIZE = 64;
+    private static final int OUTPUT_BUFFER_SIZE = 1024;
+
+    final SocketChannel channel;
+    final TicTocToeGameModel model;
+    final AsyncTicTocToeGame game;
+    final ByteBuffer input = ByteBuffer.allocate(INPUT_BUFFER_SIZE);
+    final ByteBuffer output = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE);
+
+    //Goes up each time a game is started, so engine results from an earlier game are dropped
+    int gameNumber = 0;
+    boolean gameStarted = false;
+
+    //True while a computer turn is queued or running on the engine pool
+    boolean engineBusy = false;
+
+    //True if the computer failed to choose a move in the current game, so it isn't asked again
+    boolean engineFailed = false;
+
+
+    Session(SocketChannel channel, ComputerMoveGenerator generator, Executor engine, MetricsListener metrics) {
+        this.channel = channel;
+        this.model = new TicTocToeGameModel(generator);
+        model.setMetricsListener(metrics);
+        this.game = new AsyncTicTocToeGame(model, engine);
+    }
+
+
+    /**
+     * Checks if the computer should take the next turn.
+     *
+     * @return true if this session is playing the computer, it is the computer's turn, and the
+     * computer hasn't already failed to move in this game.
+     */
+    boolean computerToMove() {
+        GameState game = model.getState();
+
+        return gameStarted && !engineFailed && game.isComputerOpponent() && !game.isGameOver()
+                && game.getCurrentPlayer() == Player.O;
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.tic_toc_toe_app.Server;
+
+import com.example.tic_toc_toe_app.Models.Player;
+import com.example.tic_toc_toe_app.Models.TicTocToeGame;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link GameServer}, played over a loopback socket.
+ */
+public class GameServerTest {
+    private GameServer server;
+    private Thread serverThread;
+    private Socket socket;
+    private DataInputStream in;
+    private OutputStream out;
+
+
+    @Before
+    public void startServer() throws IOException {
+        server = new GameServer();
+        server.parseArguments(new String[]{"--port", "0", "--engine-threads", "1", "--engine-queue", "0", "--generator", "hard"});
+        server.start();
+
+        serverThread = new Thread(() -> {
+            try {
+                server.run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }, "GameServer");
+        serverThread.start();
+
+        socket = new Socket("localhost", server.getPort());
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(5000);
+        in = new DataInputStream(socket.getInputStream());
+        out = socket.getOutputStream();
+    }
+
+
+    @After
+    public void stopServer() throws IOException, InterruptedException {
+        socket.close();
+        server.stop();
+        serverThread.join(5000);
+    }
+
+
+    @Test
+    public void newGameIsStarted() throws IOException {
+        send(newGame(4, 5, 3, TicTocToeGame.HUMAN_OPPONENT));
+
+        assertArrayEquals(new byte[]{Protocol.GAME_STARTED, 4, 5, 3}, readMessage());
+    }
+
+
+    @Test
+    public void moveIsAnsweredByTheComputer() throws IOException {
+        send(newGame(3, 3, 3, TicTocToeGame.COMPUTER_OPPONENT));
+        readMessage();
+        send(move(1, 1));
+
+        byte[] mine = readMessage();
+        assertEquals(Protocol.MOVE_MADE, mine[0]);
+        assertEquals(Player.X.ordinal(), mine[1]);
+        assertEquals(Player.O.ordinal(), mine[4] & 3);
+
+        byte[] reply = readMessage();
+        assertEquals(Protocol.MOVE_MADE, reply[0]);
+        assertEquals(Player.O.ordinal(), reply[1]);
+        assertFalse(reply[2] == 1 && reply[3] == 1);
+        assertEquals(Player.X.ordinal(), reply[4] & 3);
+    }
+
+
+    @Test
+    public void gameIsPlayedToTheEnd() throws IOException {
+        send(newGame(3, 3, 3, TicTocToeGame.COMPUTER_OPPONENT));
+        readMessage();
+
+        boolean[] taken = new boolean[9];
+        int status = 0;
+        while((status & Protocol.STATUS_GAME_OVER) == 0){
+            int cell = 0;
+            while(taken[cell]){
+                cell++;
+            }
+            send(move(cell / 3, cell % 3));
+
+            //Our move, then the computer's unless ours ended the game
+            for(int i = 0; i < 2 && (status & Protocol.STATUS_GAME_OVER) == 0; i++){
+                byte[] message = readMessage();
+                assertEquals(Protocol.MOVE_MADE, message[0]);
+                taken[message[2] * 3 + message[3]] = true;
+                status = message[4] & 0xFF;
+            }
+        }
+
+        //The computer plays perfectly, so it can't lose
+        assertNotEquals(Player.X.ordinal(), (status >>> 2) & 3);
+
+        send(move(0, 0));
+        assertArrayEquals(new byte[]{Protocol.ERROR, Protocol.ERROR_ILLEGAL_MOVE}, readMessage());
+    }
+
+
+    @Test
+    public void moveBeforeANewGameIsRefused() throws IOException {
+        send(move(0, 0));
+
+        assertArrayEquals(new byte[]{Protocol.ERROR, Protocol.ERROR_NO_GAME}, readMessage());
+    }
+
+
+    @Test
+    public void illegalMovesAreRefused() throws IOException {
+        send(newGame(3, 3, 3, TicTocToeGame.HUMAN_OPPONENT));
+        readMessage();
+        send(move(0, 0));
+        readMessage();
+
+        send(move(0, 0));
+        assertArrayEquals(new byte[]{Protocol.ERROR, Protocol.ERROR_ILLEGAL_MOVE}, readMessage());
+
+        send(move(3, 0));
+        assertArrayEquals(new byte[]{Protocol.ERROR, Protocol.ERROR_ILLEGAL_MOVE}, readMessage());
+
+        //The game carries on with O to move
+        send(move(2, 2));
+        byte[] message = readMessage();
+        assertEquals(Protocol.MOVE_MADE, message[0]);
+        assertEquals(Player.O.ordinal(), message[1]);
+    }
+
+
+    @Test
+    public void badBoardsAreRefused() throws IOException {
+        send(newGame(0, 3, 3, TicTocToeGame.HUMAN_OPPONENT));
+        assertArrayEquals(new byte[]{Protocol.ERROR, Protocol.ERROR_BAD_BOARD}, readMessage());
+
+        send(newGame(3, 3, 4, TicTocToeGame.HUMAN_OPPONENT));
+        assertArrayEquals(new byte[]{Protocol.ERROR, Protocol.ERROR_BAD_BOARD}, readMessage());
+
+        send(newGame(3, 3, 3, 7));
+        assertArrayEquals(new byte[]{Protocol.ERROR, Protocol.ERROR_BAD_BOARD}, readMessage());
+
+        //The hard generator only plays 3x3, but two humans can play anything
+        send(newGame(4, 4, 3, TicTocToeGame.COMPUTER_OPPONENT));
+        assertArrayEquals(new byte[]{Protocol.ERROR, Protocol.ERROR_BAD_BOARD}, readMessage());
+
+        send(newGame(4, 4, 3, TicTocToeGame.HUMAN_OPPONENT));
+        assertArrayEquals(new byte[]{Protocol.GAME_STARTED, 4, 4, 3}, readMessage());
+    }
+
+
+    @Test
+    public void serverMessagesFromTheClientAreRefused() throws IOException {
+        send(new byte[]{Protocol.ERROR, 1});
+
+        assertArrayEquals(new byte[]{Protocol.ERROR, Protocol.ERROR_BAD_MESSAGE}, readMessage());
+    }
+
+
+    @Test
+    public void unknownMessageClosesTheSession() throws IOException {
+        send(new byte[]{0x7F});
+
+        try {
+            readMessage();
+            fail("The session should have been closed.");
+        } catch (EOFException e) {
+            //Expected
+        }
+    }
+
+
+    @Test
+    public void messagesSplitAcrossReadsAreReassembled() throws IOException, InterruptedException {
+        byte[] start = newGame(3, 3, 3, TicTocToeGame.HUMAN_OPPONENT);
+        for(byte b : start){
+            send(new byte[]{b});
+            Thread.sleep(20);
+        }
+        assertArrayEquals(new byte[]{Protocol.GAME_STARTED, 3, 3, 3}, readMessage());
+
+        //Two moves, split in the middle of both
+        byte[] moves = concat(move(0, 0), move(1, 1));
+        send(Arrays.copyOfRange(moves, 0, 2));
+        Thread.sleep(20);
+        send(Arrays.copyOfRange(moves, 2, 4));
+        Thread.sleep(20);
+        send(Arrays.copyOfRange(moves, 4, 6));
+
+        byte[] first = readMessage();
+        assertEquals(Player.X.ordinal(), first[1]);
+        assertEquals(0, first[2]);
+        assertEquals(0, first[3]);
+
+        byte[] second = readMessage();
+        assertEquals(Player.O.ordinal(), second[1]);
+        assertEquals(1, second[2]);
+        assertEquals(1, second[3]);
+    }
+
+
+    @Test
+    public void restartingGamesMidTurnDoesNotUseUpTheEngine() throws IOException {
+        //With one engine thread and no queue, any turn whose place wasn't given back would
+        //stall every turn after it
+        for(int i = 0; i < 50; i++){
+            send(concat(newGame(3, 3, 3, TicTocToeGame.COMPUTER_OPPONENT), move(i % 3, i / 3 % 3)));
+        }
+
+        send(concat(newGame(3, 3, 3, TicTocToeGame.COMPUTER_OPPONENT), move(1, 1)));
+
+        //Skip the replies to the earlier games until the last game's computer reply
+        int gamesStarted = 0;
+        while(true){
+            byte[] message = readMessage();
+            if(message[0] == Protocol.GAME_STARTED){
+                gamesStarted++;
+            }
+            else if(gamesStarted == 51 && message[0] == Protocol.MOVE_MADE && message[1] == Player.O.ordinal()){
+                break;
+            }
+        }
+    }
+
+
+    /**
+     * Reads one whole message, however it was split up on the way.
+     */
+    private byte[] readMessage() throws IOException {
+        byte type = in.readByte();
+        int size = Protocol.messageSize(type);
+        assertTrue(String.format("Unknown message type %d.", type), size > 0);
+
+        byte[] message = new byte[size];
+        message[0] = type;
+        in.readFully(message, 1, size - 1);
+
+        return message;
+    }
+
+
+    private void send(byte[] bytes) throws IOException {
+        out.write(bytes);
+        out.flush();
+    }
+
+
+    private static byte[] newGame(int rows, int cols, int winLength, int opponentType){
+        ByteBuffer buffer = ByteBuffer.allocate(Protocol.messageSize(Protocol.NEW_GAME));
+        Protocol.writeNewGame(buffer, rows, cols, winLength, opponentType);
+        return buffer.array();
+    }
+
+
+    private static byte[] move(int row, int col){
+        ByteBuffer buffer = ByteBuffer.allocate(Protocol.messageSize(Protocol.MOVE));
+        Protocol.writeMove(buffer, row, col);
+        return buffer.array();
+    }
+
+
+    private static byte[] concat(byte[] first, byte[] second){
+        byte[] both = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, both, first.length, second.length);
+        return both;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.tic_toc_toe_app.Simulator;
+
+import com.example.tic_toc_toe_app.Models.ComputerMoveGenerator;
+import com.example.tic_toc_toe_app.Models.HardDifficultyMovePicker;
+import com.example.tic_toc_toe_app.Models.IterativeDeepeningMovePicker;
+import com.example.tic_toc_toe_app.Models.MediumDifficultyMovePicker;
+import com.example.tic_toc_toe_app.Models.MonteCarloMovePicker;
+import com.example.tic_toc_toe_app.Models.OpeningBook;
+import com.example.tic_toc_toe_app.Models.OpeningBookMovePicker;
+import com.example.tic_toc_toe_app.Models.OptimalMoveTableMovePicker;
+import com.example.tic_toc_toe_app.Models.ParallelAlphaBetaMovePicker;
+import com.example.tic_toc_toe_app.Models.PonderingMovePicker;
+import com.example.tic_toc_toe_app.Models.ThreatSearchMovePicker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+
+/**
+ * Creates the {@link ComputerMoveGenerator ComputerMoveGenerators} that the simulator plays
+ * against each other. Every simulation thread creates its own generators, so no generator is
+ * shared between threads.
+ */
+public interface GeneratorFactory {
+    /**
+     * Creates a new move generator.
+     *
+     * @param random a random number generator owned by the calling thread, for generators that
+     *               make random choices.
+     * @return the new move generator.
+     */
+    ComputerMoveGenerator create(Random random);
+
+
+    /**
+     * Looks up a generator factory by name. The names are "medium", "hard", "table",
+     * "mcts:&lt;milliseconds per move&gt;", "deepening:&lt;milliseconds per move&gt;",
+     * "parallel:&lt;threads&gt;:&lt;milliseconds per move&gt;" and
+     * "threats:&lt;milliseconds per move&gt;". Any of them can be prefixed with "ponder:" to have
+     * it work out its replies while the other side is thinking, or with "book:&lt;file&gt;:" to
+     * have it play from an {@link OpeningBook OpeningBook} first. The book is opened once and
+     * shared by every generator the factory creates.
+     *
+     * @param name the name of the generator.
+     * @return a factory for that generator.
+     * @throws IllegalArgumentException if there is no generator with that name.
+     * @throws UncheckedIOException if an opening book can't be opened.
+     */
+    static GeneratorFactory forName(String name) {
+        if(name.equals("medium")){
+            return MediumDifficultyMovePicker::new;
+        }
+        if(name.equals("hard")){
+            return random -> new HardDifficultyMovePicker();
+        }
+        if(name.equals("table")){
+            return random -> new OptimalMoveTableMovePicker();
+        }
+        if(name.startsWith("mcts:")){
+            long millisPerMove = Long.parseLong(name.substring("mcts:".length()));
+            return random -> new MonteCarloMovePicker(1, millisPerMove, random);
+        }
+        if(name.startsWith("deepening:")){
+            long millisPerMove = Long.parseLong(name.substring("deepening:".length()));
+            return random -> new IterativeDeepeningMovePicker(millisPerMove);
+        }
+        if(name.startsWith("threats:")){
+            long millisPerMove = Long.parseLong(name.substring("threats:".length()));
+            return random -> new ThreatSearchMovePicker(millisPerMove);
+        }
+        if(name.startsWith("parallel:")){
+            String[] parts = name.substring("parallel:".length()).split(":");
+            if(parts.length != 2){
+                throw new IllegalArgumentException(String.format("%s is not parallel:<threads>:<milliseconds>.", name));
+            }
+
+            int threads = Integer.parseInt(parts[0]);
+            long millisPerMove = Long.parseLong(parts[1]);
+            return random -> new ParallelAlphaBetaMovePicker(threads, millisPerMove);
+        }
+        if(name.startsWith("ponder:")){
+            GeneratorFactory pondered = forName(name.substring("ponder:".length()));
+            return random -> new PonderingMovePicker(pondered.create(random));
+        }
+        if(name.startsWith("book:")){
+            int end = name.indexOf(':', "book:".length());
+            if(end == -1){
+                throw new IllegalArgumentException(String.format("%s is not book:<file>:<name>.", name));
+            }
+
+            GeneratorFactory fallback = forName(name.substring(end + 1));
+            OpeningBook book;
+            try {
+                book = new OpeningBook(new File(name.substring("book:".length(), end)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return random -> new OpeningBookMovePicker(book, fallback.create(random));
+        }
+
+        throw new IllegalArgumentException(String.format("%s is not a known move generator.", name));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.tic_toc_toe_app.Simulator;
+
+import com.example.tic_toc_toe_app.Models.GameRecordReader;
+import com.example.tic_toc_toe_app.Models.OpeningBookBuilder;
+
+import java.io.File;
+import java.io.IOException;
+
+
+/**
+ * Command line tool that builds an {@link com.example.tic_toc_toe_app.Models.OpeningBook
+ * OpeningBook} from the games in a game record log, such as one written by
+ * {@link SelfPlaySimulator SelfPlaySimulator} with --record. The book can then be played with
+ * the "book:&lt;file&gt;:&lt;name&gt;" generators.
+ *
+ * Usage: OpeningBookTool --log FILE --book FILE [--max-moves N] [--min-games N]
+ */
+public class OpeningBookTool {
+    private String logPath = null;
+    private String bookPath = null;
+    private int maxMoves = 8;
+    private int minGames = 10;
+
+
+    public static void main(String[] args) throws IOException {
+        OpeningBookTool tool = new OpeningBookTool();
+
+        try {
+            tool.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: OpeningBookTool --log FILE --book FILE [--max-moves N] [--min-games N]");
+            System.exit(1);
+        }
+
+        tool.run();
+    }
+
+
+    /**
+     * Reads the command line options into this tool's settings.
+     *
+     * @param args the command line arguments.
+     * @throws IllegalArgumentException if an option is unknown or its value is invalid.
+     */
+    void parseArguments(String[] args) {
+        for(int i = 0; i < args.length; i += 2){
+            if(i + 1 >= args.length){
+                throw new IllegalArgumentException(String.format("Missing value for %s.", args[i]));
+            }
+
+            String value = args[i + 1];
+            switch(args[i]){
+                case "--log":
+                    logPath = value;
+                    break;
+                case "--book":
+                    bookPath = value;
+                    break;
+                case "--max-moves":
+                    maxMoves = Integer.parseInt(value);
+                    break;
+                case "--min-games":
+                    minGames = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("Unknown option %s.", args[i]));
+            }
+        }
+
+        if(logPath == null || bookPath == null){
+            throw new IllegalArgumentException("Both --log and --book are needed.");
+        }
+        if(maxMoves < 0 || minGames < 1){
+            throw new IllegalArgumentException("--max-moves can't be negative and --min-games must be at least 1.");
+        }
+    }
+
+
+    /**
+     * Reads the log and writes the book.
+     */
+    void run() throws IOException {
+        long start = System.nanoTime();
+
+        try(GameRecordReader log = new GameRecordReader(new File(logPath))){
+            OpeningBookBuilder builder = new OpeningBookBuilder(
+                    log.getBoardRows(), log.getBoardColumns(), log.getWinLength(), maxMoves);
+            builder.addGames(log);
+
+            int written = builder.write(new File(bookPath), minGames);
+            System.out.printf("Read %,d games with %,d positions in their first %d moves; wrote %,d positions to %s (%.2f s)%n",
+                    log.getGameCount(), builder.getPositionCount(), maxMoves, written, bookPath,
+                    (System.nanoTime() - start) / 1e9);
+        }
+    }
+}
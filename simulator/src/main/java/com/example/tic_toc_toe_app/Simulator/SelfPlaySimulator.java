@@ -0,0 +1,231 @@
+package com.example.tic_toc_toe_app.Simulator;
+
+import com.example.tic_toc_toe_app.Models.ComputerMoveGenerator;
+import com.example.tic_toc_toe_app.Models.EngineMetrics;
+import com.example.tic_toc_toe_app.Models.GameRecordWriter;
+import com.example.tic_toc_toe_app.Models.GeneratorMetrics;
+import com.example.tic_toc_toe_app.Models.LatencyHistogram;
+import com.example.tic_toc_toe_app.Models.MoveGeneratorRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+/**
+ * Command line runner that plays many complete games between two
+ * {@link com.example.tic_toc_toe_app.Models.ComputerMoveGenerator ComputerMoveGenerators} on a
+ * {@link com.example.tic_toc_toe_app.Models.TicTocToeGameModel TicTocToeGameModel}, without any
+ * Android UI. The games are split evenly over the threads, and each thread has its own
+ * generators and its own seeded random number generator, so no state is shared while playing.
+ * With --record, every game is also appended to a {@link GameRecordWriter game record log}. O's
+ * turns are measured with {@link EngineMetrics EngineMetrics}, which are printed with the results.
+ *
+ * Usage: SelfPlaySimulator [--x NAME] [--o NAME] [--games N] [--threads N] [--seed N]
+ *                          [--board ROWS,COLS,WIN_LENGTH] [--record FILE]
+ */
+public class SelfPlaySimulator {
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final int RECORD_BUFFER_SIZE = 1 << 20;
+
+    private String xGenerator = "medium";
+    private String oGenerator = "medium";
+    private long games = 1_000_000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long seed = 1;
+    private int rows = 3;
+    private int cols = 3;
+    private int winLength = 3;
+    private String recordPath = null;
+
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        SelfPlaySimulator simulator = new SelfPlaySimulator();
+
+        try {
+            simulator.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: SelfPlaySimulator [--x NAME] [--o NAME] [--games N] [--threads N] "
+                    + "[--seed N] [--board ROWS,COLS,WIN_LENGTH] [--record FILE]");
+            System.err.println("Generator names: medium, hard, table, mcts:<milliseconds per move>, "
+                    + "deepening:<milliseconds per move>, parallel:<threads>:<milliseconds per move>, "
+                    + "threats:<milliseconds per move>, "
+                    + "optionally prefixed with ponder: or book:<file>:");
+            System.exit(1);
+        }
+
+        simulator.run();
+    }
+
+
+    /**
+     * Reads the command line options into this simulator's settings.
+     *
+     * @param args the command line arguments.
+     * @throws IllegalArgumentException if an option is unknown or its value is invalid.
+     */
+    void parseArguments(String[] args) {
+        for(int i = 0; i < args.length; i += 2){
+            if(i + 1 >= args.length){
+                throw new IllegalArgumentException(String.format("Missing value for %s.", args[i]));
+            }
+
+            String value = args[i + 1];
+            switch(args[i]){
+                case "--x":
+                    xGenerator = value;
+                    break;
+                case "--o":
+                    oGenerator = value;
+                    break;
+                case "--games":
+                    games = Long.parseLong(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--board":
+                    String[] shape = value.split(",");
+                    if(shape.length != 3){
+                        throw new IllegalArgumentException(String.format("%s is not ROWS,COLS,WIN_LENGTH.", value));
+                    }
+                    rows = Integer.parseInt(shape[0].trim());
+                    cols = Integer.parseInt(shape[1].trim());
+                    winLength = Integer.parseInt(shape[2].trim());
+                    break;
+                case "--record":
+                    recordPath = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("Unknown option %s.", args[i]));
+            }
+        }
+
+        if(games < 1 || threads < 1){
+            throw new IllegalArgumentException("The number of games and threads must be at least 1.");
+        }
+
+        //Fail now rather than on every thread
+        GeneratorFactory.forName(xGenerator);
+        GeneratorFactory.forName(oGenerator);
+    }
+
+
+    /**
+     * Plays all the games and prints the results.
+     */
+    void run() throws InterruptedException, IOException {
+        System.out.printf("Playing %,d games of %s (X) vs %s (O) on a %dx%d board, %d in a row, with %d threads%n",
+                games, xGenerator, oGenerator, rows, cols, winLength, threads);
+
+        GameRecordWriter recorder = openRecorder();
+        EngineMetrics metrics = new EngineMetrics();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Random seeds = new Random(seed);
+        List<Future<SimulationResult>> futures = new ArrayList<>();
+
+        //Each thread records into its own metrics, which are added up once the games are over
+        List<GeneratorMetrics> threadMetrics = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for(int i = 0; i < threads; i++){
+            long gamesForThread = games / threads + (i < games % threads ? 1 : 0);
+            GeneratorMetrics workerMetrics = new GeneratorMetrics(oGenerator);
+            threadMetrics.add(workerMetrics);
+
+            futures.add(pool.submit(new SimulationWorker(
+                    GeneratorFactory.forName(xGenerator), GeneratorFactory.forName(oGenerator),
+                    gamesForThread, seeds.nextLong(), rows, cols, winLength, recorder, workerMetrics)));
+        }
+
+
+        SimulationResult total = new SimulationResult();
+        try {
+            for(Future<SimulationResult> future : futures){
+                total.merge(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+            if(recorder != null){
+                recorder.close();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for(GeneratorMetrics workerMetrics : threadMetrics){
+            metrics.forGenerator(oGenerator).merge(workerMetrics);
+        }
+
+
+        printResults(total, elapsed);
+        metrics.print(System.out);
+    }
+
+
+    /**
+     * Opens the game record log, if one was asked for, with X's generator id filled in.
+     *
+     * @return the log, or null if games aren't being recorded.
+     */
+    private GameRecordWriter openRecorder() throws IOException {
+        if(recordPath == null){
+            return null;
+        }
+
+        MoveGeneratorRegistry registry = MoveGeneratorRegistry.defaultRegistry();
+        GameRecordWriter recorder = new GameRecordWriter(new File(recordPath), rows, cols, winLength,
+                registry, RECORD_BUFFER_SIZE);
+
+        ComputerMoveGenerator x = GeneratorFactory.forName(xGenerator).create(new Random());
+        if(registry.isRegistered(x)){
+            recorder.setXGenerator(registry.idOf(x));
+        }
+
+        return recorder;
+    }
+
+
+    private void printResults(SimulationResult total, long elapsedNanos) {
+        double played = total.getGames();
+
+        System.out.printf("X wins: %,d (%.2f%%)%n", total.getXWins(), 100 * total.getXWins() / played);
+        System.out.printf("O wins: %,d (%.2f%%)%n", total.getOWins(), 100 * total.getOWins() / played);
+        System.out.printf("Draws:  %,d (%.2f%%)%n", total.getDraws(), 100 * total.getDraws() / played);
+        System.out.printf("%,.0f games/sec (%.2f s total)%n", played * 1e9 / elapsedNanos, elapsedNanos / 1e9);
+
+        printLatency("X", total.getXMoveLatency());
+        printLatency("O", total.getOMoveLatency());
+    }
+
+
+    private void printLatency(String player, LatencyHistogram histogram) {
+        StringBuilder line = new StringBuilder();
+        line.append(String.format("%s move latency (ns) over %,d moves:", player, histogram.getTotalCount()));
+
+        for(double percentile : PERCENTILES){
+            line.append(String.format(" p%s=%,d", formatPercentile(percentile), histogram.getPercentile(percentile)));
+        }
+        line.append(String.format(" max=%,d", histogram.getMax()));
+
+        System.out.println(line);
+    }
+
+
+    private static String formatPercentile(double percentile) {
+        String text = Double.toString(percentile * 100);
+
+        return text.endsWith(".0") ? text.substring(0, text.length() - 2) : text;
+    }
+}
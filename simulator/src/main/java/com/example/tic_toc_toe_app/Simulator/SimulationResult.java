@@ -0,0 +1,85 @@
+package com.example.tic_toc_toe_app.Simulator;
+
+import com.example.tic_toc_toe_app.Models.LatencyHistogram;
+
+
+/**
+ * The tally of games played by one simulation thread, or of several threads merged together.
+ */
+public class SimulationResult {
+    private long xWins = 0;
+    private long oWins = 0;
+    private long draws = 0;
+    private final LatencyHistogram xMoveLatency = new LatencyHistogram();
+    private final LatencyHistogram oMoveLatency = new LatencyHistogram();
+
+
+    void recordXWin() {
+        xWins++;
+    }
+
+
+    void recordOWin() {
+        oWins++;
+    }
+
+
+    void recordDraw() {
+        draws++;
+    }
+
+
+    /**
+     * Adds the tallies of another result to this one.
+     *
+     * @param other the result to add.
+     */
+    public void merge(SimulationResult other) {
+        xWins += other.xWins;
+        oWins += other.oWins;
+        draws += other.draws;
+        xMoveLatency.merge(other.xMoveLatency);
+        oMoveLatency.merge(other.oMoveLatency);
+    }
+
+
+    public long getGames() {
+        return xWins + oWins + draws;
+    }
+
+
+    public long getXWins() {
+        return xWins;
+    }
+
+
+    public long getOWins() {
+        return oWins;
+    }
+
+
+    public long getDraws() {
+        return draws;
+    }
+
+
+    /**
+     * Returns the time each move by X took, from asking X's generator for a move until the move
+     * was made on the model.
+     *
+     * @return the histogram of X's move times.
+     */
+    public LatencyHistogram getXMoveLatency() {
+        return xMoveLatency;
+    }
+
+
+    /**
+     * Returns the time each call to takeComputerTurn for O took.
+     *
+     * @return the histogram of O's move times.
+     */
+    public LatencyHistogram getOMoveLatency() {
+        return oMoveLatency;
+    }
+}
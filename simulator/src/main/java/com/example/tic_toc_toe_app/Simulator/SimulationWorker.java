@@ -0,0 +1,109 @@
+package com.example.tic_toc_toe_app.Simulator;
+
+import com.example.tic_toc_toe_app.Models.ComputerMoveGenerator;
+import com.example.tic_toc_toe_app.Models.GameRecorder;
+import com.example.tic_toc_toe_app.Models.MetricsListener;
+import com.example.tic_toc_toe_app.Models.Move;
+import com.example.tic_toc_toe_app.Models.Player;
+import com.example.tic_toc_toe_app.Models.TicTocToeGame;
+import com.example.tic_toc_toe_app.Models.TicTocToeGameModel;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+
+/**
+ * Plays a fixed number of games on one thread. X's moves come from one generator and are made
+ * with takeTurn, while O is the model's own computer opponent.
+ */
+class SimulationWorker implements Callable<SimulationResult> {
+    private final GeneratorFactory xFactory;
+    private final GeneratorFactory oFactory;
+    private final long games;
+    private final long seed;
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+    private final GameRecorder recorder;
+    private final MetricsListener metrics;
+
+
+    SimulationWorker(GeneratorFactory xFactory, GeneratorFactory oFactory, long games, long seed,
+                     int rows, int cols, int winLength, GameRecorder recorder, MetricsListener metrics) {
+        this.xFactory = xFactory;
+        this.oFactory = oFactory;
+        this.games = games;
+        this.seed = seed;
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
+        this.recorder = recorder;
+        this.metrics = metrics;
+    }
+
+
+    @Override
+    public SimulationResult call() {
+        Random random = new Random(seed);
+        ComputerMoveGenerator xGenerator = xFactory.create(new Random(random.nextLong()));
+        ComputerMoveGenerator oGenerator = oFactory.create(new Random(random.nextLong()));
+
+        //The generators may have worker threads of their own, which are stopped when the games
+        //are done
+        try {
+            TicTocToeGameModel model = new TicTocToeGameModel(oGenerator);
+            model.setRecorder(recorder);
+            model.setMetricsListener(metrics);
+            SimulationResult result = new SimulationResult();
+
+            //X's view of the board, kept up to date as moves are made instead of being copied
+            //out of the model every turn.
+            Player[][] board = new Player[rows][cols];
+
+
+            for(long game = 0; game < games; game++){
+                model.startNewGame(TicTocToeGame.COMPUTER_OPPONENT, rows, cols, winLength);
+                for(Player[] row : board){
+                    Arrays.fill(row, null);
+                }
+
+                while(!model.isGameOver()){
+                    long start = System.nanoTime();
+                    int move = xGenerator.chooseMove(board, winLength, Player.X);
+                    if(!model.takeTurn(Move.row(move), Move.col(move))){
+                        throw new IllegalStateException(String.format(
+                                "X chose an illegal move %s.", Move.toString(move)));
+                    }
+                    result.getXMoveLatency().record(System.nanoTime() - start);
+                    board[Move.row(move)][Move.col(move)] = Player.X;
+
+                    if(model.isGameOver()){
+                        break;
+                    }
+
+                    start = System.nanoTime();
+                    move = model.takeComputerTurn();
+                    result.getOMoveLatency().record(System.nanoTime() - start);
+                    board[Move.row(move)][Move.col(move)] = Player.O;
+                }
+
+
+                if(model.getWinner() == Player.X){
+                    result.recordXWin();
+                }
+                else if(model.getWinner() == Player.O){
+                    result.recordOWin();
+                }
+                else{
+                    result.recordDraw();
+                }
+            }
+
+            return result;
+        } finally {
+            xGenerator.shutdown();
+            oGenerator.shutdown();
+        }
+    }
+}